@@ -4,6 +4,8 @@ import com.weather.data.model.WeatherData;
 import com.weather.data.repository.WeatherDataRepository;
 import com.weather.data.service.CsvProcessorService;
 import com.weather.data.service.WeatherDataStatistics;
+import com.weather.data.store.ColumnarWeatherStore;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -19,24 +21,53 @@ public class DataApplication {
 	}
 
 	@Bean
-	public CommandLineRunner processWeatherData(CsvProcessorService csvProcessorService, WeatherDataRepository weatherDataRepository) {
+	public CommandLineRunner processWeatherData(CsvProcessorService csvProcessorService, WeatherDataRepository weatherDataRepository,
+												ColumnarWeatherStore columnarWeatherStore,
+												@Value("${weather.ingest.streaming:false}") boolean streaming,
+												@Value("${weather.ingest.on-startup:true}") boolean onStartup) {
 		return args -> {
+			if (columnarWeatherStore.isEnabled()) {
+				// A persistent database keeps the rows of earlier runs; the store starts out with all of them
+				columnarWeatherStore.loadFromDatabase();
+			}
+			if (!onStartup) {
+				System.out.println("Startup ingestion disabled; load data with POST /api/weather/ingest");
+				return;
+			}
 			System.out.println("=== Starting Weather Data CSV Processing ===");
 			
 			try {
+				if (streaming) {
+					System.out.println("Streaming CSV file to database...");
+					WeatherDataStatistics statistics = csvProcessorService.processCsvFileStreaming();
+
+					System.out.println("\n=== Database Statistics ===");
+					System.out.println("Total records in database: " + weatherDataRepository.count());
+
+					System.out.println("\n=== Analyzing Weather Data ===");
+					System.out.println(statistics);
+
+					System.out.println("\n=== Processing Complete ===");
+					return;
+				}
+
 				System.out.println("Reading CSV file...");
 				List<WeatherData> weatherDataList = csvProcessorService.readCsvFile();
 				System.out.println("Successfully loaded " + weatherDataList.size() + " records from CSV");
 
 				System.out.println("\n=== Saving Data to Database ===");
-				csvProcessorService.saveWeatherDataToDatabase(weatherDataList);
+				// Rows already stored or repeated in the file are left out of the statistics and the columnar store
+				List<WeatherData> storedDataList = csvProcessorService.saveWeatherDataToDatabase(weatherDataList);
+				if (columnarWeatherStore.isEnabled()) {
+					columnarWeatherStore.append(storedDataList);
+				}
 
 				System.out.println("\n=== Database Statistics ===");
 				long totalRecordsInDb = weatherDataRepository.count();
 				System.out.println("Total records in database: " + totalRecordsInDb);
 
 				System.out.println("\n=== Analyzing Weather Data ===");
-				WeatherDataStatistics statistics = csvProcessorService.analyzeWeatherData(weatherDataList);
+				WeatherDataStatistics statistics = csvProcessorService.analyzeWeatherData(storedDataList);
 				System.out.println(statistics);
 
 				System.out.println("\n=== Sample Data (First 5 records) ===");
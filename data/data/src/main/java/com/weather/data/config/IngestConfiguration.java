@@ -0,0 +1,63 @@
+package com.weather.data.config;
+
+import com.weather.data.parser.MappedCsvReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class IngestConfiguration {
+
+    @Value("${weather.ingest.parallelism:0}")
+    private int parallelism;
+
+    @Value("${weather.ingest.chunk-size:8388608}")
+    private int chunkSize;
+
+    @Value("${weather.ingest.concurrent-jobs:2}")
+    private int concurrentJobs;
+
+    @Bean
+    public ThreadPoolTaskExecutor csvParserExecutor() {
+        ThreadPoolTaskExecutor executor = fixedPool("csv-parser-", parserThreads());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Runs ingest jobs submitted through the API; jobs beyond {@code weather.ingest.concurrent-jobs} wait queued.
+     * Running jobs are interrupted on shutdown.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor ingestJobExecutor() {
+        return fixedPool("ingest-job-", concurrentJobs);
+    }
+
+    /**
+     * Runs the database writer of each streaming load, so there is one for every API job plus the
+     * startup load. Running writers are interrupted on shutdown.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor ingestWriterExecutor() {
+        return fixedPool("ingest-writer-", concurrentJobs + 1);
+    }
+
+    @Bean
+    public MappedCsvReader mappedCsvReader(ThreadPoolTaskExecutor csvParserExecutor) {
+        return new MappedCsvReader(csvParserExecutor.getThreadPoolExecutor(), parserThreads(), chunkSize);
+    }
+
+    private static ThreadPoolTaskExecutor fixedPool(String threadNamePrefix, int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setDaemon(true);
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        return executor;
+    }
+
+    private int parserThreads() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+}
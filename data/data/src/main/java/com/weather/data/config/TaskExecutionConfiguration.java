@@ -0,0 +1,26 @@
+package com.weather.data.config;
+
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Spring Boot only creates its {@code applicationTaskExecutor} when the context has no other
+ * Executor bean, and the ingest pools are Executors. Without it, async MVC requests such as the
+ * streaming exports would get a new thread each; this declares it the way Boot does, configured by
+ * the {@code spring.task.execution.*} properties.
+ */
+@Configuration
+public class TaskExecutionConfiguration {
+
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+}
@@ -0,0 +1,176 @@
+package com.weather.data.controller;
+
+import com.weather.data.model.WeatherData;
+import com.weather.data.service.IngestJob;
+import com.weather.data.service.IngestJobService;
+import com.weather.data.service.IngestProgress;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/weather/ingest")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class IngestController {
+
+    @Autowired
+    private IngestJobService ingestJobService;
+
+    // The only directory POST /ingest?path= may read from; loading server files is disabled when blank
+    @Value("${weather.ingest.directory:}")
+    private String ingestDirectory;
+
+    /**
+     * Load an uploaded CSV file in the background; rows the station already has are skipped
+     * POST /api/weather/ingest?station=DEFAULT (multipart/form-data, part "file")
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> uploadCsv(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = WeatherData.DEFAULT_STATION) String station) {
+        try {
+            String stationName = validateStation(station);
+            if (file.isEmpty()) {
+                throw new IllegalArgumentException("Uploaded file is empty");
+            }
+            Path spooled = Files.createTempFile("weather-ingest-", ".csv");
+            file.transferTo(spooled);
+            String source = file.getOriginalFilename() != null ? file.getOriginalFilename() : spooled.toString();
+            return accepted(ingestJobService.submit(spooled, "upload:" + source, stationName, true));
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * Load a CSV file from the ingest directory in the background; a relative path is resolved
+     * against the directory. Loading it again only reads the lines appended since the previous load.
+     * POST /api/weather/ingest?path=testset.csv&station=DEFAULT
+     */
+    @PostMapping(params = "path")
+    public ResponseEntity<Map<String, Object>> ingestServerFile(
+            @RequestParam String path,
+            @RequestParam(defaultValue = WeatherData.DEFAULT_STATION) String station) {
+        if (ingestDirectory.trim().isEmpty()) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Loading server files is disabled; set weather.ingest.directory to enable it");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+        }
+        try {
+            String stationName = validateStation(station);
+            Path file = resolveIngestFile(path);
+            return accepted(ingestJobService.submit(file, "file:" + file, stationName, false));
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * Get the state and progress of one ingest job
+     * GET /api/weather/ingest/{jobId}
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String jobId) {
+        IngestJob job = ingestJobService.getJob(jobId);
+        if (job == null) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Ingest job not found: " + jobId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+        return ResponseEntity.ok(toResponse(job));
+    }
+
+    /**
+     * Get all tracked ingest jobs, most recent first
+     * GET /api/weather/ingest
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getJobs() {
+        List<Map<String, Object>> jobs = new ArrayList<>();
+        for (IngestJob job : ingestJobService.getJobs()) {
+            jobs.add(toResponse(job));
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("jobs", jobs);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Resolves {@code path} inside the ingest directory. Both are resolved to real paths first, so
+     * neither ".." segments nor symbolic links lead outside it.
+     */
+    private Path resolveIngestFile(String path) throws IOException {
+        Path directory = Paths.get(ingestDirectory.trim()).toRealPath();
+        Path requested = directory.resolve(path).normalize();
+        if (!requested.startsWith(directory)) {
+            throw new IllegalArgumentException("Path is outside the ingest directory: " + path);
+        }
+        if (!Files.isRegularFile(requested) || !Files.isReadable(requested)) {
+            throw new IllegalArgumentException("Not a readable file in the ingest directory: " + path);
+        }
+        Path file = requested.toRealPath();
+        if (!file.startsWith(directory)) {
+            throw new IllegalArgumentException("Path is outside the ingest directory: " + path);
+        }
+        return file;
+    }
+
+    private static String validateStation(String station) {
+        String name = station.trim();
+        if (name.isEmpty() || name.length() > 64) {
+            throw new IllegalArgumentException("Station must be 1 to 64 characters: " + station);
+        }
+        return name;
+    }
+
+    private static ResponseEntity<Map<String, Object>> accepted(IngestJob job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/weather/ingest/" + job.getId()))
+                .body(toResponse(job));
+    }
+
+    private static Map<String, Object> toResponse(IngestJob job) {
+        IngestProgress progress = job.getProgress();
+        Map<String, Object> response = new HashMap<>();
+        response.put("jobId", job.getId());
+        response.put("source", job.getSource());
+        response.put("station", job.getStation());
+        response.put("state", job.getState());
+        response.put("submittedAt", job.getSubmittedAt().toString());
+        response.put("startedAt", job.getStartedAt() != null ? job.getStartedAt().toString() : null);
+        response.put("finishedAt", job.getFinishedAt() != null ? job.getFinishedAt().toString() : null);
+        response.put("rowsParsed", progress.getRowsParsed());
+        response.put("rowsRejected", progress.getRowsRejected());
+        response.put("rowsPersisted", progress.getRowsPersisted());
+        response.put("rowsSkipped", progress.getRowsSkipped());
+        response.put("startOffset", progress.getStartOffset());
+        response.put("bytesRead", progress.getBytesRead());
+        response.put("totalBytes", progress.getTotalBytes());
+        response.put("progress", String.format("%.1f%%", job.getFractionRead() * 100));
+        response.put("elapsedSeconds", job.getElapsedSeconds());
+        response.put("rowsPerSecond", Math.round(job.getRowsPerSecond()));
+        response.put("etaSeconds", job.getEtaSeconds());
+        if (job.getError() != null) {
+            response.put("error", job.getError());
+        }
+        return response;
+    }
+}
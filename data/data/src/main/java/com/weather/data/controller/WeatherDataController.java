@@ -1,20 +1,54 @@
 package com.weather.data.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weather.data.entity.HistogramMetric;
+import com.weather.data.entity.RollupGranularity;
 import com.weather.data.entity.WeatherDataEntity;
+import com.weather.data.entity.WeatherRollupEntity;
+import com.weather.data.repository.ConditionCount;
+import com.weather.data.repository.KeysetCursor;
+import com.weather.data.repository.NameIdDictionary;
+import com.weather.data.repository.StationSummary;
+import com.weather.data.repository.WeatherConditionDictionary;
+import com.weather.data.repository.WeatherDataFields;
 import com.weather.data.repository.WeatherDataRepository;
+import com.weather.data.repository.WeatherStationDictionary;
+import com.weather.data.service.DatasetVersion;
+import com.weather.data.service.Downsampler;
+import com.weather.data.service.MetricHistogram;
+import com.weather.data.service.QueryResultCache;
+import com.weather.data.service.TimeSeriesService;
+import com.weather.data.service.WeatherDataExportService;
+import com.weather.data.service.WeatherRollupService;
+import com.weather.data.service.WeatherDataStatistics;
+import com.weather.data.service.WeatherStatisticsAccumulator;
+import com.weather.data.specification.WeatherDataFilter;
+import com.weather.data.store.ColumnarQueryEngine;
+import com.weather.data.store.ColumnarWeatherStore;
 import com.weather.data.specification.WeatherDataSpecification;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -24,80 +58,78 @@ import java.util.Optional;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class WeatherDataController {
 
+    private static final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     @Autowired
     private WeatherDataRepository weatherDataRepository;
 
-    private static final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    @Autowired
+    private WeatherConditionDictionary weatherConditionDictionary;
+
+    @Autowired
+    private WeatherStationDictionary weatherStationDictionary;
+
+    @Autowired
+    private QueryResultCache queryResultCache;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    @Autowired
+    private WeatherDataExportService weatherDataExportService;
+
+    @Autowired
+    private WeatherRollupService weatherRollupService;
+
+    @Autowired
+    private TimeSeriesService timeSeriesService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ColumnarWeatherStore columnarWeatherStore;
+
+    @Autowired
+    private ColumnarQueryEngine columnarQueryEngine;
 
     /**
      * Advanced search with filtering and sorting
      * GET /api/weather/search?minTemp=20&maxTemp=30&sortBy=temperature&sortDir=DESC&page=0&size=100
+     * Passing cursor (empty for the first page) switches to keyset paging: /search?minTemp=20&cursor=
      */
     @GetMapping("/search")
     public ResponseEntity<Map<String, Object>> searchWeatherData(
-            @RequestParam(required = false) Double minTemp,
-            @RequestParam(required = false) Double maxTemp,
-            @RequestParam(required = false) Integer minHumidity,
-            @RequestParam(required = false) Integer maxHumidity,
-            @RequestParam(required = false) String startDate,
-            @RequestParam(required = false) String endDate,
-            @RequestParam(required = false) String condition,
-            @RequestParam(required = false) Double minPressure,
-            @RequestParam(required = false) Double maxPressure,
-            @RequestParam(required = false) Double minVisibility,
-            @RequestParam(required = false) Double maxVisibility,
-            @RequestParam(required = false) Double minWindSpeed,
-            @RequestParam(required = false) Double maxWindSpeed,
-            @RequestParam(required = false) String weatherEvent,
+            WeatherDataFilter filter,
             @RequestParam(defaultValue = "datetime") String sortBy,
             @RequestParam(defaultValue = "ASC") String sortDir,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "100") int size) {
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean withTotal,
+            @RequestParam(required = false) String fields) {
         
+        if (cursor != null) {
+            return getKeysetPage(filter, sortBy, sortDir, cursor, size, fields);
+        }
         try {
             Sort.Direction direction = Sort.Direction.fromString(sortDir.toUpperCase());
             Sort sort = Sort.by(direction, getSortField(sortBy));
             Pageable pageable = PageRequest.of(page, size, sort);
             
-            Specification<WeatherDataEntity> spec = Specification.where((root, query, cb) -> cb.conjunction());
-            
-            if (minTemp != null || maxTemp != null) {
-                spec = spec.and(WeatherDataSpecification.hasTemperatureRange(minTemp, maxTemp));
-            }
-            if (minHumidity != null || maxHumidity != null) {
-                spec = spec.and(WeatherDataSpecification.hasHumidityRange(minHumidity, maxHumidity));
-            }
-            if (condition != null && !condition.isEmpty()) {
-                spec = spec.and(WeatherDataSpecification.hasCondition(condition));
-            }
-            if (minPressure != null || maxPressure != null) {
-                spec = spec.and(WeatherDataSpecification.hasPressureRange(minPressure, maxPressure));
-            }
-            if (minVisibility != null || maxVisibility != null) {
-                spec = spec.and(WeatherDataSpecification.hasVisibilityRange(minVisibility, maxVisibility));
-            }
-            if (minWindSpeed != null || maxWindSpeed != null) {
-                spec = spec.and(WeatherDataSpecification.hasWindSpeedRange(minWindSpeed, maxWindSpeed));
-            }
-            if (weatherEvent != null && !weatherEvent.isEmpty()) {
-                spec = spec.and(WeatherDataSpecification.hasWeatherEvent(weatherEvent));
-            }
-            if (startDate != null || endDate != null) {
-                LocalDateTime start = startDate != null ? LocalDateTime.parse(startDate, dateTimeFormatter) : null;
-                LocalDateTime end = endDate != null ? LocalDateTime.parse(endDate, dateTimeFormatter) : null;
-                spec = spec.and(WeatherDataSpecification.hasDateRange(start, end));
-            }
-            
-            Page<WeatherDataEntity> dataPage = weatherDataRepository.findAll(spec, pageable);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("totalRecords", dataPage.getTotalElements());
-            response.put("totalPages", dataPage.getTotalPages());
-            response.put("currentPage", page);
-            response.put("pageSize", size);
-            response.put("sortBy", sortBy);
-            response.put("sortDirection", sortDir);
-            response.put("data", dataPage.getContent());
+            Map<String, Object> response = queryResultCache.get("search",
+                    pageKey(filter, sortBy, sortDir, page, size, withTotal, fields), () -> {
+                Slice<?> dataPage = findPage(filter, pageable, withTotal, fields);
+                
+                Map<String, Object> result = new HashMap<>();
+                putTotals(result, dataPage, "totalRecords");
+                result.put("currentPage", page);
+                result.put("pageSize", size);
+                result.put("sortBy", sortBy);
+                result.put("sortDirection", sortDir);
+                result.put("data", dataPage.getContent());
+                return result;
+            });
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -111,23 +143,29 @@ public class WeatherDataController {
     /**
      * Get all weather data with pagination and sorting
      * GET /api/weather/all?page=0&size=100&sortBy=temperature&sortDir=DESC
+     * Passing cursor (empty for the first page) switches to keyset paging: /all?size=1000&cursor=
      */
     @GetMapping("/all")
     public ResponseEntity<Map<String, Object>> getAllWeatherData(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "100") int size,
             @RequestParam(defaultValue = "datetimeUtc") String sortBy,
-            @RequestParam(defaultValue = "ASC") String sortDir) {
+            @RequestParam(defaultValue = "ASC") String sortDir,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean withTotal,
+            @RequestParam(required = false) String fields) {
         
+        if (cursor != null) {
+            return getKeysetPage(null, sortBy, sortDir, cursor, size, fields);
+        }
         try {
             Sort.Direction direction = Sort.Direction.fromString(sortDir.toUpperCase());
             Sort sort = Sort.by(direction, getSortField(sortBy));
             Pageable pageable = PageRequest.of(page, size, sort);
-            Page<WeatherDataEntity> dataPage = weatherDataRepository.findAll(pageable);
+            Slice<?> dataPage = findPage(new WeatherDataFilter(), pageable, withTotal, fields);
             
             Map<String, Object> response = new HashMap<>();
-            response.put("totalRecords", dataPage.getTotalElements());
-            response.put("totalPages", dataPage.getTotalPages());
+            putTotals(response, dataPage, "totalRecords");
             response.put("currentPage", page);
             response.put("pageSize", size);
             response.put("sortBy", sortBy);
@@ -142,6 +180,140 @@ public class WeatherDataController {
         }
     }
 
+    /**
+     * Fetches one page of the rows matching the filter. The total is taken from the count cache,
+     * and only counted when the page itself cannot tell it; with withTotal=false no count is made
+     * and a Slice is returned. With fields, rows are maps of just those columns instead of entities.
+     * With the columnar store enabled, pages in an order it supports are read from memory instead.
+     */
+    private Slice<?> findPage(WeatherDataFilter filter, Pageable pageable, boolean withTotal, String fields) {
+        if (columnarQueryEngine.supports(pageable.getSort())) {
+            return columnarQueryEngine.findPage(filter, pageable, withTotal,
+                    fields != null ? WeatherDataFields.parse(fields) : WeatherDataFields.ALL);
+        }
+        Specification<WeatherDataEntity> spec = WeatherDataSpecification.fromFilter(filter, weatherConditionDictionary, weatherStationDictionary);
+        Slice<?> slice = fields != null
+                ? weatherDataRepository.findSlice(spec, pageable, WeatherDataFields.parse(fields))
+                : weatherDataRepository.findSlice(spec, pageable);
+        if (!withTotal) {
+            return slice;
+        }
+        return PageableExecutionUtils.getPage(slice.getContent(), pageable,
+                () -> queryResultCache.count(filter.normalizedKey(), () -> weatherDataRepository.count(spec)));
+    }
+
+    /**
+     * Strong entity tag of a response: the dataset version tag plus a hash of the endpoint and its
+     * normalized parameters, so it changes when an ingest, a restart or a different filter would.
+     */
+    private String eTag(String endpoint, String parameters) {
+        return "\"" + datasetVersion.getTag() + "-"
+                + DigestUtils.md5DigestAsHex((endpoint + "|" + parameters).getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Cache key parameters of a paged request: the normalized filter, paging, sorting and projection.
+     */
+    private static String pageKey(WeatherDataFilter filter, String sortBy, String sortDir, int page, int size,
+                                  boolean withTotal, String fields) {
+        return filter.normalizedKey() + "sortBy=" + sortBy + ";sortDir=" + sortDir + ";page=" + page + ";size=" + size
+                + ";withTotal=" + withTotal
+                + ";fields=" + (fields != null ? String.join(",", WeatherDataFields.parse(fields)) : "*");
+    }
+
+    private static void putTotals(Map<String, Object> response, Slice<?> dataPage, String totalKey) {
+        if (dataPage instanceof Page) {
+            Page<?> page = (Page<?>) dataPage;
+            response.put(totalKey, page.getTotalElements());
+            response.put("totalPages", page.getTotalPages());
+        } else {
+            response.put("hasNext", dataPage.hasNext());
+        }
+    }
+
+    /**
+     * Keyset page shared by /all and /search: rows after the cursor, ordered by the sort field and
+     * id, without a count query. nextCursor resumes after the last row and is null on the last page.
+     */
+    private ResponseEntity<Map<String, Object>> getKeysetPage(WeatherDataFilter filter, String sortBy,
+                                                              String sortDir, String cursor, int size, String fields) {
+        try {
+            Specification<WeatherDataEntity> spec = filter == null ? null
+                    : WeatherDataSpecification.fromFilter(filter, weatherConditionDictionary, weatherStationDictionary);
+            Sort.Direction direction = Sort.Direction.fromString(sortDir.toUpperCase());
+            KeysetCursor position = KeysetCursor.decode(cursor, getSortField(sortBy), direction);
+            
+            List<?> content;
+            String nextCursor = null;
+            boolean hasNext;
+            if (fields != null) {
+                Slice<Map<String, Object>> slice = weatherDataRepository.findSlice(spec, position, size,
+                        WeatherDataFields.parse(fields));
+                content = slice.getContent();
+                hasNext = slice.hasNext();
+                if (hasNext) {
+                    Map<String, Object> last = slice.getContent().get(size - 1);
+                    nextCursor = position.after(last.get(position.getSortField()), (Long) last.get("id")).encode();
+                }
+            } else {
+                Slice<WeatherDataEntity> slice = weatherDataRepository.findSlice(spec, position, size);
+                content = slice.getContent();
+                hasNext = slice.hasNext();
+                if (hasNext) {
+                    nextCursor = position.after(slice.getContent().get(size - 1)).encode();
+                }
+            }
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("pageSize", size);
+            response.put("sortBy", sortBy);
+            response.put("sortDirection", sortDir);
+            response.put("hasNext", hasNext);
+            response.put("nextCursor", nextCursor);
+            response.put("data", content);
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            error.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * Export every row matching the /search filters, streamed as NDJSON or CSV
+     * GET /api/weather/export?format=csv&startDate=2000-01-01 00:00&endDate=2000-12-31 23:59
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportWeatherData(
+            WeatherDataFilter filter,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "datetime") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDir) {
+        
+        try {
+            WeatherDataExportService.Format exportFormat = WeatherDataExportService.Format.fromString(format);
+            Sort.Direction direction = Sort.Direction.fromString(sortDir.toUpperCase());
+            Sort sort = Sort.by(direction, getSortField(sortBy)).and(Sort.by(direction, "id"));
+            Specification<WeatherDataEntity> spec = WeatherDataSpecification.fromFilter(filter, weatherConditionDictionary, weatherStationDictionary);
+            
+            StreamingResponseBody body = output -> weatherDataExportService.export(spec, sort, exportFormat, output);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"weather-data." + exportFormat.getExtension() + "\"")
+                    .body(body);
+        } catch (Exception e) {
+            // Streaming responses cannot go through the JSON converters, so the error is written directly
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(output -> objectMapper.writeValue(output, error));
+        }
+    }
+
     /**
      * Get weather data by ID
      * GET /api/weather/id/{id}
@@ -170,21 +342,24 @@ public class WeatherDataController {
             @RequestParam(defaultValue = "tempm") String sortBy,
             @RequestParam(defaultValue = "DESC") String sortDir,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "100") int size) {
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(defaultValue = "true") boolean withTotal,
+            @RequestParam(required = false) String fields) {
         
         try {
             Sort.Direction direction = Sort.Direction.fromString(sortDir.toUpperCase());
             Sort sort = Sort.by(direction, getSortField(sortBy));
             Pageable pageable = PageRequest.of(page, size, sort);
             
-            Specification<WeatherDataEntity> spec = WeatherDataSpecification.hasTemperatureRange(minTemp, maxTemp);
-            Page<WeatherDataEntity> dataPage = weatherDataRepository.findAll(spec, pageable);
+            WeatherDataFilter filter = new WeatherDataFilter();
+            filter.setMinTemp(minTemp);
+            filter.setMaxTemp(maxTemp);
+            Slice<?> dataPage = findPage(filter, pageable, withTotal, fields);
             
             Map<String, Object> response = new HashMap<>();
             response.put("minTemperature", minTemp);
             response.put("maxTemperature", maxTemp);
-            response.put("recordsInRange", dataPage.getTotalElements());
-            response.put("totalPages", dataPage.getTotalPages());
+            putTotals(response, dataPage, "recordsInRange");
             response.put("sortBy", sortBy);
             response.put("data", dataPage.getContent());
             
@@ -207,21 +382,24 @@ public class WeatherDataController {
             @RequestParam(defaultValue = "humidity") String sortBy,
             @RequestParam(defaultValue = "DESC") String sortDir,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "100") int size) {
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(defaultValue = "true") boolean withTotal,
+            @RequestParam(required = false) String fields) {
         
         try {
             Sort.Direction direction = Sort.Direction.fromString(sortDir.toUpperCase());
             Sort sort = Sort.by(direction, getSortField(sortBy));
             Pageable pageable = PageRequest.of(page, size, sort);
             
-            Specification<WeatherDataEntity> spec = WeatherDataSpecification.hasHumidityRange(minHumidity, maxHumidity);
-            Page<WeatherDataEntity> dataPage = weatherDataRepository.findAll(spec, pageable);
+            WeatherDataFilter filter = new WeatherDataFilter();
+            filter.setMinHumidity(minHumidity);
+            filter.setMaxHumidity(maxHumidity);
+            Slice<?> dataPage = findPage(filter, pageable, withTotal, fields);
             
             Map<String, Object> response = new HashMap<>();
             response.put("minHumidity", minHumidity);
             response.put("maxHumidity", maxHumidity);
-            response.put("recordsInRange", dataPage.getTotalElements());
-            response.put("totalPages", dataPage.getTotalPages());
+            putTotals(response, dataPage, "recordsInRange");
             response.put("sortBy", sortBy);
             response.put("data", dataPage.getContent());
             
@@ -243,20 +421,22 @@ public class WeatherDataController {
             @RequestParam(defaultValue = "datetimeUtc") String sortBy,
             @RequestParam(defaultValue = "ASC") String sortDir,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "100") int size) {
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(defaultValue = "true") boolean withTotal,
+            @RequestParam(required = false) String fields) {
         
         try {
             Sort.Direction direction = Sort.Direction.fromString(sortDir.toUpperCase());
             Sort sort = Sort.by(direction, getSortField(sortBy));
             Pageable pageable = PageRequest.of(page, size, sort);
             
-            Specification<WeatherDataEntity> spec = WeatherDataSpecification.hasCondition(condition);
-            Page<WeatherDataEntity> dataPage = weatherDataRepository.findAll(spec, pageable);
+            WeatherDataFilter filter = new WeatherDataFilter();
+            filter.setCondition(condition);
+            Slice<?> dataPage = findPage(filter, pageable, withTotal, fields);
             
             Map<String, Object> response = new HashMap<>();
             response.put("condition", condition);
-            response.put("totalRecords", dataPage.getTotalElements());
-            response.put("totalPages", dataPage.getTotalPages());
+            putTotals(response, dataPage, "totalRecords");
             response.put("sortBy", sortBy);
             response.put("data", dataPage.getContent());
             
@@ -278,23 +458,36 @@ public class WeatherDataController {
             @RequestParam(defaultValue = "datetimeUtc") String sortBy,
             @RequestParam(defaultValue = "ASC") String sortDir,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "100") int size) {
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(defaultValue = "true") boolean withTotal,
+            @RequestParam(required = false) String fields) {
         
         try {
             Sort.Direction direction = Sort.Direction.fromString(sortDir.toUpperCase());
             Sort sort = Sort.by(direction, getSortField(sortBy));
             Pageable pageable = PageRequest.of(page, size, sort);
             
-            Specification<WeatherDataEntity> spec = WeatherDataSpecification.hasWeatherEvent(eventType);
-            Page<WeatherDataEntity> dataPage = weatherDataRepository.findAll(spec, pageable);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("eventType", eventType);
-            response.put("totalOccurrences", dataPage.getTotalElements());
-            response.put("percentage", String.format("%.2f%%", 
-                    (dataPage.getTotalElements() / (double) weatherDataRepository.count()) * 100));
-            response.put("sortBy", sortBy);
-            response.put("data", dataPage.getContent());
+            WeatherDataFilter filter = new WeatherDataFilter();
+            filter.setWeatherEvent(eventType);
+            Map<String, Object> response = queryResultCache.get("events", "eventType=" + eventType + ";"
+                    + pageKey(filter, sortBy, sortDir, page, size, withTotal, fields), () -> {
+                Slice<?> dataPage = findPage(filter, pageable, withTotal, fields);
+                
+                Map<String, Object> result = new HashMap<>();
+                result.put("eventType", eventType);
+                if (dataPage instanceof Page) {
+                    long occurrences = ((Page<?>) dataPage).getTotalElements();
+                    long totalRecords = queryResultCache.count(new WeatherDataFilter().normalizedKey(),
+                            weatherDataRepository::count);
+                    result.put("totalOccurrences", occurrences);
+                    result.put("percentage", String.format("%.2f%%", (occurrences / (double) totalRecords) * 100));
+                } else {
+                    result.put("hasNext", dataPage.hasNext());
+                }
+                result.put("sortBy", sortBy);
+                result.put("data", dataPage.getContent());
+                return result;
+            });
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -305,85 +498,377 @@ public class WeatherDataController {
     }
 
     /**
-     * Get statistics
-     * GET /api/weather/statistics
+     * Get statistics, aggregated by the database, optionally over the same filters as /search
+     * GET /api/weather/statistics?startDate=2000-01-01 00:00&endDate=2000-12-31 23:59&weatherEvent=rain
+     * Percentiles come from histograms: the monthly rollup histograms without filters, a GROUP BY
+     * bin with filters.
+     * Answers 304 Not Modified to a matching If-None-Match or If-Modified-Since until the next ingest.
      */
     @GetMapping("/statistics")
-    public ResponseEntity<Map<String, Object>> getWeatherStatistics() {
-        List<WeatherDataEntity> allData = weatherDataRepository.findAll();
-        
+    public ResponseEntity<Map<String, Object>> getWeatherStatistics(WeatherDataFilter filter, WebRequest request) {
+        try {
+            long lastModified = datasetVersion.getLastModified();
+            String eTag = eTag("statistics", filter.normalizedKey());
+            if (request.checkNotModified(eTag, lastModified)) {
+                return null;
+            }
+            Map<String, Object> response = queryResultCache.get("statistics", filter.normalizedKey(), () -> {
+                if (columnarWeatherStore.isEnabled() && !filter.hasCriteria()) {
+                    return toStatisticsResponse(columnarWeatherStore.statistics());
+                }
+                Specification<WeatherDataEntity> spec = WeatherDataSpecification.fromFilter(filter, weatherConditionDictionary, weatherStationDictionary);
+                WeatherStatisticsAccumulator accumulator = WeatherStatisticsAccumulator.of(weatherDataRepository.aggregate(spec));
+                for (HistogramMetric metric : HistogramMetric.values()) {
+                    MetricHistogram histogram = accumulator.getHistogram(metric);
+                    if (!filter.hasCriteria()) {
+                        histogram.merge(weatherRollupService.findHistogram(metric, RollupGranularity.MONTH, null, null, null));
+                        continue;
+                    }
+                    for (Map.Entry<Integer, Long> bin : weatherDataRepository.countByBin(spec, metric).entrySet()) {
+                        histogram.add(bin.getKey(), bin.getValue());
+                    }
+                }
+                return toStatisticsResponse(accumulator.toStatistics());
+            });
+            return ResponseEntity.ok().eTag(eTag).lastModified(lastModified).body(response);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    private Map<String, Object> toStatisticsResponse(WeatherDataStatistics statistics) {
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalRecords", allData.size());
-        
-        double avgTemp = allData.stream()
-                .filter(d -> d.getTempm() != null)
-                .mapToDouble(WeatherDataEntity::getTempm)
-                .average()
-                .orElse(0.0);
-        
-        double maxTemp = allData.stream()
-                .filter(d -> d.getTempm() != null)
-                .mapToDouble(WeatherDataEntity::getTempm)
-                .max()
-                .orElse(0.0);
-        
-        double minTemp = allData.stream()
-                .filter(d -> d.getTempm() != null)
-                .mapToDouble(WeatherDataEntity::getTempm)
-                .min()
-                .orElse(0.0);
+        stats.put("totalRecords", statistics.getTotalRecords());
         
         Map<String, Object> tempStats = new HashMap<>();
-        tempStats.put("average", String.format("%.2f°C", avgTemp));
-        tempStats.put("maximum", String.format("%.2f°C", maxTemp));
-        tempStats.put("minimum", String.format("%.2f°C", minTemp));
+        tempStats.put("average", String.format("%.2f°C", statistics.getAvgTemperature()));
+        tempStats.put("maximum", String.format("%.2f°C", statistics.getMaxTemperature()));
+        tempStats.put("minimum", String.format("%.2f°C", statistics.getMinTemperature()));
+        tempStats.put("standardDeviation", String.format("%.2f°C", statistics.getTemperatureStdDev()));
+        tempStats.put("missingValues", statistics.getMissingTemperatureCount());
+        tempStats.put("percentiles", toPercentiles(statistics.getTemperaturePercentiles(), "%.2f°C"));
         stats.put("temperature", tempStats);
         
-        double avgHumidity = allData.stream()
-                .filter(d -> d.getHumidity() != null)
-                .mapToDouble(WeatherDataEntity::getHumidity)
-                .average()
-                .orElse(0.0);
-        
         Map<String, Object> humidityStats = new HashMap<>();
-        humidityStats.put("average", String.format("%.2f%%", avgHumidity));
+        humidityStats.put("average", String.format("%.2f%%", statistics.getAvgHumidity()));
+        humidityStats.put("standardDeviation", String.format("%.2f%%", statistics.getHumidityStdDev()));
+        humidityStats.put("missingValues", statistics.getMissingHumidityCount());
+        humidityStats.put("percentiles", toPercentiles(statistics.getHumidityPercentiles(), "%.2f%%"));
         stats.put("humidity", humidityStats);
         
-        long rainCount = allData.stream().filter(d -> d.getRain() != null && d.getRain() == 1).count();
-        long snowCount = allData.stream().filter(d -> d.getSnow() != null && d.getSnow() == 1).count();
-        long thunderCount = allData.stream().filter(d -> d.getThunder() != null && d.getThunder() == 1).count();
-        long fogCount = allData.stream().filter(d -> d.getFog() != null && d.getFog() == 1).count();
+        Map<String, Object> windSpeedStats = new HashMap<>();
+        windSpeedStats.put("percentiles", toPercentiles(statistics.getWindSpeedPercentiles(), "%.2f km/h"));
+        stats.put("windSpeed", windSpeedStats);
         
         Map<String, Object> weatherEvents = new HashMap<>();
-        weatherEvents.put("rain", rainCount);
-        weatherEvents.put("snow", snowCount);
-        weatherEvents.put("thunder", thunderCount);
-        weatherEvents.put("fog", fogCount);
+        weatherEvents.put("rain", statistics.getRainCount());
+        weatherEvents.put("snow", statistics.getSnowCount());
+        weatherEvents.put("thunder", statistics.getThunderCount());
+        weatherEvents.put("fog", statistics.getFogCount());
         stats.put("weatherEvents", weatherEvents);
         
-        return ResponseEntity.ok(stats);
+        return stats;
+    }
+
+    // Percentiles of a metric without values are null
+    private static Map<String, Object> toPercentiles(WeatherDataStatistics.Percentiles percentiles, String format) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("p50", percentiles.getP50() != null ? String.format(format, percentiles.getP50()) : null);
+        result.put("p90", percentiles.getP90() != null ? String.format(format, percentiles.getP90()) : null);
+        result.put("p99", percentiles.getP99() != null ? String.format(format, percentiles.getP99()) : null);
+        return result;
     }
 
     /**
-     * Get available conditions
-     * GET /api/weather/conditions
+     * Get the histogram and percentiles of one metric, merged from the daily or monthly rollup
+     * histograms kept at ingest, for one station or all of them; only non-empty bins are listed
+     * GET /api/weather/histogram?metric=temperature&granularity=day&station=KJFK&start=2000-01-01 00:00&end=2000-12-31 23:59
      */
-    @GetMapping("/conditions")
-    public ResponseEntity<Map<String, Object>> getAvailableConditions() {
-        Map<String, Long> conditionCounts = new HashMap<>();
+    @GetMapping("/histogram")
+    public ResponseEntity<Map<String, Object>> getHistogram(
+            @RequestParam(defaultValue = "temperature") String metric,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) String station,
+            @RequestParam(required = false) String start,
+            @RequestParam(required = false) String end,
+            WebRequest request) {
         
-        weatherDataRepository.findAll().stream()
-                .filter(d -> d.getConditions() != null)
-                .forEach(d -> {
-                    String condition = d.getConditions();
-                    conditionCounts.put(condition, conditionCounts.getOrDefault(condition, 0L) + 1);
-                });
+        try {
+            HistogramMetric histogramMetric = HistogramMetric.fromString(metric);
+            RollupGranularity rollupGranularity = RollupGranularity.fromString(granularity);
+            LocalDateTime startDateTime = start != null ? LocalDateTime.parse(start, dateTimeFormatter) : null;
+            LocalDateTime endDateTime = end != null ? LocalDateTime.parse(end, dateTimeFormatter) : null;
+            String parameters = "metric=" + histogramMetric + ";granularity=" + rollupGranularity
+                    + ";station=" + NameIdDictionary.lookupKey(station) + ";start=" + startDateTime + ";end=" + endDateTime;
+            long lastModified = datasetVersion.getLastModified();
+            String eTag = eTag("histogram", parameters);
+            if (request.checkNotModified(eTag, lastModified)) {
+                return null;
+            }
+            Map<String, Object> response = queryResultCache.get("histogram", parameters,
+                    () -> toHistogramResponse(weatherRollupService.findHistogram(histogramMetric, rollupGranularity,
+                            station, startDateTime, endDateTime), rollupGranularity, start, end));
+            
+            return ResponseEntity.ok().eTag(eTag).lastModified(lastModified).body(response);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    private static Map<String, Object> toHistogramResponse(MetricHistogram histogram, RollupGranularity granularity,
+                                                           String start, String end) {
+        HistogramMetric histogramMetric = histogram.getMetric();
+        List<Map<String, Object>> bins = new ArrayList<>();
+        for (int bin = 0; bin < histogramMetric.getBinCount(); bin++) {
+            if (histogram.getCount(bin) > 0) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("lowerBound", histogramMetric.lowerBound(bin));
+                entry.put("upperBound", histogramMetric.lowerBound(bin + 1));
+                entry.put("count", histogram.getCount(bin));
+                bins.add(entry);
+            }
+        }
+        
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", histogram.quantile(0.5));
+        percentiles.put("p90", histogram.quantile(0.9));
+        percentiles.put("p99", histogram.quantile(0.99));
         
         Map<String, Object> response = new HashMap<>();
-        response.put("totalConditionsFound", conditionCounts.size());
-        response.put("conditions", conditionCounts);
+        response.put("metric", histogramMetric);
+        response.put("field", histogramMetric.getField());
+        response.put("granularity", granularity);
+        response.put("start", start);
+        response.put("end", end);
+        response.put("count", histogram.getCount());
+        response.put("binWidth", histogramMetric.getBinWidth());
+        response.put("percentiles", percentiles);
+        response.put("bins", bins);
+        return response;
+    }
+
+    /**
+     * Get pre-aggregated hourly, daily or monthly buckets of one station or all of them, read from
+     * the rollups kept at ingest
+     * GET /api/weather/rollups?granularity=day&station=KJFK&start=2000-01-01 00:00&end=2000-12-31 23:59
+     */
+    @GetMapping("/rollups")
+    public ResponseEntity<Map<String, Object>> getRollups(
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) String station,
+            @RequestParam(required = false) String start,
+            @RequestParam(required = false) String end,
+            WebRequest request) {
+        
+        try {
+            RollupGranularity rollupGranularity = RollupGranularity.fromString(granularity);
+            LocalDateTime startDateTime = start != null ? LocalDateTime.parse(start, dateTimeFormatter) : null;
+            LocalDateTime endDateTime = end != null ? LocalDateTime.parse(end, dateTimeFormatter) : null;
+            String parameters = "granularity=" + rollupGranularity + ";station=" + NameIdDictionary.lookupKey(station)
+                    + ";start=" + startDateTime + ";end=" + endDateTime;
+            long lastModified = datasetVersion.getLastModified();
+            String eTag = eTag("rollups", parameters);
+            if (request.checkNotModified(eTag, lastModified)) {
+                return null;
+            }
+            Map<String, Object> response = queryResultCache.get("rollups", parameters, () -> {
+                List<Map<String, Object>> buckets = new ArrayList<>();
+                for (WeatherRollupEntity rollup : weatherRollupService.findRollups(rollupGranularity, station,
+                        startDateTime, endDateTime)) {
+                    buckets.add(toRollupBucket(rollup));
+                }
+                
+                Map<String, Object> result = new HashMap<>();
+                result.put("granularity", rollupGranularity);
+                result.put("start", start);
+                result.put("end", end);
+                result.put("bucketCount", buckets.size());
+                result.put("buckets", buckets);
+                return result;
+            });
+            
+            return ResponseEntity.ok().eTag(eTag).lastModified(lastModified).body(response);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    private static Map<String, Object> toRollupBucket(WeatherRollupEntity rollup) {
+        Map<String, Object> bucket = new LinkedHashMap<>();
+        bucket.put("bucketStart", rollup.getBucketStart());
+        bucket.put("records", rollup.getRecordCount());
+        bucket.put("temperature", toRollupMetric(rollup.getTemperatureCount(), rollup.getTemperatureSum(),
+                rollup.getTemperatureSumOfSquares(), rollup.getTemperatureMin(), rollup.getTemperatureMax()));
+        bucket.put("humidity", toRollupMetric(rollup.getHumidityCount(), rollup.getHumiditySum(),
+                rollup.getHumiditySumOfSquares(), rollup.getHumidityMin(), rollup.getHumidityMax()));
+        bucket.put("precipitation", toRollupMetric(rollup.getPrecipitationCount(), rollup.getPrecipitationSum(),
+                rollup.getPrecipitationSumOfSquares(), rollup.getPrecipitationMin(), rollup.getPrecipitationMax()));
+        
+        Map<String, Object> events = new LinkedHashMap<>();
+        events.put("rain", rollup.getRainCount());
+        events.put("snow", rollup.getSnowCount());
+        events.put("thunder", rollup.getThunderCount());
+        events.put("fog", rollup.getFogCount());
+        events.put("hail", rollup.getHailCount());
+        events.put("tornado", rollup.getTornadoCount());
+        bucket.put("events", events);
+        return bucket;
+    }
+
+    // Averages and standard deviations are null for buckets without values
+    private static Map<String, Object> toRollupMetric(long count, double sum, double sumOfSquares, Double min, Double max) {
+        Map<String, Object> metric = new LinkedHashMap<>();
+        metric.put("count", count);
+        metric.put("sum", sum);
+        metric.put("average", count > 0 ? sum / count : null);
+        metric.put("minimum", min);
+        metric.put("maximum", max);
+        metric.put("standardDeviation", count > 0
+                ? Math.sqrt(Math.max(0.0, sumOfSquares / count - (sum / count) * (sum / count))) : null);
+        return metric;
+    }
+
+    /**
+     * Get a downsampled time series of one metric of one station or all of them, for charting, as
+     * [datetimeUtc, value] pairs
+     * GET /api/weather/downsample?metric=tempm&station=KJFK&start=2000-01-01 00:00&end=2010-12-31 23:59&points=1000&mode=lttb
+     */
+    @GetMapping("/downsample")
+    public ResponseEntity<Map<String, Object>> getDownsampledSeries(
+            @RequestParam(defaultValue = "tempm") String metric,
+            @RequestParam(required = false) String station,
+            @RequestParam(required = false) String start,
+            @RequestParam(required = false) String end,
+            @RequestParam(defaultValue = "1000") int points,
+            @RequestParam(defaultValue = "lttb") String mode,
+            WebRequest request) {
+        
+        try {
+            if (points < 3 || points > 10000) {
+                throw new IllegalArgumentException("points must be between 3 and 10000");
+            }
+            LocalDateTime startDateTime = start != null ? LocalDateTime.parse(start, dateTimeFormatter) : null;
+            LocalDateTime endDateTime = end != null ? LocalDateTime.parse(end, dateTimeFormatter) : null;
+            Downsampler.Mode downsamplerMode = Downsampler.Mode.fromString(mode);
+            String parameters = "metric=" + metric + ";station=" + NameIdDictionary.lookupKey(station)
+                    + ";start=" + startDateTime + ";end=" + endDateTime + ";points=" + points + ";mode=" + downsamplerMode;
+            long lastModified = datasetVersion.getLastModified();
+            String eTag = eTag("downsample", parameters);
+            if (request.checkNotModified(eTag, lastModified)) {
+                return null;
+            }
+            Map<String, Object> response = queryResultCache.get("downsample", parameters, () -> {
+                Downsampler downsampler = timeSeriesService.downsample(metric, station, startDateTime, endDateTime,
+                        points, downsamplerMode);
+                
+                List<Object[]> series = new ArrayList<>();
+                for (Downsampler.Point point : downsampler.finish()) {
+                    series.add(new Object[]{LocalDateTime.ofEpochSecond(point.getX(), 0, ZoneOffset.UTC), point.getY()});
+                }
+                
+                Map<String, Object> result = new HashMap<>();
+                result.put("metric", metric);
+                result.put("mode", mode.toLowerCase());
+                result.put("start", start);
+                result.put("end", end);
+                result.put("sourcePoints", downsampler.getInputCount());
+                result.put("points", series.size());
+                result.put("series", series);
+                return result;
+            });
+            
+            return ResponseEntity.ok().eTag(eTag).lastModified(lastModified).body(response);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * Get available conditions with counts, grouped by the database, most frequent first
+     * GET /api/weather/conditions?startDate=2000-01-01 00:00&endDate=2000-12-31 23:59&limit=10
+     * Answers 304 Not Modified to a matching If-None-Match or If-Modified-Since until the next ingest.
+     */
+    @GetMapping("/conditions")
+    public ResponseEntity<Map<String, Object>> getAvailableConditions(
+            WeatherDataFilter filter,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
         
-        return ResponseEntity.ok(response);
+        try {
+            String parameters = filter.normalizedKey() + "limit=" + limit;
+            long lastModified = datasetVersion.getLastModified();
+            String eTag = eTag("conditions", parameters);
+            if (request.checkNotModified(eTag, lastModified)) {
+                return null;
+            }
+            Map<String, Object> response = queryResultCache.get("conditions", parameters, () -> {
+                Specification<WeatherDataEntity> spec = WeatherDataSpecification.fromFilter(filter, weatherConditionDictionary, weatherStationDictionary);
+                Map<String, Long> conditionCounts = new LinkedHashMap<>();
+                for (ConditionCount conditionCount : weatherDataRepository.countByCondition(spec, limit)) {
+                    conditionCounts.put(conditionCount.getCondition(), conditionCount.getCount());
+                }
+                
+                Map<String, Object> result = new HashMap<>();
+                result.put("totalConditionsFound", conditionCounts.size());
+                result.put("conditions", conditionCounts);
+                return result;
+            });
+            
+            return ResponseEntity.ok().eTag(eTag).lastModified(lastModified).body(response);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * Get stations with their observation counts and first/last observation times
+     * GET /api/weather/stations?startDate=2000-01-01 00:00&endDate=2000-12-31 23:59
+     */
+    @GetMapping("/stations")
+    public ResponseEntity<Map<String, Object>> getStations(WeatherDataFilter filter) {
+        try {
+            Map<String, Object> response = queryResultCache.get("stations", filter.normalizedKey(), () -> {
+                Specification<WeatherDataEntity> spec = WeatherDataSpecification.fromFilter(filter, weatherConditionDictionary, weatherStationDictionary);
+                List<Map<String, Object>> stations = new ArrayList<>();
+                for (StationSummary summary : weatherDataRepository.summarizeStations(spec)) {
+                    Map<String, Object> station = new LinkedHashMap<>();
+                    station.put("station", summary.getStation());
+                    station.put("records", summary.getCount());
+                    station.put("firstObservation", summary.getFirstObservation());
+                    station.put("lastObservation", summary.getLastObservation());
+                    stations.add(station);
+                }
+
+                Map<String, Object> result = new HashMap<>();
+                result.put("totalStations", stations.size());
+                result.put("stations", stations);
+                return result;
+            });
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * Get hit, miss and eviction counts of the query result cache
+     * GET /api/weather/cache/stats
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStatistics() {
+        return ResponseEntity.ok(queryResultCache.getStatistics());
     }
 
     /**
@@ -400,6 +885,7 @@ public class WeatherDataController {
         searchEndpoint.put("description", "Advanced search with multiple filters and sorting");
         
         Map<String, Object> parameters = new HashMap<>();
+        parameters.put("station", "Filter by station; with startDate/endDate only that station's date range is read");
         parameters.put("minTemp/maxTemp", "Filter by temperature range");
         parameters.put("minHumidity/maxHumidity", "Filter by humidity range");
         parameters.put("startDate/endDate", "Filter by date range (format: yyyy-MM-dd HH:mm)");
@@ -407,25 +893,38 @@ public class WeatherDataController {
         parameters.put("minPressure/maxPressure", "Filter by pressure range");
         parameters.put("minVisibility/maxVisibility", "Filter by visibility range");
         parameters.put("minWindSpeed/maxWindSpeed", "Filter by wind speed range");
-        parameters.put("weatherEvent", "Filter by event (rain|snow|thunder|fog|hail)");
+        parameters.put("weatherEvent", "Filter by event (rain|snow|thunder|fog|hail|tornado)");
+        parameters.put("eventExpr", "Filter by events and conditions combined with AND/OR/NOT and parentheses, "
+                + "e.g. fog AND NOT rain AND condition=Haze (quote names with spaces: condition='Light Rain')");
         parameters.put("sortBy", "Sort field (temperature, humidity, datetime, pressure, visibility, windSpeed)");
         parameters.put("sortDir", "Sort direction (ASC|DESC)");
         parameters.put("page", "Page number (default: 0)");
         parameters.put("size", "Page size (default: 100)");
+        parameters.put("fields", "Comma-separated columns to return, e.g. datetimeUtc,tempm,humidity (default: all)");
+        parameters.put("withTotal", "Set to false to skip counting totalRecords/totalPages; hasNext is returned instead");
+        parameters.put("cursor", "Keyset paging token; pass it empty for the first page, then the returned nextCursor (no totals)");
         searchEndpoint.put("parameters", parameters);
         
         searchEndpoint.put("example", "/search?minTemp=20&maxTemp=30&sortBy=temperature&sortDir=DESC&page=0&size=50");
         help.put("search", searchEndpoint);
         
         Map<String, Object> endpoints = new HashMap<>();
-        endpoints.put("GET /all", "Get all weather data with sorting");
+        endpoints.put("GET /all", "Get all weather data with sorting (cursor= for keyset paging)");
         endpoints.put("GET /id/{id}", "Get weather data by ID");
         endpoints.put("GET /temperature", "Get data by temperature range");
         endpoints.put("GET /humidity", "Get data by humidity range");
         endpoints.put("GET /conditions/{condition}", "Get data by weather condition");
-        endpoints.put("GET /conditions", "Get all available weather conditions with counts");
-        endpoints.put("GET /events/{eventType}", "Get data by weather event (rain|snow|thunder|fog|hail)");
-        endpoints.put("GET /statistics", "Get weather statistics");
+        endpoints.put("GET /conditions", "Get weather conditions with counts (optional startDate/endDate, limit for top N)");
+        endpoints.put("GET /stations", "Get stations with record counts and first/last observation (optional /search filters)");
+        endpoints.put("GET /events/{eventType}", "Get data by weather event (rain|snow|thunder|fog|hail|tornado)");
+        endpoints.put("GET /statistics", "Get weather statistics with p50/p90/p99, optionally filtered with the /search parameters");
+        endpoints.put("GET /rollups", "Get hourly/daily/monthly aggregates (granularity=hour|day|month, optional start/end)");
+        endpoints.put("GET /histogram", "Get the histogram and p50/p90/p99 of a metric from the rollups (metric=temperature|humidity|windSpeed, granularity=day|month, optional start/end)");
+        endpoints.put("GET /downsample", "Get a chart-sized series of one metric (metric, start/end, points, mode=lttb|minmax)");
+        endpoints.put("GET /export", "Stream all rows matching the /search filters (format=ndjson|csv)");
+        endpoints.put("POST /ingest", "Load a CSV in the background (multipart part file, or path= of a file in weather.ingest.directory); returns a jobId");
+        endpoints.put("GET /ingest/{jobId}", "Get rows parsed/rejected/persisted, throughput and ETA of an ingest job");
+        endpoints.put("GET /cache/stats", "Get query result cache hit/miss/eviction statistics");
         endpoints.put("GET /help", "Get API documentation");
         help.put("endpoints", endpoints);
         
@@ -0,0 +1,84 @@
+package com.weather.data.entity;
+
+import java.util.Locale;
+
+/**
+ * Metrics kept as fixed-bin histograms for percentiles. Each metric covers a fixed range split into
+ * bins of equal width, so histograms of the same metric merge by adding bin counts; readings
+ * outside the range fall into the first or last bin.
+ */
+public enum HistogramMetric {
+    TEMPERATURE("tempm", -90, 60, 10),
+    HUMIDITY("humidity", 0, 100, 1),
+    WIND_SPEED("wspdm", 0, 200, 10);
+
+    // Keeps readings that are exact multiples of the bin width, like 0.7 * 10, out of the bin below
+    public static final double EPSILON = 1e-6;
+
+    private final String field;
+    private final long firstScaledBin;
+    private final int binCount;
+    private final int binsPerUnit;
+
+    HistogramMetric(String field, int lower, int upper, int binsPerUnit) {
+        this.field = field;
+        this.firstScaledBin = (long) lower * binsPerUnit;
+        this.binCount = (upper - lower) * binsPerUnit + 1;
+        this.binsPerUnit = binsPerUnit;
+    }
+
+    /**
+     * Name of the observation field the metric is read from.
+     */
+    public String getField() {
+        return field;
+    }
+
+    public int getBinCount() {
+        return binCount;
+    }
+
+    public int getBinsPerUnit() {
+        return binsPerUnit;
+    }
+
+    public double getBinWidth() {
+        return 1.0 / binsPerUnit;
+    }
+
+    /**
+     * Bin of a reading.
+     */
+    public int bin(double value) {
+        return binOfScaled((long) Math.floor(value * binsPerUnit + EPSILON));
+    }
+
+    /**
+     * Bin of {@code floor(value * binsPerUnit + EPSILON)}, as computed by the database.
+     */
+    public int binOfScaled(long scaled) {
+        return (int) Math.max(0, Math.min(binCount - 1, scaled - firstScaledBin));
+    }
+
+    /**
+     * Smallest reading that falls into the bin, apart from out-of-range readings in the first bin.
+     */
+    public double lowerBound(int bin) {
+        return (double) (firstScaledBin + bin) / binsPerUnit;
+    }
+
+    /**
+     * Accepts the enum names in any case as well as the field names and short forms.
+     */
+    public static HistogramMetric fromString(String metric) {
+        String value = metric.trim().toLowerCase(Locale.ROOT).replace("_", "").replace("-", "");
+        if ("temperature".equals(value) || "temp".equals(value) || "tempm".equals(value)) {
+            return TEMPERATURE;
+        } else if ("humidity".equals(value) || "hum".equals(value)) {
+            return HUMIDITY;
+        } else if ("windspeed".equals(value) || "wind".equals(value) || "wspdm".equals(value)) {
+            return WIND_SPEED;
+        }
+        throw new IllegalArgumentException("Unsupported metric: " + metric + " (temperature|humidity|windSpeed)");
+    }
+}
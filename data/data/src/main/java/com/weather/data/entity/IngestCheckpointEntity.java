@@ -0,0 +1,83 @@
+package com.weather.data.entity;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * How far a CSV file has been loaded for a station: the byte offset just past the last complete
+ * line read, plus a checksum of the file's first bytes so a replaced file is read from the start
+ * again instead of being resumed mid-way.
+ */
+@Entity
+@Table(name = "ingest_checkpoint", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ingest_checkpoint_source_station", columnNames = {"source", "station"})
+})
+public class IngestCheckpointEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Absolute path of the file
+    @Column(nullable = false, length = 1024)
+    private String source;
+
+    @Column(nullable = false, length = 64)
+    private String station;
+
+    @Column(nullable = false)
+    private long byteOffset;
+
+    // CRC32 of the first fingerprintLength bytes of the file
+    @Column(nullable = false)
+    private long fingerprint;
+
+    @Column(nullable = false)
+    private int fingerprintLength;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public IngestCheckpointEntity() {
+    }
+
+    public IngestCheckpointEntity(String source, String station) {
+        this.source = source;
+        this.station = station;
+    }
+
+    public void update(long byteOffset, long fingerprint, int fingerprintLength) {
+        this.byteOffset = byteOffset;
+        this.fingerprint = fingerprint;
+        this.fingerprintLength = fingerprintLength;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getStation() {
+        return station;
+    }
+
+    public long getByteOffset() {
+        return byteOffset;
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getFingerprintLength() {
+        return fingerprintLength;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
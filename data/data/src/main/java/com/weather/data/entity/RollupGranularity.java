@@ -0,0 +1,43 @@
+package com.weather.data.entity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * Width of the time buckets observations are rolled up into.
+ */
+public enum RollupGranularity {
+    HOUR,
+    DAY,
+    MONTH;
+
+    /**
+     * Start of the bucket containing the given time.
+     */
+    public LocalDateTime truncate(LocalDateTime dateTime) {
+        switch (this) {
+            case HOUR:
+                return dateTime.truncatedTo(ChronoUnit.HOURS);
+            case DAY:
+                return dateTime.truncatedTo(ChronoUnit.DAYS);
+            default:
+                return dateTime.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        }
+    }
+
+    /**
+     * Accepts hour|day|month as well as hourly|daily|monthly, in any case.
+     */
+    public static RollupGranularity fromString(String granularity) {
+        String value = granularity.trim().toLowerCase(Locale.ROOT);
+        if ("hour".equals(value) || "hourly".equals(value)) {
+            return HOUR;
+        } else if ("day".equals(value) || "daily".equals(value)) {
+            return DAY;
+        } else if ("month".equals(value) || "monthly".equals(value)) {
+            return MONTH;
+        }
+        throw new IllegalArgumentException("Unsupported granularity: " + granularity + " (hour|day|month)");
+    }
+}
@@ -0,0 +1,44 @@
+package com.weather.data.entity;
+
+import javax.persistence.*;
+
+/**
+ * One weather condition ("Smoke", "Light Rain", ...), stored once and referenced from
+ * weather_data by its id. The lookup key is the lowercased name, so conditions are matched
+ * case-insensitively through an exact, indexed comparison.
+ */
+@Entity
+@Table(name = "weather_condition")
+public class WeatherConditionEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    // Spelling of the first observation that introduced the condition
+    @Column(nullable = false, length = 50)
+    private String name;
+
+    @Column(nullable = false, length = 50, unique = true)
+    private String lookupKey;
+
+    public WeatherConditionEntity() {
+    }
+
+    public WeatherConditionEntity(String name, String lookupKey) {
+        this.name = name;
+        this.lookupKey = lookupKey;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getLookupKey() {
+        return lookupKey;
+    }
+}
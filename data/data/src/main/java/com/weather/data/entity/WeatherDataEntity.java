@@ -1,22 +1,56 @@
 package com.weather.data.entity;
 
+import com.weather.data.model.WeatherData;
+import org.hibernate.annotations.ColumnDefault;
+
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "weather_data")
+@Table(name = "weather_data", uniqueConstraints = {
+        // One observation per station and time; re-ingesting a file skips rows already stored. Its
+        // leading column keeps each station's rows together, so station queries only scan their own range.
+        @UniqueConstraint(name = "uk_weather_data_station_datetime", columnNames = {"stationId", "datetimeUtc"})
+}, indexes = {
+        @Index(name = "idx_weather_data_condition_id", columnList = "conditionId"),
+        // Also serves plain date range predicates and date sorting through its leading column
+        @Index(name = "idx_weather_data_datetime_tempm", columnList = "datetimeUtc, tempm"),
+        @Index(name = "idx_weather_data_tempm", columnList = "tempm"),
+        @Index(name = "idx_weather_data_humidity", columnList = "humidity"),
+        @Index(name = "idx_weather_data_pressurem", columnList = "pressurem"),
+        @Index(name = "idx_weather_data_rain", columnList = "rain"),
+        @Index(name = "idx_weather_data_snow", columnList = "snow"),
+        @Index(name = "idx_weather_data_thunder", columnList = "thunder"),
+        @Index(name = "idx_weather_data_fog", columnList = "fog"),
+        @Index(name = "idx_weather_data_hail", columnList = "hail")
+})
 public class WeatherDataEntity {
     
+    // Pooled sequence ids keep Hibernate insert batching enabled and let the JDBC bulk loader reserve id blocks
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "weather_data_seq")
+    @SequenceGenerator(name = "weather_data_seq", sequenceName = "weather_data_seq", allocationSize = 50)
     private Long id;
     
+    // Defaulted in the DDL so ddl-auto=update can add the column to an existing table
+    @Column(nullable = false, length = 64)
+    @ColumnDefault("'" + WeatherData.DEFAULT_STATION + "'")
+    private String station = WeatherData.DEFAULT_STATION;
+    
+    // The weather_station row the station name normalizes to
+    @Column(nullable = false)
+    private Integer stationId;
+    
     @Column(nullable = false)
     private LocalDateTime datetimeUtc;
     
+    // Condition as reported; lookups go through conditionId, the weather_condition row it normalizes to
     @Column(length = 50)
     private String conditions;
     
+    @Column
+    private Integer conditionId;
+    
     @Column
     private Double dewptm;
     
@@ -112,6 +146,14 @@ public class WeatherDataEntity {
         this.id = id;
     }
 
+    public String getStation() {
+        return station;
+    }
+
+    public void setStation(String station) {
+        this.station = station;
+    }
+
     public LocalDateTime getDatetimeUtc() {
         return datetimeUtc;
     }
@@ -128,6 +170,22 @@ public class WeatherDataEntity {
         this.conditions = conditions;
     }
 
+    public Integer getStationId() {
+        return stationId;
+    }
+
+    public void setStationId(Integer stationId) {
+        this.stationId = stationId;
+    }
+
+    public Integer getConditionId() {
+        return conditionId;
+    }
+
+    public void setConditionId(Integer conditionId) {
+        this.conditionId = conditionId;
+    }
+
     public Double getDewptm() {
         return dewptm;
     }
@@ -0,0 +1,202 @@
+package com.weather.data.entity;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated observations of one time bucket and station. Counts and sums are additive, so
+ * ingestion merges each batch into the existing buckets; averages are derived when reading. Station
+ * {@link #ALL_STATIONS} holds the buckets over every station.
+ */
+@Entity
+@Table(name = "weather_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_weather_rollup_bucket", columnNames = {"granularity", "stationId", "bucketStart"})
+})
+public class WeatherRollupEntity {
+
+    public static final int ALL_STATIONS = 0;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private RollupGranularity granularity;
+
+    @Column(nullable = false)
+    private int stationId;
+
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private long recordCount;
+
+    @Column(nullable = false)
+    private long temperatureCount;
+
+    @Column(nullable = false)
+    private double temperatureSum;
+
+    @Column(nullable = false)
+    private double temperatureSumOfSquares;
+
+    @Column
+    private Double temperatureMin;
+
+    @Column
+    private Double temperatureMax;
+
+    @Column(nullable = false)
+    private long humidityCount;
+
+    @Column(nullable = false)
+    private double humiditySum;
+
+    @Column(nullable = false)
+    private double humiditySumOfSquares;
+
+    @Column
+    private Double humidityMin;
+
+    @Column
+    private Double humidityMax;
+
+    @Column(nullable = false)
+    private long precipitationCount;
+
+    @Column(nullable = false)
+    private double precipitationSum;
+
+    @Column(nullable = false)
+    private double precipitationSumOfSquares;
+
+    @Column
+    private Double precipitationMin;
+
+    @Column
+    private Double precipitationMax;
+
+    @Column(nullable = false)
+    private long rainCount;
+
+    @Column(nullable = false)
+    private long snowCount;
+
+    @Column(nullable = false)
+    private long thunderCount;
+
+    @Column(nullable = false)
+    private long fogCount;
+
+    @Column(nullable = false)
+    private long hailCount;
+
+    @Column(nullable = false)
+    private long tornadoCount;
+
+    public Long getId() {
+        return id;
+    }
+
+    public RollupGranularity getGranularity() {
+        return granularity;
+    }
+
+    public int getStationId() {
+        return stationId;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public long getTemperatureCount() {
+        return temperatureCount;
+    }
+
+    public double getTemperatureSum() {
+        return temperatureSum;
+    }
+
+    public double getTemperatureSumOfSquares() {
+        return temperatureSumOfSquares;
+    }
+
+    public Double getTemperatureMin() {
+        return temperatureMin;
+    }
+
+    public Double getTemperatureMax() {
+        return temperatureMax;
+    }
+
+    public long getHumidityCount() {
+        return humidityCount;
+    }
+
+    public double getHumiditySum() {
+        return humiditySum;
+    }
+
+    public double getHumiditySumOfSquares() {
+        return humiditySumOfSquares;
+    }
+
+    public Double getHumidityMin() {
+        return humidityMin;
+    }
+
+    public Double getHumidityMax() {
+        return humidityMax;
+    }
+
+    public long getPrecipitationCount() {
+        return precipitationCount;
+    }
+
+    public double getPrecipitationSum() {
+        return precipitationSum;
+    }
+
+    public double getPrecipitationSumOfSquares() {
+        return precipitationSumOfSquares;
+    }
+
+    public Double getPrecipitationMin() {
+        return precipitationMin;
+    }
+
+    public Double getPrecipitationMax() {
+        return precipitationMax;
+    }
+
+    public long getRainCount() {
+        return rainCount;
+    }
+
+    public long getSnowCount() {
+        return snowCount;
+    }
+
+    public long getThunderCount() {
+        return thunderCount;
+    }
+
+    public long getFogCount() {
+        return fogCount;
+    }
+
+    public long getHailCount() {
+        return hailCount;
+    }
+
+    public long getTornadoCount() {
+        return tornadoCount;
+    }
+}
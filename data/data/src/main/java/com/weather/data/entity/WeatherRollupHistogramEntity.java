@@ -0,0 +1,69 @@
+package com.weather.data.entity;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Count of one histogram bin of one metric within a daily or monthly rollup bucket of one station,
+ * or of {@link WeatherRollupEntity#ALL_STATIONS}. Only non-empty bins are stored; ingestion adds
+ * each batch's counts to the existing bins.
+ */
+@Entity
+@Table(name = "weather_rollup_histogram", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_weather_rollup_histogram_bin",
+                columnNames = {"granularity", "stationId", "bucketStart", "metric", "binIndex"})
+})
+public class WeatherRollupHistogramEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private RollupGranularity granularity;
+
+    @Column(nullable = false)
+    private int stationId;
+
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private HistogramMetric metric;
+
+    @Column(nullable = false)
+    private int binIndex;
+
+    @Column(nullable = false)
+    private long binCount;
+
+    public Long getId() {
+        return id;
+    }
+
+    public RollupGranularity getGranularity() {
+        return granularity;
+    }
+
+    public int getStationId() {
+        return stationId;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public HistogramMetric getMetric() {
+        return metric;
+    }
+
+    public int getBinIndex() {
+        return binIndex;
+    }
+
+    public long getBinCount() {
+        return binCount;
+    }
+}
@@ -0,0 +1,43 @@
+package com.weather.data.entity;
+
+import javax.persistence.*;
+
+/**
+ * One weather station, stored once and referenced from weather_data by its id. Like conditions,
+ * stations are matched case-insensitively through their lowercased lookup key.
+ */
+@Entity
+@Table(name = "weather_station")
+public class WeatherStationEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    // Spelling of the first load that introduced the station
+    @Column(nullable = false, length = 64)
+    private String name;
+
+    @Column(nullable = false, length = 64, unique = true)
+    private String lookupKey;
+
+    public WeatherStationEntity() {
+    }
+
+    public WeatherStationEntity(String name, String lookupKey) {
+        this.name = name;
+        this.lookupKey = lookupKey;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getLookupKey() {
+        return lookupKey;
+    }
+}
@@ -3,6 +3,11 @@ package com.weather.data.model;
 import java.time.LocalDateTime;
 
 public class WeatherData {
+    public static final String DEFAULT_STATION = "DEFAULT";
+
+    // Database id, known once the row has been inserted
+    private Long id;
+    private String station = DEFAULT_STATION;
     private LocalDateTime datetimeUtc;
     private String conditions;
     private Double dewptm;
@@ -27,6 +32,22 @@ public class WeatherData {
     public WeatherData() {
     }
 
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getStation() {
+        return station;
+    }
+
+    public void setStation(String station) {
+        this.station = station;
+    }
+
     public LocalDateTime getDatetimeUtc() {
         return datetimeUtc;
     }
@@ -0,0 +1,123 @@
+package com.weather.data.parser;
+
+import com.weather.data.model.WeatherData;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Reads a weather CSV file by memory-mapping it, splitting it into newline-aligned chunks and
+ * parsing the chunks in parallel. Rows are returned in their original file order.
+ */
+public class MappedCsvReader {
+
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int maxChunkSize;
+
+    public MappedCsvReader(ExecutorService executor, int parallelism, int maxChunkSize) {
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.maxChunkSize = maxChunkSize;
+    }
+
+    public List<WeatherData> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long perThread = (size + parallelism - 1) / parallelism;
+            int chunkSize = (int) Math.max(MIN_CHUNK_SIZE, Math.min(maxChunkSize, perThread));
+
+            List<Future<List<WeatherData>>> chunks = new ArrayList<>();
+            long start = 0;
+            while (start < size) {
+                MappedByteBuffer chunk = mapChunk(channel, start, size, chunkSize);
+                boolean skipHeader = start == 0;
+                chunks.add(executor.submit(() -> parseChunk(chunk, skipHeader)));
+                start += chunk.limit();
+            }
+
+            List<WeatherData> weatherDataList = new ArrayList<>();
+            for (Future<List<WeatherData>> chunk : chunks) {
+                weatherDataList.addAll(chunk.get());
+            }
+            return weatherDataList;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading " + file, e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to parse " + file, e.getCause());
+        }
+    }
+
+    /**
+     * Maps the region starting at {@code start}, trimmed back to its last newline so no line is
+     * split across chunks. A line longer than the chunk size grows the mapping until it fits.
+     */
+    private MappedByteBuffer mapChunk(FileChannel channel, long start, long size, int chunkSize) throws IOException {
+        int length = chunkSize;
+        while (true) {
+            long remaining = size - start;
+            if (remaining <= length) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, start, remaining);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            for (int i = length - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    buffer.limit(i + 1);
+                    return buffer;
+                }
+            }
+            if (length > Integer.MAX_VALUE / 2) {
+                throw new IOException("CSV line at offset " + start + " exceeds the maximum chunk size");
+            }
+            length *= 2;
+        }
+    }
+
+    private List<WeatherData> parseChunk(MappedByteBuffer chunk, boolean skipHeader) throws IOException {
+        CharBuffer chars = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .decode(chunk);
+
+        WeatherDataLineParser parser = new WeatherDataLineParser();
+        List<WeatherData> weatherDataList = new ArrayList<>(chars.length() / 80);
+        int length = chars.length();
+        int lineStart = 0;
+        boolean isHeader = skipHeader;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && chars.charAt(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int next = lineEnd + 1;
+            if (lineEnd > lineStart && chars.charAt(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+
+            if (isHeader) {
+                isHeader = false; // Skip header line
+            } else if (lineEnd > lineStart) {
+                WeatherData data = parser.parse(chars, lineStart, lineEnd);
+                if (data != null) {
+                    weatherDataList.add(data);
+                }
+            }
+            lineStart = next;
+        }
+        return weatherDataList;
+    }
+}
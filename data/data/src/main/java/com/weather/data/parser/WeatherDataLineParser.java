@@ -0,0 +1,335 @@
+package com.weather.data.parser;
+
+import com.weather.data.model.WeatherData;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Single-pass parser for weather CSV lines.
+ *
+ * Fields are located by scanning the line once for commas and numbers are parsed in place from
+ * the characters, so no substrings are created for numeric fields and blanks or placeholders
+ * such as {@code N/A} are reported as missing without throwing. Repeated text values such as
+ * conditions and wind direction names are shared through a small cache.
+ *
+ * Instances are not thread-safe; use one parser per thread.
+ */
+public class WeatherDataLineParser {
+
+    public static final int FIELD_COUNT = 20;
+
+    private static final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyyMMdd-HH:mm");
+
+    private static final long MISSING_INT = Long.MIN_VALUE;
+    private static final int MAX_FAST_PATH_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final int STRING_CACHE_SIZE = 256;
+    private final String[] stringCache = new String[STRING_CACHE_SIZE];
+
+    private int fieldStart;
+    private int fieldEnd;
+
+    public WeatherData parse(CharSequence line) {
+        return parse(line, 0, line.length());
+    }
+
+    /**
+     * Parses the line held in {@code line[start, end)}. Returns null when the line has fewer than
+     * {@link #FIELD_COUNT} fields or an unparseable timestamp.
+     */
+    public WeatherData parse(CharSequence line, int start, int end) {
+        try {
+            WeatherData data = new WeatherData();
+            int pos = start;
+
+            // Parse datetime_utc
+            if ((pos = nextField(line, pos, end)) < 0) return null;
+            data.setDatetimeUtc(parseDateTime(line, fieldStart, fieldEnd));
+
+            // Parse conditions
+            if ((pos = nextField(line, pos, end)) < 0) return null;
+            data.setConditions(parseString(line, fieldStart, fieldEnd));
+
+            // Parse dewptm
+            if ((pos = nextField(line, pos, end)) < 0) return null;
+            data.setDewptm(toDouble(parseDouble(line, fieldStart, fieldEnd)));
+
+            // Parse fog
+            if ((pos = nextField(line, pos, end)) < 0) return null;
+            data.setFog(toInteger(parseInt(line, fieldStart, fieldEnd)));
+
+            // Parse hail
+            if ((pos = nextField(line, pos, end)) < 0) return null;
+            data.setHail(toInteger(parseInt(line, fieldStart, fieldEnd)));
+
+            // Parse heatindexm
+            if ((pos = nextField(line, pos, end)) < 0) return null;
+            data.setHeatindexm(toDouble(parseDouble(line, fieldStart, fieldEnd)));
+
+            // Parse humidity
+            if ((pos = nextField(line, pos, end)) < 0) return null;
+            data.setHumidity(toInteger(parseInt(line, fieldStart, fieldEnd)));
+
+            // Parse precipm
+            if ((pos = nextField(line, pos, end)) < 0) return null;
+            data.setPrecipm(toDouble(parseDouble(line, fieldStart, fieldEnd)));
+
+            // Parse pressurem - skip -9999 invalid values
+            if ((pos = nextField(line, pos, end)) < 0) return null;
+            double pressure = parseDouble(line, fieldStart, fieldEnd);
+            if (pressure != -9999) {
+                data.setPressurem(toDouble(pressure));
+            }
+
+            // Parse rain
+            if ((pos = nextField(line, pos, end)) < 0) return null;
+            data.setRain(toInteger(parseInt(line, fieldStart, fieldEnd)));
+
+            // Parse snow
+            if ((pos = nextField(line, pos, end)) < 0) return null;
+            data.setSnow(toInteger(parseInt(line, fieldStart, fieldEnd)));
+
+            // Parse tempm
+            if ((pos = nextField(line, pos, end)) < 0) return null;
+            data.setTempm(toDouble(parseDouble(line, fieldStart, fieldEnd)));
+
+            // Parse thunder
+            if ((pos = nextField(line, pos, end)) < 0) return null;
+            data.setThunder(toInteger(parseInt(line, fieldStart, fieldEnd)));
+
+            // Parse tornado
+            if ((pos = nextField(line, pos, end)) < 0) return null;
+            data.setTornado(toInteger(parseInt(line, fieldStart, fieldEnd)));
+
+            // Parse visibility
+            if ((pos = nextField(line, pos, end)) < 0) return null;
+            data.setVisibility(toDouble(parseDouble(line, fieldStart, fieldEnd)));
+
+            // Parse wind direction degree
+            if ((pos = nextField(line, pos, end)) < 0) return null;
+            data.setWindDirection(toInteger(parseInt(line, fieldStart, fieldEnd)));
+
+            // Parse wind direction name
+            if ((pos = nextField(line, pos, end)) < 0) return null;
+            data.setWindDirectionName(parseString(line, fieldStart, fieldEnd));
+
+            // Parse wind gust
+            if ((pos = nextField(line, pos, end)) < 0) return null;
+            data.setWindGustm(toDouble(parseDouble(line, fieldStart, fieldEnd)));
+
+            // Parse wind chill
+            if ((pos = nextField(line, pos, end)) < 0) return null;
+            data.setWindchillm(toDouble(parseDouble(line, fieldStart, fieldEnd)));
+
+            // Parse wind speed
+            if (nextField(line, pos, end) < 0) return null;
+            data.setWspdm(toDouble(parseDouble(line, fieldStart, fieldEnd)));
+
+            return data;
+        } catch (DateTimeException e) {
+            System.err.println("Error parsing line: " + line.subSequence(start, end) + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Locates the field starting at {@code pos}, storing its trimmed bounds in
+     * {@link #fieldStart}/{@link #fieldEnd}. Returns the position after the field's delimiter,
+     * or -1 when the line has no more fields.
+     */
+    private int nextField(CharSequence line, int pos, int end) {
+        if (pos > end) {
+            return -1;
+        }
+        int delimiter = pos;
+        while (delimiter < end && line.charAt(delimiter) != ',') {
+            delimiter++;
+        }
+
+        int from = pos;
+        int to = delimiter;
+        while (from < to && line.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && line.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        fieldStart = from;
+        fieldEnd = to;
+        return delimiter + 1;
+    }
+
+    /**
+     * Parses the fixed {@code yyyyMMdd-HH:mm} layout directly from the digits. Anything outside
+     * the plain layout or plain calendar ranges falls back to the formatter so edge cases resolve
+     * exactly as before.
+     */
+    static LocalDateTime parseDateTime(CharSequence s, int from, int to) {
+        if (to - from == 14 && s.charAt(from + 8) == '-' && s.charAt(from + 11) == ':') {
+            int year = digits(s, from, 4);
+            int month = digits(s, from + 4, 2);
+            int day = digits(s, from + 6, 2);
+            int hour = digits(s, from + 9, 2);
+            int minute = digits(s, from + 12, 2);
+            if (year >= 1 && month >= 1 && month <= 12 && hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59
+                    && day >= 1 && day <= Month.of(month).length(Year.isLeap(year))) {
+                return LocalDateTime.of(year, month, day, hour, minute);
+            }
+        }
+        return LocalDateTime.parse(s.subSequence(from, to), dateTimeFormatter);
+    }
+
+    private static int digits(CharSequence s, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Parses a decimal number, returning NaN for blank or non-numeric fields. Plain decimals of
+     * up to 15 significant digits are computed exactly from the digits; exponent forms and longer
+     * mantissas are delegated to {@link Double#parseDouble}.
+     */
+    static double parseDouble(CharSequence s, int from, int to) {
+        if (from >= to) {
+            return Double.NaN;
+        }
+        int i = from;
+        boolean negative = false;
+        char c = s.charAt(i);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digitCount = 0;
+        int fractionDigits = 0;
+        boolean seenDot = false;
+        for (; i < to; i++) {
+            c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digitCount == MAX_FAST_PATH_DIGITS) {
+                    return parseDoubleSlow(s, from, to);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa > 0) {
+                    digitCount++;
+                }
+                if (seenDot) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && !seenDot) {
+                seenDot = true;
+            } else if (c == 'e' || c == 'E') {
+                return parseDoubleSlow(s, from, to);
+            } else {
+                return Double.NaN;
+            }
+        }
+
+        int length = to - from - (negative || s.charAt(from) == '+' ? 1 : 0) - (seenDot ? 1 : 0);
+        if (length == 0) {
+            return Double.NaN;
+        }
+        if (fractionDigits >= POWERS_OF_TEN.length) {
+            return parseDoubleSlow(s, from, to);
+        }
+        double value = fractionDigits == 0 ? mantissa : mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private static double parseDoubleSlow(CharSequence s, int from, int to) {
+        try {
+            return Double.parseDouble(s.subSequence(from, to).toString());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Parses a decimal integer, returning {@link #MISSING_INT} for blank, non-integer or
+     * out-of-range fields.
+     */
+    static long parseInt(CharSequence s, int from, int to) {
+        if (from >= to) {
+            return MISSING_INT;
+        }
+        int i = from;
+        boolean negative = false;
+        char c = s.charAt(i);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            i++;
+        }
+        if (i == to) {
+            return MISSING_INT;
+        }
+
+        long value = 0;
+        for (; i < to; i++) {
+            c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return MISSING_INT;
+            }
+            value = value * 10 + (c - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return MISSING_INT;
+            }
+        }
+        value = negative ? -value : value;
+        return value > Integer.MAX_VALUE ? MISSING_INT : value;
+    }
+
+    private String parseString(CharSequence s, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + s.charAt(i);
+        }
+        int slot = (hash ^ (hash >>> 16)) & (STRING_CACHE_SIZE - 1);
+        String cached = stringCache[slot];
+        if (cached != null && contentEquals(cached, s, from, to)) {
+            return cached;
+        }
+        String value = s.subSequence(from, to).toString();
+        stringCache[slot] = value;
+        return value;
+    }
+
+    private static boolean contentEquals(String cached, CharSequence s, int from, int to) {
+        if (cached.length() != to - from) {
+            return false;
+        }
+        for (int i = 0; i < cached.length(); i++) {
+            if (cached.charAt(i) != s.charAt(from + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Double toDouble(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static Integer toInteger(long value) {
+        return value == MISSING_INT ? null : (int) value;
+    }
+}
@@ -0,0 +1,22 @@
+package com.weather.data.repository;
+
+/**
+ * Number of observations reported with one weather condition.
+ */
+public class ConditionCount {
+    private final String condition;
+    private final long count;
+
+    public ConditionCount(String condition, long count) {
+        this.condition = condition;
+        this.count = count;
+    }
+
+    public String getCondition() {
+        return condition;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
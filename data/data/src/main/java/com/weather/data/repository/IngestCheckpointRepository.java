@@ -0,0 +1,13 @@
+package com.weather.data.repository;
+
+import com.weather.data.entity.IngestCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface IngestCheckpointRepository extends JpaRepository<IngestCheckpointEntity, Long> {
+
+    Optional<IngestCheckpointEntity> findBySourceAndStation(String source, String station);
+}
@@ -0,0 +1,139 @@
+package com.weather.data.repository;
+
+import com.weather.data.entity.WeatherDataEntity;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by one column and then by id, handed to clients as an opaque
+ * token. The next page starts right after the last row returned, so it is found with an index
+ * seek instead of skipping an OFFSET.
+ *
+ * Null sort values are treated as smaller than any value, matching H2's default null ordering:
+ * they come first in ascending listings and last in descending ones.
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final String sortField;
+    private final Sort.Direction direction;
+    private final Long lastId;
+    private final Object lastValue;
+
+    private KeysetCursor(String sortField, Sort.Direction direction, Long lastId, Object lastValue) {
+        this.sortField = sortField;
+        this.direction = direction;
+        this.lastId = lastId;
+        this.lastValue = lastValue;
+    }
+
+    /**
+     * Cursor for the first page; an empty token also decodes to it.
+     */
+    public static KeysetCursor first(String sortField, Sort.Direction direction) {
+        return new KeysetCursor(sortField, direction, null, null);
+    }
+
+    /**
+     * Decodes a token, checking that it was issued for the same ordering.
+     */
+    public static KeysetCursor decode(String token, String sortField, Sort.Direction direction) {
+        if (token == null || token.isEmpty()) {
+            return first(sortField, direction);
+        }
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        if (!parts[0].equals(sortField) || !parts[1].equals(direction.name())) {
+            throw new IllegalArgumentException("Cursor was issued for sortBy=" + parts[0] + " sortDir=" + parts[1]);
+        }
+        try {
+            return new KeysetCursor(sortField, direction, Long.parseLong(parts[2]), decodeValue(parts[3]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+
+    /**
+     * Cursor positioned after the given row, the last one of the current page.
+     */
+    public KeysetCursor after(WeatherDataEntity row) {
+        return after(new BeanWrapperImpl(row).getPropertyValue(sortField), row.getId());
+    }
+
+    /**
+     * Cursor positioned after a row with the given sort value and id.
+     */
+    public KeysetCursor after(Object sortValue, Long id) {
+        return new KeysetCursor(sortField, direction, id, sortValue);
+    }
+
+    public String encode() {
+        String raw = sortField + SEPARATOR + direction.name() + SEPARATOR + lastId + SEPARATOR + encodeValue(lastValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isFirstPage() {
+        return lastId == null;
+    }
+
+    public String getSortField() {
+        return sortField;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    public Object getLastValue() {
+        return lastValue;
+    }
+
+    private static String encodeValue(Object value) {
+        if (value == null) {
+            return "n";
+        } else if (value instanceof LocalDateTime) {
+            return "t" + value;
+        } else if (value instanceof Double) {
+            return "d" + value;
+        } else if (value instanceof Integer) {
+            return "i" + value;
+        } else if (value instanceof String) {
+            return "s" + value;
+        }
+        throw new IllegalArgumentException("Unsupported sort value type: " + value.getClass().getSimpleName());
+    }
+
+    private static Object decodeValue(String encoded) {
+        String value = encoded.substring(1);
+        switch (encoded.charAt(0)) {
+            case 'n':
+                return null;
+            case 't':
+                return LocalDateTime.parse(value);
+            case 'd':
+                return Double.valueOf(value);
+            case 'i':
+                return Integer.valueOf(value);
+            case 's':
+                return value;
+            default:
+                throw new IllegalArgumentException("Unknown sort value type: " + encoded.charAt(0));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.weather.data.repository;
+
+import com.weather.data.service.DatasetVersion;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Maps the names of a small lookup table to their ids, caching the table in memory. Names are
+ * matched by {@link #lookupKey(String)}. Ingestion registers unseen names; queries only look them
+ * up, and a name that is not in the table is remembered as missing until the dataset generation
+ * moves on, so repeated queries for an unknown name do not reach the database.
+ */
+public abstract class NameIdDictionary {
+
+    private static final int MAX_MISSES = 10_000;
+
+    private final Map<String, Integer> idsByKey = new ConcurrentHashMap<>();
+
+    private volatile Misses misses = new Misses(-1);
+
+    private final Function<String, Optional<Integer>> findIdByKey;
+
+    private final BiFunction<String, String, Integer> insert;
+
+    private final DatasetVersion datasetVersion;
+
+    // New names are committed on their own, so a rolled back batch never leaves a cached id behind
+    private final TransactionTemplate requiresNewTransaction;
+
+    /**
+     * @param findIdByKey looks up the id stored for a lookup key
+     * @param insert      stores a new row for a trimmed name and its lookup key and returns its id
+     */
+    protected NameIdDictionary(Function<String, Optional<Integer>> findIdByKey,
+                               BiFunction<String, String, Integer> insert,
+                               PlatformTransactionManager transactionManager,
+                               DatasetVersion datasetVersion) {
+        this.findIdByKey = findIdByKey;
+        this.insert = insert;
+        this.datasetVersion = datasetVersion;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Returns the id of a known name, or null when the name is blank or was never ingested.
+     */
+    public Integer findId(String name) {
+        String key = lookupKey(name);
+        if (key == null) {
+            return null;
+        }
+        Integer id = idsByKey.get(key);
+        if (id != null) {
+            return id;
+        }
+        Set<String> missing = currentMisses();
+        if (missing.contains(key)) {
+            return null;
+        }
+        id = findIdByKey.apply(key).orElse(null);
+        if (id != null) {
+            idsByKey.put(key, id);
+        } else if (missing.size() < MAX_MISSES) {
+            missing.add(key);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of the name, registering it first if it is new.
+     */
+    public Integer resolve(String name) {
+        String key = lookupKey(name);
+        if (key == null) {
+            return null;
+        }
+        Integer id = idsByKey.get(key);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = idsByKey.get(key);
+            if (id == null) {
+                id = findIdByKey.apply(key).orElse(null);
+            }
+            if (id == null) {
+                id = requiresNewTransaction.execute(status -> insert.apply(name.trim(), key));
+            }
+            idsByKey.put(key, id);
+            return id;
+        }
+    }
+
+    public static String lookupKey(String name) {
+        if (name == null) {
+            return null;
+        }
+        String trimmed = name.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    private Set<String> currentMisses() {
+        long generation = datasetVersion.getGeneration();
+        Misses current = misses;
+        if (current.generation != generation) {
+            current = new Misses(generation);
+            misses = current;
+        }
+        return current.keys;
+    }
+
+    private static final class Misses {
+        private final long generation;
+        private final Set<String> keys = ConcurrentHashMap.newKeySet();
+
+        private Misses(long generation) {
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.weather.data.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of observations of one station and the time span they cover.
+ */
+public class StationSummary {
+    private final String station;
+    private final long count;
+    private final LocalDateTime firstObservation;
+    private final LocalDateTime lastObservation;
+
+    public StationSummary(String station, long count, LocalDateTime firstObservation, LocalDateTime lastObservation) {
+        this.station = station;
+        this.count = count;
+        this.firstObservation = firstObservation;
+        this.lastObservation = lastObservation;
+    }
+
+    public String getStation() {
+        return station;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public LocalDateTime getFirstObservation() {
+        return firstObservation;
+    }
+
+    public LocalDateTime getLastObservation() {
+        return lastObservation;
+    }
+}
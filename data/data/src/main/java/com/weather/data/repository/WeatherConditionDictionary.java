@@ -0,0 +1,23 @@
+package com.weather.data.repository;
+
+import com.weather.data.entity.WeatherConditionEntity;
+import com.weather.data.service.DatasetVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Maps condition names to their weather_condition ids.
+ */
+@Component
+public class WeatherConditionDictionary extends NameIdDictionary {
+
+    @Autowired
+    public WeatherConditionDictionary(WeatherConditionRepository weatherConditionRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      DatasetVersion datasetVersion) {
+        super(key -> weatherConditionRepository.findByLookupKey(key).map(WeatherConditionEntity::getId),
+                (name, key) -> weatherConditionRepository.save(new WeatherConditionEntity(name, key)).getId(),
+                transactionManager, datasetVersion);
+    }
+}
@@ -0,0 +1,13 @@
+package com.weather.data.repository;
+
+import com.weather.data.entity.WeatherConditionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface WeatherConditionRepository extends JpaRepository<WeatherConditionEntity, Integer> {
+
+    Optional<WeatherConditionEntity> findByLookupKey(String lookupKey);
+}
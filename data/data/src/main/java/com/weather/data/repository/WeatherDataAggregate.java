@@ -0,0 +1,106 @@
+package com.weather.data.repository;
+
+/**
+ * Raw aggregates over a (filtered) set of weather rows, computed by the database or by a scan of
+ * the columnar store. Sums and ranges are null when no row has a value for the column.
+ */
+public class WeatherDataAggregate {
+    private final long totalRecords;
+    private final long temperatureCount;
+    private final Double temperatureSum;
+    private final Double temperatureSumOfSquares;
+    private final Double minTemperature;
+    private final Double maxTemperature;
+    private final long humidityCount;
+    private final Double humiditySum;
+    private final Double humiditySumOfSquares;
+    private final Double minHumidity;
+    private final Double maxHumidity;
+    private final long rainCount;
+    private final long snowCount;
+    private final long thunderCount;
+    private final long fogCount;
+
+    public WeatherDataAggregate(long totalRecords,
+                                long temperatureCount, Double temperatureSum, Double temperatureSumOfSquares,
+                                Double minTemperature, Double maxTemperature,
+                                long humidityCount, Double humiditySum, Double humiditySumOfSquares,
+                                Double minHumidity, Double maxHumidity,
+                                long rainCount, long snowCount, long thunderCount, long fogCount) {
+        this.totalRecords = totalRecords;
+        this.temperatureCount = temperatureCount;
+        this.temperatureSum = temperatureSum;
+        this.temperatureSumOfSquares = temperatureSumOfSquares;
+        this.minTemperature = minTemperature;
+        this.maxTemperature = maxTemperature;
+        this.humidityCount = humidityCount;
+        this.humiditySum = humiditySum;
+        this.humiditySumOfSquares = humiditySumOfSquares;
+        this.minHumidity = minHumidity;
+        this.maxHumidity = maxHumidity;
+        this.rainCount = rainCount;
+        this.snowCount = snowCount;
+        this.thunderCount = thunderCount;
+        this.fogCount = fogCount;
+    }
+
+    public long getTotalRecords() {
+        return totalRecords;
+    }
+
+    public long getTemperatureCount() {
+        return temperatureCount;
+    }
+
+    public Double getTemperatureSum() {
+        return temperatureSum;
+    }
+
+    public Double getTemperatureSumOfSquares() {
+        return temperatureSumOfSquares;
+    }
+
+    public Double getMinTemperature() {
+        return minTemperature;
+    }
+
+    public Double getMaxTemperature() {
+        return maxTemperature;
+    }
+
+    public long getHumidityCount() {
+        return humidityCount;
+    }
+
+    public Double getHumiditySum() {
+        return humiditySum;
+    }
+
+    public Double getHumiditySumOfSquares() {
+        return humiditySumOfSquares;
+    }
+
+    public Double getMinHumidity() {
+        return minHumidity;
+    }
+
+    public Double getMaxHumidity() {
+        return maxHumidity;
+    }
+
+    public long getRainCount() {
+        return rainCount;
+    }
+
+    public long getSnowCount() {
+        return snowCount;
+    }
+
+    public long getThunderCount() {
+        return thunderCount;
+    }
+
+    public long getFogCount() {
+        return fogCount;
+    }
+}
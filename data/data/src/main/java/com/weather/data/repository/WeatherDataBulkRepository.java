@@ -0,0 +1,94 @@
+package com.weather.data.repository;
+
+import com.weather.data.model.WeatherData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk inserts parsed rows into weather_data with JDBC batches, bypassing entity creation and the
+ * persistence context. Ids come from weather_data_seq in blocks of {@link #ID_BLOCK_SIZE}, using
+ * the same pooled-lo scheme Hibernate uses for WeatherDataEntity so both paths can share the table.
+ */
+@Repository
+public class WeatherDataBulkRepository {
+
+    public static final int ID_BLOCK_SIZE = 50;
+
+    private static final String INSERT_SQL = "INSERT INTO weather_data (id, station, station_id, datetime_utc, conditions, condition_id, dewptm, fog, hail, "
+            + "heatindexm, humidity, precipm, pressurem, rain, snow, tempm, thunder, tornado, visibility, "
+            + "wind_direction, wind_direction_name, wind_gustm, windchillm, wspdm) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String STORED_TIMES_SQL = "SELECT datetime_utc FROM weather_data "
+            + "WHERE station_id = ? AND datetime_utc BETWEEN ? AND ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WeatherConditionDictionary weatherConditionDictionary;
+
+    @Autowired
+    private WeatherStationDictionary weatherStationDictionary;
+
+    /**
+     * Inserts the rows and sets the id each one was given.
+     */
+    public int insert(List<WeatherData> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        long nextId = 0;
+        long blockEnd = 0;
+        for (WeatherData data : batch) {
+            if (nextId == blockEnd) {
+                nextId = nextIdBlock();
+                blockEnd = nextId + ID_BLOCK_SIZE;
+            }
+            data.setId(nextId++);
+            rows.add(new Object[]{
+                    data.getId(),
+                    data.getStation(),
+                    weatherStationDictionary.resolve(data.getStation()),
+                    data.getDatetimeUtc(),
+                    data.getConditions(),
+                    weatherConditionDictionary.resolve(data.getConditions()),
+                    data.getDewptm(),
+                    data.getFog(),
+                    data.getHail(),
+                    data.getHeatindexm(),
+                    data.getHumidity(),
+                    data.getPrecipm(),
+                    data.getPerssurem(),
+                    data.getRain(),
+                    data.getSnow(),
+                    data.getTempm(),
+                    data.getThunder(),
+                    data.getTornado(),
+                    data.getVisibility(),
+                    data.getWindDirection(),
+                    data.getWindDirectionName(),
+                    data.getWindGustm(),
+                    data.getWindchillm(),
+                    data.getWspdm()
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        return rows.size();
+    }
+
+    /**
+     * Observation times already stored for a station within {@code [from, to]}, answered from the
+     * (station_id, datetime_utc) unique index.
+     */
+    public List<LocalDateTime> findStoredTimes(Integer stationId, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.queryForList(STORED_TIMES_SQL, LocalDateTime.class, stationId, from, to);
+    }
+
+    private long nextIdBlock() {
+        return jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR weather_data_seq", Long.class);
+    }
+}
@@ -0,0 +1,44 @@
+package com.weather.data.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Columns that can be requested with the {@code fields} parameter, named like the JSON properties
+ * of WeatherDataEntity.
+ */
+public final class WeatherDataFields {
+
+    public static final List<String> ALL = Collections.unmodifiableList(Arrays.asList(
+            "id", "station", "stationId", "datetimeUtc", "conditions", "conditionId", "dewptm", "fog", "hail", "heatindexm", "humidity",
+            "precipm", "pressurem", "rain", "snow", "tempm", "thunder", "tornado", "visibility", "windDirection",
+            "windDirectionName", "windGustm", "windchillm", "wspdm"));
+
+    private WeatherDataFields() {
+    }
+
+    /**
+     * Parses a comma-separated field list, keeping the requested order and dropping duplicates.
+     */
+    public static List<String> parse(String fields) {
+        Set<String> parsed = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!ALL.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name + " (available: " + String.join(",", ALL) + ")");
+            }
+            parsed.add(name);
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("fields must name at least one field");
+        }
+        return new ArrayList<>(parsed);
+    }
+}
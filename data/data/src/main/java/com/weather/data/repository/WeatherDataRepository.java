@@ -6,5 +6,6 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface WeatherDataRepository extends JpaRepository<WeatherDataEntity, Long>, JpaSpecificationExecutor<WeatherDataEntity> {
+public interface WeatherDataRepository extends JpaRepository<WeatherDataEntity, Long>, JpaSpecificationExecutor<WeatherDataEntity>,
+        WeatherDataRepositoryCustom {
 }
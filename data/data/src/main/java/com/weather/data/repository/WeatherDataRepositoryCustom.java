@@ -0,0 +1,86 @@
+package com.weather.data.repository;
+
+import com.weather.data.entity.HistogramMetric;
+import com.weather.data.entity.WeatherDataEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Queries that Spring Data cannot derive, implemented with the Criteria API so they accept the
+ * same {@link Specification}s as the search endpoints.
+ */
+public interface WeatherDataRepositoryCustom {
+
+    WeatherDataAggregate aggregate(Specification<WeatherDataEntity> spec);
+
+    /**
+     * Counts the matching rows with a value for the metric per histogram bin, grouping in the
+     * database; the result maps bin index to count and omits empty bins.
+     */
+    Map<Integer, Long> countByBin(Specification<WeatherDataEntity> spec, HistogramMetric metric);
+
+    /**
+     * Counts matching rows per condition with a GROUP BY, most frequent first, keeping at most
+     * {@code limit} conditions when a limit is given.
+     */
+    List<ConditionCount> countByCondition(Specification<WeatherDataEntity> spec, Integer limit);
+
+    /**
+     * Counts matching rows per station with their first and last observation time, ordered by
+     * station name.
+     */
+    List<StationSummary> summarizeStations(Specification<WeatherDataEntity> spec);
+
+    /**
+     * Fetches one offset page without counting the matching rows; one extra row is read to tell
+     * whether another page exists.
+     */
+    Slice<WeatherDataEntity> findSlice(Specification<WeatherDataEntity> spec, Pageable pageable);
+
+    /**
+     * Like {@link #findSlice(Specification, Pageable)}, but selects only the given fields and
+     * returns each row as a map in field order, without loading entities.
+     */
+    Slice<Map<String, Object>> findSlice(Specification<WeatherDataEntity> spec, Pageable pageable, List<String> fields);
+
+    /**
+     * Fetches the page that follows the cursor position, ordered by the cursor's sort field and id.
+     * No count query is issued; one extra row is read to tell whether another page exists.
+     */
+    Slice<WeatherDataEntity> findSlice(Specification<WeatherDataEntity> spec, KeysetCursor cursor, int size);
+
+    /**
+     * Keyset page of the given fields. The id and the sort field are always selected, since the
+     * next cursor is built from them.
+     */
+    Slice<Map<String, Object>> findSlice(Specification<WeatherDataEntity> spec, KeysetCursor cursor, int size,
+                                         List<String> fields);
+
+    /**
+     * Streams every matching row through a forward-only cursor, reading {@code fetchSize} rows per
+     * round trip. Entities are loaded read-only; the caller must consume and close the stream
+     * inside a transaction and detach rows it is done with to keep memory flat.
+     */
+    Stream<WeatherDataEntity> streamAll(Specification<WeatherDataEntity> spec, Sort sort, int fetchSize);
+
+    /**
+     * Streams (datetimeUtc, value) pairs of one column in time order, skipping rows where the
+     * column is null. A null station id reads every station. Same transaction requirements as
+     * {@link #streamAll}.
+     */
+    Stream<Object[]> streamSeries(String field, Integer stationId, LocalDateTime start, LocalDateTime end,
+                                  int fetchSize);
+
+    /**
+     * Earliest and latest observation time of one station, or of every station when the id is
+     * null; both null when there is no data.
+     */
+    LocalDateTime[] findTimeRange(Integer stationId);
+}
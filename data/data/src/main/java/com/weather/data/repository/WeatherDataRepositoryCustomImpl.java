@@ -0,0 +1,346 @@
+package com.weather.data.repository;
+
+import com.weather.data.entity.HistogramMetric;
+import com.weather.data.entity.WeatherConditionEntity;
+import com.weather.data.entity.WeatherDataEntity;
+import com.weather.data.entity.WeatherStationEntity;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Transactional(readOnly = true)
+public class WeatherDataRepositoryCustomImpl implements WeatherDataRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public WeatherDataAggregate aggregate(Specification<WeatherDataEntity> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<WeatherDataEntity> root = query.from(WeatherDataEntity.class);
+
+        Expression<Double> tempm = root.get("tempm");
+        Expression<Double> humidity = root.get("humidity").as(Double.class);
+        query.multiselect(
+                cb.count(root),
+                cb.count(tempm),
+                cb.sum(tempm),
+                cb.sum(cb.prod(tempm, tempm)),
+                cb.min(tempm),
+                cb.max(tempm),
+                cb.count(humidity),
+                cb.sum(humidity),
+                cb.sum(cb.prod(humidity, humidity)),
+                cb.min(humidity),
+                cb.max(humidity),
+                countFlag(cb, root, "rain"),
+                countFlag(cb, root, "snow"),
+                countFlag(cb, root, "thunder"),
+                countFlag(cb, root, "fog"));
+        applySpecification(spec, root, query, cb);
+
+        Tuple row = entityManager.createQuery(query).getSingleResult();
+        return new WeatherDataAggregate(
+                longValue(row.get(0)),
+                longValue(row.get(1)), doubleValue(row.get(2)), doubleValue(row.get(3)),
+                doubleValue(row.get(4)), doubleValue(row.get(5)),
+                longValue(row.get(6)), doubleValue(row.get(7)), doubleValue(row.get(8)),
+                doubleValue(row.get(9)), doubleValue(row.get(10)),
+                longValue(row.get(11)), longValue(row.get(12)), longValue(row.get(13)), longValue(row.get(14)));
+    }
+
+    @Override
+    public Map<Integer, Long> countByBin(Specification<WeatherDataEntity> spec, HistogramMetric metric) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<WeatherDataEntity> root = query.from(WeatherDataEntity.class);
+
+        // Same bin arithmetic as HistogramMetric.bin, clamped to the metric's range below
+        Expression<Double> value = root.get(metric.getField()).as(Double.class);
+        Expression<Double> scaled = cb.function("floor", Double.class,
+                cb.sum(cb.prod(value, (double) metric.getBinsPerUnit()), HistogramMetric.EPSILON));
+        query.multiselect(scaled, cb.count(root));
+        applySpecification(spec, root, query, cb);
+        Predicate present = cb.isNotNull(value);
+        query.where(query.getRestriction() != null ? cb.and(query.getRestriction(), present) : present);
+        query.groupBy(scaled);
+
+        Map<Integer, Long> counts = new HashMap<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            int bin = metric.binOfScaled(((Number) row.get(0)).longValue());
+            counts.merge(bin, longValue(row.get(1)), Long::sum);
+        }
+        return counts;
+    }
+
+    @Override
+    public List<ConditionCount> countByCondition(Specification<WeatherDataEntity> spec, Integer limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ConditionCount> query = cb.createQuery(ConditionCount.class);
+        Root<WeatherDataEntity> root = query.from(WeatherDataEntity.class);
+        Root<WeatherConditionEntity> condition = query.from(WeatherConditionEntity.class);
+
+        // Grouped by the normalized condition, so differently cased spellings count together
+        Expression<String> name = condition.get("name");
+        Expression<Long> count = cb.count(root);
+        query.select(cb.construct(ConditionCount.class, name, count));
+        applySpecification(spec, root, query, cb);
+        Predicate joined = cb.equal(root.get("conditionId"), condition.get("id"));
+        query.where(query.getRestriction() != null ? cb.and(query.getRestriction(), joined) : joined);
+        query.groupBy(condition.get("id"), name);
+        query.orderBy(cb.desc(count), cb.asc(name));
+
+        TypedQuery<ConditionCount> typedQuery = entityManager.createQuery(query);
+        if (limit != null && limit > 0) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public List<StationSummary> summarizeStations(Specification<WeatherDataEntity> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<StationSummary> query = cb.createQuery(StationSummary.class);
+        Root<WeatherDataEntity> root = query.from(WeatherDataEntity.class);
+        Root<WeatherStationEntity> station = query.from(WeatherStationEntity.class);
+
+        Expression<String> name = station.get("name");
+        query.select(cb.construct(StationSummary.class, name, cb.count(root),
+                cb.least(root.<LocalDateTime>get("datetimeUtc")), cb.greatest(root.<LocalDateTime>get("datetimeUtc"))));
+        applySpecification(spec, root, query, cb);
+        Predicate joined = cb.equal(root.get("stationId"), station.get("id"));
+        query.where(query.getRestriction() != null ? cb.and(query.getRestriction(), joined) : joined);
+        query.groupBy(station.get("id"), name);
+        query.orderBy(cb.asc(name));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public Slice<WeatherDataEntity> findSlice(Specification<WeatherDataEntity> spec, Pageable pageable) {
+        CriteriaQuery<WeatherDataEntity> query = entityManager.getCriteriaBuilder().createQuery(WeatherDataEntity.class);
+        Root<WeatherDataEntity> root = query.from(WeatherDataEntity.class);
+        return offsetSlice(query, root, spec, pageable, Function.identity());
+    }
+
+    @Override
+    public Slice<Map<String, Object>> findSlice(Specification<WeatherDataEntity> spec, Pageable pageable,
+                                                List<String> fields) {
+        CriteriaQuery<Tuple> query = entityManager.getCriteriaBuilder().createTupleQuery();
+        Root<WeatherDataEntity> root = query.from(WeatherDataEntity.class);
+        query.multiselect(selections(root, fields));
+        return offsetSlice(query, root, spec, pageable, tuple -> toRow(tuple, fields));
+    }
+
+    @Override
+    public Slice<WeatherDataEntity> findSlice(Specification<WeatherDataEntity> spec, KeysetCursor cursor, int size) {
+        CriteriaQuery<WeatherDataEntity> query = entityManager.getCriteriaBuilder().createQuery(WeatherDataEntity.class);
+        Root<WeatherDataEntity> root = query.from(WeatherDataEntity.class);
+        return keysetSlice(query, root, spec, cursor, size, Function.identity());
+    }
+
+    @Override
+    public Slice<Map<String, Object>> findSlice(Specification<WeatherDataEntity> spec, KeysetCursor cursor, int size,
+                                                List<String> fields) {
+        List<String> selected = new ArrayList<>(fields);
+        for (String required : Arrays.asList("id", cursor.getSortField())) {
+            if (!selected.contains(required)) {
+                selected.add(required);
+            }
+        }
+        CriteriaQuery<Tuple> query = entityManager.getCriteriaBuilder().createTupleQuery();
+        Root<WeatherDataEntity> root = query.from(WeatherDataEntity.class);
+        query.multiselect(selections(root, selected));
+        return keysetSlice(query, root, spec, cursor, size, tuple -> toRow(tuple, selected));
+    }
+
+    private <T, R> Slice<R> offsetSlice(CriteriaQuery<T> query, Root<WeatherDataEntity> root,
+                                        Specification<WeatherDataEntity> spec, Pageable pageable, Function<T, R> mapper) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        applySpecification(spec, root, query, cb);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        List<T> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        return toSlice(rows, pageable, mapper);
+    }
+
+    private <T, R> Slice<R> keysetSlice(CriteriaQuery<T> query, Root<WeatherDataEntity> root,
+                                        Specification<WeatherDataEntity> spec, KeysetCursor cursor, int size,
+                                        Function<T, R> mapper) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        applySpecification(spec, root, query, cb);
+        if (!cursor.isFirstPage()) {
+            Predicate seek = seekPredicate(cb, root, cursor);
+            query.where(query.getRestriction() != null ? cb.and(query.getRestriction(), seek) : seek);
+        }
+
+        Path<?> sortPath = root.get(cursor.getSortField());
+        Path<?> id = root.get("id");
+        boolean ascending = cursor.getDirection().isAscending();
+        query.orderBy(ascending ? cb.asc(sortPath) : cb.desc(sortPath), ascending ? cb.asc(id) : cb.desc(id));
+
+        List<T> rows = entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList();
+        Sort sort = Sort.by(cursor.getDirection(), cursor.getSortField()).and(Sort.by(cursor.getDirection(), "id"));
+        return toSlice(rows, PageRequest.of(0, size, sort), mapper);
+    }
+
+    // Queries read one row past the page to tell whether another page follows
+    private static <T, R> Slice<R> toSlice(List<T> rows, Pageable pageable, Function<T, R> mapper) {
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<R> content = new ArrayList<>(Math.min(rows.size(), pageable.getPageSize()));
+        for (T row : hasNext ? rows.subList(0, pageable.getPageSize()) : rows) {
+            content.add(mapper.apply(row));
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private static List<Selection<?>> selections(Root<WeatherDataEntity> root, List<String> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(root.get(field).alias(field));
+        }
+        return selections;
+    }
+
+    private static Map<String, Object> toRow(Tuple tuple, List<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String field : fields) {
+            row.put(field, tuple.get(field));
+        }
+        return row;
+    }
+
+    @Override
+    public Stream<WeatherDataEntity> streamAll(Specification<WeatherDataEntity> spec, Sort sort, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<WeatherDataEntity> query = cb.createQuery(WeatherDataEntity.class);
+        Root<WeatherDataEntity> root = query.from(WeatherDataEntity.class);
+        applySpecification(spec, root, query, cb);
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<Object[]> streamSeries(String field, Integer stationId, LocalDateTime start, LocalDateTime end,
+                                         int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<WeatherDataEntity> root = query.from(WeatherDataEntity.class);
+        Path<LocalDateTime> datetimeUtc = root.get("datetimeUtc");
+        query.multiselect(datetimeUtc, root.get(field));
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.isNotNull(root.get(field)));
+        predicates.add(cb.greaterThanOrEqualTo(datetimeUtc, start));
+        predicates.add(cb.lessThanOrEqualTo(datetimeUtc, end));
+        if (stationId != null) {
+            predicates.add(cb.equal(root.get("stationId"), stationId));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.asc(datetimeUtc), cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    @Override
+    public LocalDateTime[] findTimeRange(Integer stationId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<WeatherDataEntity> root = query.from(WeatherDataEntity.class);
+        Path<LocalDateTime> datetimeUtc = root.get("datetimeUtc");
+        query.multiselect(cb.least(datetimeUtc), cb.greatest(datetimeUtc));
+        if (stationId != null) {
+            query.where(cb.equal(root.get("stationId"), stationId));
+        }
+
+        Tuple row = entityManager.createQuery(query).getSingleResult();
+        return new LocalDateTime[]{row.get(0, LocalDateTime.class), row.get(1, LocalDateTime.class)};
+    }
+
+    /**
+     * Rows strictly after the cursor. The value comparison is written as a range on the sort
+     * column plus a tie-break on id, so the database can seek through the column's index.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate seekPredicate(CriteriaBuilder cb, Root<WeatherDataEntity> root, KeysetCursor cursor) {
+        Path<Comparable> value = root.get(cursor.getSortField());
+        Path<Long> id = root.get("id");
+        Comparable lastValue = (Comparable) cursor.getLastValue();
+        Long lastId = cursor.getLastId();
+
+        if (cursor.getDirection().isAscending()) {
+            if (lastValue == null) {
+                return cb.or(cb.and(cb.isNull(value), cb.greaterThan(id, lastId)), cb.isNotNull(value));
+            }
+            return cb.and(cb.greaterThanOrEqualTo(value, lastValue),
+                    cb.or(cb.greaterThan(value, lastValue), cb.greaterThan(id, lastId)));
+        }
+        if (lastValue == null) {
+            return cb.and(cb.isNull(value), cb.lessThan(id, lastId));
+        }
+        return cb.or(cb.and(cb.lessThanOrEqualTo(value, lastValue),
+                        cb.or(cb.lessThan(value, lastValue), cb.lessThan(id, lastId))),
+                cb.isNull(value));
+    }
+
+    private static Expression<Integer> countFlag(CriteriaBuilder cb, Root<WeatherDataEntity> root, String flag) {
+        return cb.sum(cb.<Integer>selectCase()
+                .when(cb.equal(root.get(flag), 1), 1)
+                .otherwise(0));
+    }
+
+    private static void applySpecification(Specification<WeatherDataEntity> spec, Root<WeatherDataEntity> root,
+                                           CriteriaQuery<?> query, CriteriaBuilder cb) {
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+    }
+
+    private static long longValue(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private static Double doubleValue(Object value) {
+        return value != null ? ((Number) value).doubleValue() : null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.weather.data.repository;
+
+import com.weather.data.entity.RollupGranularity;
+import com.weather.data.entity.WeatherRollupEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WeatherRollupRepository extends JpaRepository<WeatherRollupEntity, Long> {
+
+    List<WeatherRollupEntity> findByGranularityAndStationIdAndBucketStartBetweenOrderByBucketStart(
+            RollupGranularity granularity, int stationId, LocalDateTime start, LocalDateTime end);
+}
@@ -0,0 +1,23 @@
+package com.weather.data.repository;
+
+import com.weather.data.entity.WeatherStationEntity;
+import com.weather.data.service.DatasetVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Maps station names to their weather_station ids.
+ */
+@Component
+public class WeatherStationDictionary extends NameIdDictionary {
+
+    @Autowired
+    public WeatherStationDictionary(WeatherStationRepository weatherStationRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    DatasetVersion datasetVersion) {
+        super(key -> weatherStationRepository.findByLookupKey(key).map(WeatherStationEntity::getId),
+                (name, key) -> weatherStationRepository.save(new WeatherStationEntity(name, key)).getId(),
+                transactionManager, datasetVersion);
+    }
+}
@@ -0,0 +1,13 @@
+package com.weather.data.repository;
+
+import com.weather.data.entity.WeatherStationEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface WeatherStationRepository extends JpaRepository<WeatherStationEntity, Integer> {
+
+    Optional<WeatherStationEntity> findByLookupKey(String lookupKey);
+}
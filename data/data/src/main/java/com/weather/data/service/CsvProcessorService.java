@@ -2,32 +2,126 @@ package com.weather.data.service;
 
 import com.weather.data.entity.WeatherDataEntity;
 import com.weather.data.model.WeatherData;
+import com.weather.data.parser.MappedCsvReader;
+import com.weather.data.parser.WeatherDataLineParser;
+import com.weather.data.repository.WeatherConditionDictionary;
+import com.weather.data.repository.WeatherDataBulkRepository;
 import com.weather.data.repository.WeatherDataRepository;
+import com.weather.data.repository.WeatherStationDictionary;
+import com.weather.data.store.ColumnarWeatherStore;
+import com.weather.data.store.WeatherColumns;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 
 import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class CsvProcessorService {
 
-    private static final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyyMMdd-HH:mm");
+    // Marks the end of the parsed rows on the streaming ingestion queue
+    private static final WeatherData END_OF_STREAM = new WeatherData();
+
+    // Attempts per batch when a concurrent load stores the same rows or rollup buckets first
+    private static final int MAX_BATCH_ATTEMPTS = 3;
     
     @Autowired
     private WeatherDataRepository weatherDataRepository;
 
+    @Autowired
+    private WeatherDataBulkRepository weatherDataBulkRepository;
+
+    @Autowired
+    private WeatherConditionDictionary weatherConditionDictionary;
+
+    @Autowired
+    private WeatherStationDictionary weatherStationDictionary;
+
+    @Autowired
+    private MappedCsvReader mappedCsvReader;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ColumnarWeatherStore columnarWeatherStore;
+
+    @Autowired
+    private WeatherRollupService weatherRollupService;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    @Autowired
+    private IngestCheckpointService ingestCheckpointService;
+
+    @Autowired
+    private AsyncTaskExecutor ingestWriterExecutor;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // External CSV file to ingest; the bundled classpath sample is used when blank
+    @Value("${weather.ingest.file:}")
+    private String csvFile;
+
+    @Value("${weather.ingest.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${weather.ingest.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${weather.ingest.jdbc-batch:true}")
+    private boolean jdbcBatchInsert;
+
+    // Loads of more rows than this are analyzed by fork-join; 0 analyzes every load sequentially
+    @Value("${weather.analysis.parallel-threshold:20000}")
+    private int parallelThreshold;
+
+    // Most rows a single fork-join task aggregates without splitting further
+    @Value("${weather.analysis.leaf-size:20000}")
+    private int leafSize;
+
     public List<WeatherData> readCsvFile() throws Exception {
+        if (!csvFile.isEmpty()) {
+            return readCsvFile(Paths.get(csvFile));
+        }
+
         List<WeatherData> weatherDataList = new ArrayList<>();
+        WeatherDataLineParser parser = new WeatherDataLineParser();
         
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-                new ClassPathResource("test/testset.csv").getInputStream(), StandardCharsets.UTF_8))) {
+        try (BufferedReader reader = openBundledCsvReader()) {
             String line;
             boolean isHeader = true;
 
@@ -37,7 +131,7 @@ public class CsvProcessorService {
                     continue; // Skip header line
                 }
 
-                WeatherData data = parseWeatherDataLine(line);
+                WeatherData data = parser.parse(line);
                 if (data != null) {
                     weatherDataList.add(data);
                 }
@@ -47,198 +141,380 @@ public class CsvProcessorService {
         return weatherDataList;
     }
 
-    public void saveWeatherDataToDatabase(List<WeatherData> weatherDataList) {
-        System.out.println("Saving " + weatherDataList.size() + " records to database...");
-        
-        List<WeatherDataEntity> entities = new ArrayList<>();
-        for (WeatherData data : weatherDataList) {
-            WeatherDataEntity entity = new WeatherDataEntity(
-                    data.getDatetimeUtc(),
-                    data.getConditions(),
-                    data.getDewptm(),
-                    data.getFog(),
-                    data.getHail(),
-                    data.getHeatindexm(),
-                    data.getHumidity(),
-                    data.getPrecipm(),
-                    data.getPerssurem(),
-                    data.getRain(),
-                    data.getSnow(),
-                    data.getTempm(),
-                    data.getThunder(),
-                    data.getTornado(),
-                    data.getVisibility(),
-                    data.getWindDirection(),
-                    data.getWindDirectionName(),
-                    data.getWindGustm(),
-                    data.getWindchillm(),
-                    data.getWspdm()
-            );
-            entities.add(entity);
-        }
-        
-        // Save all entities using saveAll for batch insert
-        weatherDataRepository.saveAll(entities);
-        System.out.println("Successfully saved " + entities.size() + " records to database");
+    /**
+     * Reads an external CSV file with the memory-mapped reader, parsing newline-aligned chunks in
+     * parallel on the {@code weather.ingest.parallelism} pool while keeping the original row order.
+     */
+    public List<WeatherData> readCsvFile(Path file) throws Exception {
+        return mappedCsvReader.read(file);
     }
 
-    private WeatherData parseWeatherDataLine(String line) {
-        try {
-            String[] parts = line.split(",", -1);
+    /**
+     * Streams the CSV file into the database without materializing it. Parsed rows are handed
+     * over a bounded queue to a writer thread that persists them in batches of
+     * {@code weather.ingest.batch-size} and accumulates statistics as they pass, so heap usage
+     * depends on the batch size and queue capacity rather than on the file size.
+     */
+    public WeatherDataStatistics processCsvFileStreaming() throws Exception {
+        if (!csvFile.isEmpty()) {
+            return processCsvFile(Paths.get(csvFile), WeatherData.DEFAULT_STATION, new IngestProgress(), true);
+        }
+        try (BufferedReader reader = openBundledCsvReader()) {
+            return processCsvStreaming(reader);
+        }
+    }
 
-            if (parts.length < 20) {
-                return null;
+    /**
+     * Streams a CSV file into the database as observations of {@code station}. With
+     * {@code resume}, reading starts where the previous load of the file for the station stopped
+     * and the end of its last complete line is checkpointed once every row is stored, so loading
+     * an appended file only reads and parses its new tail.
+     */
+    public WeatherDataStatistics processCsvFile(Path file, String station, IngestProgress progress,
+                                                boolean resume) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long lineEnd = IngestCheckpointService.lastLineEnd(channel, size);
+            long offset = resume ? ingestCheckpointService.resumeOffset(file, station, channel, size) : 0;
+            if (offset > 0) {
+                System.out.println("Resuming " + file + " at byte " + offset + " of " + size);
             }
+            // A resumed load stops at the last newline; a trailing line may still be being written
+            long end = resume ? Math.max(offset, lineEnd) : size;
+            progress.setRange(offset, end - offset);
+            channel.position(offset);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new CountingInputStream(Channels.newInputStream(channel), progress, end - offset),
+                    StandardCharsets.UTF_8));
+            WeatherDataStatistics statistics = processCsvStreaming(reader, station, progress);
+            if (resume) {
+                ingestCheckpointService.record(file, station, channel, lineEnd);
+            }
+            return statistics;
+        }
+    }
 
-            WeatherData data = new WeatherData();
-
-            // Parse datetime_utc
-            data.setDatetimeUtc(LocalDateTime.parse(parts[0].trim(), dateTimeFormatter));
-
-            // Parse conditions
-            data.setConditions(parseString(parts[1]));
-
-            // Parse dewptm
-            data.setDewptm(parseDouble(parts[2]));
-
-            // Parse fog
-            data.setFog(parseInteger(parts[3]));
-
-            // Parse hail
-            data.setHail(parseInteger(parts[4]));
-
-            // Parse heatindexm
-            data.setHeatindexm(parseDouble(parts[5]));
-
-            // Parse humidity
-            data.setHumidity(parseInteger(parts[6]));
-
-            // Parse precipm
-            data.setPrecipm(parseDouble(parts[7]));
+    public WeatherDataStatistics processCsvStreaming(BufferedReader reader) throws Exception {
+        return processCsvStreaming(reader, WeatherData.DEFAULT_STATION, new IngestProgress());
+    }
 
-            // Parse pressurem - skip -9999 invalid values
-            Double pressure = parseDouble(parts[8]);
-            if (pressure != null && pressure != -9999) {
-                data.setPressurem(pressure);
+    /**
+     * Streams CSV rows into the database as above, counting parsed, rejected, persisted and
+     * skipped rows in {@code progress} as it goes. Statistics and the columnar snapshot only take
+     * in rows that were actually inserted. Several loads may run at once; with the columnar store
+     * enabled, each adds its rows to the segment of its station.
+     */
+    public WeatherDataStatistics processCsvStreaming(BufferedReader reader, String station,
+                                                     IngestProgress progress) throws Exception {
+        BlockingQueue<WeatherData> queue = new ArrayBlockingQueue<>(queueCapacity);
+        WeatherStatisticsAccumulator accumulator = new WeatherStatisticsAccumulator();
+        AtomicReference<Exception> writerFailure = new AtomicReference<>();
+        WeatherDataLineParser parser = new WeatherDataLineParser();
+        WeatherColumns.Builder columns = columnarWeatherStore.isEnabled() ? new WeatherColumns.Builder() : null;
+
+        AtomicBoolean writerStarted = new AtomicBoolean();
+        CountDownLatch writerDone = new CountDownLatch(1);
+        long started = System.nanoTime();
+        Future<?> writer = ingestWriterExecutor.submit(() -> {
+            writerStarted.set(true);
+            List<WeatherData> batch = new ArrayList<>(batchSize);
+            try {
+                WeatherData data;
+                while ((data = queue.take()) != END_OF_STREAM) {
+                    batch.add(data);
+                    if (batch.size() >= batchSize) {
+                        saveStreamedBatch(batch, progress, accumulator, columns);
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    saveStreamedBatch(batch, progress, accumulator, columns);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                writerFailure.compareAndSet(null, e);
+            } catch (Exception e) {
+                writerFailure.compareAndSet(null, e);
+            } finally {
+                writerDone.countDown();
             }
+        });
 
-            // Parse rain
-            data.setRain(parseInteger(parts[9]));
+        boolean endQueued = false;
+        try {
+            String line;
+            boolean isHeader = true;
 
-            // Parse snow
-            data.setSnow(parseInteger(parts[10]));
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
 
-            // Parse tempm
-            data.setTempm(parseDouble(parts[11]));
+                if (isHeader) {
+                    isHeader = false;
+                    // Data rows start with their timestamp; a resumed read starts on a data row instead
+                    if (!Character.isDigit(line.charAt(0))) {
+                        continue; // Skip header line
+                    }
+                }
+                WeatherData data = parser.parse(line);
+                if (data == null) {
+                    progress.rowRejected();
+                    continue;
+                }
+                data.setStation(station);
+                progress.rowParsed();
+                if (!enqueue(queue, data, writerFailure)) {
+                    break;
+                }
+            }
+            endQueued = enqueue(queue, END_OF_STREAM, writerFailure);
+        } finally {
+            // A reader that failed or was interrupted never queued the end, so the writer is stopped instead
+            if (!endQueued) {
+                writer.cancel(true);
+            }
+            // A writer cancelled before it started never runs
+            if (writerStarted.get() || !writer.isCancelled()) {
+                writerDone.await();
+            }
+        }
 
-            // Parse thunder
-            data.setThunder(parseInteger(parts[12]));
+        if (writerFailure.get() != null) {
+            throw new IllegalStateException("Streaming ingestion failed after "
+                    + accumulator.getTotalRecords() + " records", writerFailure.get());
+        }
 
-            // Parse tornado
-            data.setTornado(parseInteger(parts[13]));
+        if (columns != null) {
+            columnarWeatherStore.append(station, columns.build());
+        }
+        System.out.println("Streamed " + accumulator.getTotalRecords() + " records to database in batches of " + batchSize
+                + " " + formatThroughput(accumulator.getTotalRecords(), System.nanoTime() - started));
+        return accumulator.toStatistics();
+    }
 
-            // Parse visibility
-            data.setVisibility(parseDouble(parts[14]));
+    private void saveStreamedBatch(List<WeatherData> batch, IngestProgress progress,
+                                   WeatherStatisticsAccumulator accumulator, WeatherColumns.Builder columns) {
+        List<WeatherData> stored = saveBatch(batch);
+        progress.rowsPersisted(stored.size());
+        progress.rowsSkipped(batch.size() - stored.size());
+        for (WeatherData data : stored) {
+            accumulator.accept(data);
+            if (columns != null) {
+                columns.append(data);
+            }
+        }
+    }
 
-            // Parse wind direction degree
-            data.setWindDirection(parseInteger(parts[15]));
+    /**
+     * Hands a row to the writer, giving up once the writer has failed so the reader never
+     * blocks forever on a full queue.
+     */
+    private boolean enqueue(BlockingQueue<WeatherData> queue, WeatherData data,
+                            AtomicReference<Exception> writerFailure) throws InterruptedException {
+        while (writerFailure.get() == null) {
+            if (queue.offer(data, 100, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-            // Parse wind direction name
-            data.setWindDirectionName(parseString(parts[16]));
+    private BufferedReader openBundledCsvReader() throws IOException {
+        return new BufferedReader(new InputStreamReader(
+                new ClassPathResource("test/testset.csv").getInputStream(), StandardCharsets.UTF_8));
+    }
 
-            // Parse wind gust
-            data.setWindGustm(parseDouble(parts[17]));
+    /**
+     * Saves the rows in batches, skipping those already stored, and returns the rows inserted.
+     */
+    public List<WeatherData> saveWeatherDataToDatabase(List<WeatherData> weatherDataList) {
+        System.out.println("Saving " + weatherDataList.size() + " records to database...");
 
-            // Parse wind chill
-            data.setWindchillm(parseDouble(parts[18]));
+        long started = System.nanoTime();
+        List<WeatherData> stored = new ArrayList<>(weatherDataList.size());
+        for (int from = 0; from < weatherDataList.size(); from += batchSize) {
+            stored.addAll(saveBatch(weatherDataList.subList(from, Math.min(weatherDataList.size(), from + batchSize))));
+        }
+        System.out.println("Successfully saved " + stored.size() + " records to database "
+                + formatThroughput(weatherDataList.size(), System.nanoTime() - started));
+        if (stored.size() < weatherDataList.size()) {
+            System.out.println("Skipped " + (weatherDataList.size() - stored.size()) + " records already stored");
+        }
+        return stored;
+    }
 
-            // Parse wind speed
-            data.setWspdm(parseDouble(parts[19]));
+    /**
+     * Persists the rows of one batch that are not stored yet in their own transaction, either as a
+     * JDBC batch insert or through JPA with the persistence context flushed and cleared
+     * afterwards, then advances the dataset version. The rows are merged into the rollups in the
+     * same transaction. Two loads inserting the same rows or the same new rollup bucket at once
+     * make one of them fail on a unique key; its batch is retried, skipping what the other
+     * committed. Returns the rows inserted.
+     */
+    private List<WeatherData> saveBatch(List<WeatherData> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                List<WeatherData> inserted = transactionTemplate.execute(status -> {
+                    List<WeatherData> rows = withoutStoredRows(batch);
+                    if (rows.isEmpty()) {
+                        return rows;
+                    }
+                    weatherRollupService.addBatch(rows);
+                    if (jdbcBatchInsert) {
+                        weatherDataBulkRepository.insert(rows);
+                        return rows;
+                    }
+                    List<WeatherDataEntity> entities = new ArrayList<>(rows.size());
+                    for (WeatherData data : rows) {
+                        entities.add(toEntity(data));
+                    }
+                    weatherDataRepository.saveAllAndFlush(entities);
+                    entityManager.clear();
+                    for (int i = 0; i < rows.size(); i++) {
+                        rows.get(i).setId(entities.get(i).getId());
+                    }
+                    return rows;
+                });
+                if (!inserted.isEmpty()) {
+                    datasetVersion.bump();
+                }
+                return inserted;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_BATCH_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
 
-            return data;
-        } catch (Exception e) {
-            System.err.println("Error parsing line: " + line + " - " + e.getMessage());
-            return null;
+    /**
+     * Drops the rows whose station already has an observation at their time, or that repeat an
+     * earlier row of the batch. Stored times are probed with one range query per station over
+     * the batch's time span, so a batch past everything stored costs a single empty index scan.
+     */
+    private List<WeatherData> withoutStoredRows(List<WeatherData> batch) {
+        Map<Integer, LocalDateTime[]> spans = new HashMap<>();
+        for (WeatherData data : batch) {
+            LocalDateTime[] span = spans.computeIfAbsent(weatherStationDictionary.resolve(data.getStation()),
+                    stationId -> new LocalDateTime[]{data.getDatetimeUtc(), data.getDatetimeUtc()});
+            if (data.getDatetimeUtc().isBefore(span[0])) {
+                span[0] = data.getDatetimeUtc();
+            } else if (data.getDatetimeUtc().isAfter(span[1])) {
+                span[1] = data.getDatetimeUtc();
+            }
+        }
+        Map<Integer, Set<LocalDateTime>> seen = new HashMap<>();
+        for (Map.Entry<Integer, LocalDateTime[]> span : spans.entrySet()) {
+            seen.put(span.getKey(), new HashSet<>(weatherDataBulkRepository.findStoredTimes(span.getKey(),
+                    span.getValue()[0], span.getValue()[1])));
         }
+        List<WeatherData> rows = new ArrayList<>(batch.size());
+        for (WeatherData data : batch) {
+            if (seen.get(weatherStationDictionary.resolve(data.getStation())).add(data.getDatetimeUtc())) {
+                rows.add(data);
+            }
+        }
+        return rows;
     }
 
-    private String parseString(String value) {
-        String trimmed = value.trim();
-        return trimmed.isEmpty() ? null : trimmed;
+    private static String formatThroughput(long rows, long elapsedNanos) {
+        double seconds = Math.max(elapsedNanos, 1) / 1_000_000_000.0;
+        return String.format("in %.2f s (%.0f rows/sec)", seconds, rows / seconds);
     }
 
-    private Double parseDouble(String value) {
-        String trimmed = value.trim();
-        if (trimmed.isEmpty()) {
-            return null;
+    /**
+     * Reads at most {@code limit} bytes of the underlying stream, adding them to the load's progress.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final IngestProgress progress;
+        private long remaining;
+
+        private CountingInputStream(InputStream in, IngestProgress progress, long limit) {
+            super(in);
+            this.progress = progress;
+            this.remaining = limit;
         }
-        try {
-            return Double.parseDouble(trimmed);
-        } catch (NumberFormatException e) {
-            return null;
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+                progress.addBytesRead(1);
+            }
+            return b;
         }
-    }
 
-    private Integer parseInteger(String value) {
-        String trimmed = value.trim();
-        if (trimmed.isEmpty()) {
-            return null;
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = super.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+                progress.addBytesRead(read);
+            }
+            return read;
         }
-        try {
-            return Integer.parseInt(trimmed);
-        } catch (NumberFormatException e) {
-            return null;
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
         }
     }
 
+    private WeatherDataEntity toEntity(WeatherData data) {
+        WeatherDataEntity entity = new WeatherDataEntity(
+                data.getDatetimeUtc(),
+                data.getConditions(),
+                data.getDewptm(),
+                data.getFog(),
+                data.getHail(),
+                data.getHeatindexm(),
+                data.getHumidity(),
+                data.getPrecipm(),
+                data.getPerssurem(),
+                data.getRain(),
+                data.getSnow(),
+                data.getTempm(),
+                data.getThunder(),
+                data.getTornado(),
+                data.getVisibility(),
+                data.getWindDirection(),
+                data.getWindDirectionName(),
+                data.getWindGustm(),
+                data.getWindchillm(),
+                data.getWspdm()
+        );
+        entity.setStation(data.getStation());
+        entity.setStationId(weatherStationDictionary.resolve(data.getStation()));
+        entity.setConditionId(weatherConditionDictionary.resolve(data.getConditions()));
+        return entity;
+    }
+
+    /**
+     * Computes the statistics of the given rows. Lists of more than the parallel threshold are
+     * split into ranges of at most the leaf size, aggregated in parallel on the common fork-join
+     * pool and merged.
+     */
     public WeatherDataStatistics analyzeWeatherData(List<WeatherData> dataList) {
-        WeatherDataStatistics stats = new WeatherDataStatistics();
-
-        stats.setTotalRecords(dataList.size());
-
-        // Calculate temperature statistics
-        Double avgTemp = dataList.stream()
-                .filter(d -> d.getTempm() != null)
-                .mapToDouble(WeatherData::getTempm)
-                .average()
-                .orElse(0.0);
-        stats.setAvgTemperature(avgTemp);
-
-        Double maxTemp = dataList.stream()
-                .filter(d -> d.getTempm() != null)
-                .mapToDouble(WeatherData::getTempm)
-                .max()
-                .orElse(0.0);
-        stats.setMaxTemperature(maxTemp);
-
-        Double minTemp = dataList.stream()
-                .filter(d -> d.getTempm() != null)
-                .mapToDouble(WeatherData::getTempm)
-                .min()
-                .orElse(0.0);
-        stats.setMinTemperature(minTemp);
-
-        // Calculate humidity statistics
-        Double avgHumidity = dataList.stream()
-                .filter(d -> d.getHumidity() != null)
-                .mapToDouble(WeatherData::getHumidity)
-                .average()
-                .orElse(0.0);
-        stats.setAvgHumidity(avgHumidity);
-
-        // Count weather conditions
-        long rainCount = dataList.stream().filter(d -> d.getRain() != null && d.getRain() == 1).count();
-        stats.setRainCount(rainCount);
-
-        long snowCount = dataList.stream().filter(d -> d.getSnow() != null && d.getSnow() == 1).count();
-        stats.setSnowCount(snowCount);
-
-        long thunderCount = dataList.stream().filter(d -> d.getThunder() != null && d.getThunder() == 1).count();
-        stats.setThunderCount(thunderCount);
-
-        long fogCount = dataList.stream().filter(d -> d.getFog() != null && d.getFog() == 1).count();
-        stats.setFogCount(fogCount);
-
-        return stats;
+        if (parallelThreshold > 0 && dataList.size() > parallelThreshold) {
+            return WeatherStatisticsTask.aggregate(dataList, leafSize).toStatistics();
+        }
+        return dataList.stream()
+                .collect(WeatherStatisticsAccumulator.collector())
+                .toStatistics();
     }
 }
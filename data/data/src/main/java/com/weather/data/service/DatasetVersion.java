@@ -0,0 +1,44 @@
+package com.weather.data.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generation number of the stored weather data, advanced whenever ingestion commits new rows.
+ * Anything derived from the data can remember the generation it was computed at and treat itself
+ * as stale once the generation moves on.
+ */
+@Component
+public class DatasetVersion {
+
+    // The generation restarts at 0 on every boot, so it is only unique together with this id
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile long lastModified = System.currentTimeMillis();
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Version tag that is unique across restarts: the instance id of this boot plus the generation.
+     * Use it wherever the version leaves the process, e.g. in entity tags.
+     */
+    public String getTag() {
+        return instanceId + "-" + generation.get();
+    }
+
+    /**
+     * Time of the last change, in epoch milliseconds.
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public void bump() {
+        lastModified = System.currentTimeMillis();
+        generation.incrementAndGet();
+    }
+}
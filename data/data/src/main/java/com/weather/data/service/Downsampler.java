@@ -0,0 +1,216 @@
+package com.weather.data.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reduces a time-ordered series to at most a target number of points in one pass, for charting.
+ * The time range is split into equal-width buckets up front, so points can be assigned to buckets
+ * as they stream in without knowing how many there will be.
+ *
+ * LTTB (Largest-Triangle-Three-Buckets) keeps the first and last points and, per bucket, the point
+ * forming the largest triangle with the previously kept point and the average of the next bucket;
+ * only the current and the next bucket are buffered. MINMAX keeps the lowest and highest point of
+ * each bucket, preserving spikes exactly, and buffers nothing.
+ */
+public class Downsampler {
+
+    public enum Mode {
+        LTTB,
+        MINMAX;
+
+        public static Mode fromString(String mode) {
+            try {
+                return valueOf(mode.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported downsampling mode: " + mode + " (lttb|minmax)");
+            }
+        }
+    }
+
+    /**
+     * One sample; x is the time in epoch seconds.
+     */
+    public static final class Point {
+        private final long x;
+        private final double y;
+
+        public Point(long x, double y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        public long getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+    }
+
+    private final Mode mode;
+    private final long start;
+    private final long span;
+    private final int bucketCount;
+    private final List<Point> output = new ArrayList<>();
+    private long inputCount;
+
+    // LTTB state: last kept point, the point held back in case it is the final one, and two buckets
+    private Point anchor;
+    private Point pending;
+    private List<Point> current = new ArrayList<>();
+    private int currentBucket = -1;
+    private List<Point> next = new ArrayList<>();
+    private int nextBucket = -1;
+
+    // MINMAX state
+    private int minMaxBucket = -1;
+    private Point bucketMin;
+    private Point bucketMax;
+
+    /**
+     * @param start  first time of the range, epoch seconds
+     * @param end    last time of the range, epoch seconds
+     * @param points maximum number of points to return
+     */
+    public Downsampler(Mode mode, long start, long end, int points) {
+        if (points < 3) {
+            throw new IllegalArgumentException("points must be at least 3");
+        }
+        this.mode = mode;
+        this.start = start;
+        this.span = Math.max(1, end - start + 1);
+        this.bucketCount = mode == Mode.LTTB ? points - 2 : points / 2;
+    }
+
+    public void accept(long x, double y) {
+        inputCount++;
+        Point point = new Point(x, y);
+        if (mode == Mode.MINMAX) {
+            acceptMinMax(point);
+            return;
+        }
+        if (anchor == null) {
+            anchor = point;
+            output.add(point);
+            return;
+        }
+        if (pending != null) {
+            addToBuckets(pending);
+        }
+        pending = point;
+    }
+
+    /**
+     * Flushes the buffered buckets and returns the downsampled series in time order.
+     */
+    public List<Point> finish() {
+        if (mode == Mode.MINMAX) {
+            emitMinMax();
+            return output;
+        }
+        if (pending == null) {
+            return output;
+        }
+        if (!current.isEmpty()) {
+            output.add(anchor = select(current, next.isEmpty() ? pending : average(next)));
+        }
+        if (!next.isEmpty()) {
+            output.add(select(next, pending));
+        }
+        output.add(pending);
+        return output;
+    }
+
+    public long getInputCount() {
+        return inputCount;
+    }
+
+    private int bucketOf(long x) {
+        long offset = Math.min(Math.max(x - start, 0), span - 1);
+        return (int) (offset * bucketCount / span);
+    }
+
+    private void addToBuckets(Point point) {
+        int bucket = bucketOf(point.x);
+        if (current.isEmpty() || bucket == currentBucket) {
+            currentBucket = bucket;
+            current.add(point);
+            return;
+        }
+        if (next.isEmpty() || bucket == nextBucket) {
+            nextBucket = bucket;
+            next.add(point);
+            return;
+        }
+        // A third bucket started, so the next bucket is complete and the current one can be decided
+        output.add(anchor = select(current, average(next)));
+        List<Point> recycled = current;
+        recycled.clear();
+        current = next;
+        currentBucket = nextBucket;
+        next = recycled;
+        nextBucket = bucket;
+        next.add(point);
+    }
+
+    private Point select(List<Point> bucket, Point following) {
+        Point best = bucket.get(0);
+        double bestArea = -1;
+        for (Point candidate : bucket) {
+            double area = Math.abs((anchor.x - following.x) * (candidate.y - anchor.y)
+                    - (double) (anchor.x - candidate.x) * (following.y - anchor.y));
+            if (area > bestArea) {
+                bestArea = area;
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private static Point average(List<Point> bucket) {
+        double x = 0;
+        double y = 0;
+        for (Point point : bucket) {
+            x += point.x;
+            y += point.y;
+        }
+        return new Point(Math.round(x / bucket.size()), y / bucket.size());
+    }
+
+    private void acceptMinMax(Point point) {
+        int bucket = bucketOf(point.x);
+        if (bucket != minMaxBucket) {
+            emitMinMax();
+            minMaxBucket = bucket;
+            bucketMin = point;
+            bucketMax = point;
+            return;
+        }
+        if (point.y < bucketMin.y) {
+            bucketMin = point;
+        }
+        if (point.y > bucketMax.y) {
+            bucketMax = point;
+        }
+    }
+
+    private void emitMinMax() {
+        if (bucketMin == null) {
+            return;
+        }
+        if (bucketMin == bucketMax) {
+            output.add(bucketMin);
+        } else if (bucketMin.x <= bucketMax.x) {
+            output.add(bucketMin);
+            output.add(bucketMax);
+        } else {
+            output.add(bucketMax);
+            output.add(bucketMin);
+        }
+        bucketMin = null;
+        bucketMax = null;
+    }
+}
@@ -0,0 +1,99 @@
+package com.weather.data.service;
+
+import com.weather.data.entity.IngestCheckpointEntity;
+import com.weather.data.repository.IngestCheckpointRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Remembers how far each CSV file has been loaded so an appended file is read from where the
+ * previous load stopped. Rows already stored are skipped on insert anyway; the checkpoint only
+ * saves reading and parsing them again.
+ */
+@Service
+public class IngestCheckpointService {
+
+    private static final int FINGERPRINT_BYTES = 4096;
+    private static final int SCAN_BLOCK_SIZE = 8192;
+
+    @Autowired
+    private IngestCheckpointRepository ingestCheckpointRepository;
+
+    /**
+     * Offset to start the next load of {@code file} from: the end of the last complete line read
+     * by the previous load, or 0 when the file has not been loaded for the station, has shrunk or
+     * no longer starts with the bytes it had.
+     */
+    public long resumeOffset(Path file, String station, FileChannel channel, long size) throws IOException {
+        Optional<IngestCheckpointEntity> found = ingestCheckpointRepository.findBySourceAndStation(source(file), station);
+        if (!found.isPresent()) {
+            return 0;
+        }
+        IngestCheckpointEntity checkpoint = found.get();
+        if (checkpoint.getByteOffset() > size
+                || fingerprint(channel, checkpoint.getFingerprintLength()) != checkpoint.getFingerprint()) {
+            System.out.println("Checkpoint of " + file + " no longer matches the file; reading it from the start");
+            return 0;
+        }
+        return checkpoint.getByteOffset();
+    }
+
+    public void record(Path file, String station, FileChannel channel, long byteOffset) throws IOException {
+        IngestCheckpointEntity checkpoint = ingestCheckpointRepository.findBySourceAndStation(source(file), station)
+                .orElseGet(() -> new IngestCheckpointEntity(source(file), station));
+        int fingerprintLength = (int) Math.min(FINGERPRINT_BYTES, byteOffset);
+        checkpoint.update(byteOffset, fingerprint(channel, fingerprintLength), fingerprintLength);
+        ingestCheckpointRepository.save(checkpoint);
+    }
+
+    /**
+     * Offset just past the last newline within the first {@code size} bytes, or 0 if there is none.
+     * A trailing line without a newline may still be being written, so it is read again next time.
+     */
+    public static long lastLineEnd(FileChannel channel, long size) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(SCAN_BLOCK_SIZE);
+        long end = size;
+        while (end > 0) {
+            long start = Math.max(0, end - SCAN_BLOCK_SIZE);
+            block.clear();
+            block.limit((int) (end - start));
+            readFully(channel, block, start);
+            for (int i = block.limit() - 1; i >= 0; i--) {
+                if (block.get(i) == '\n') {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    private static long fingerprint(FileChannel channel, int length) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(length);
+        readFully(channel, head, 0);
+        CRC32 crc = new CRC32();
+        crc.update(head.array(), 0, length);
+        return crc.getValue();
+    }
+
+    // Positional reads leave the channel position where the loader put it
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of file at offset " + (position + buffer.position()));
+            }
+        }
+    }
+
+    private static String source(Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+}
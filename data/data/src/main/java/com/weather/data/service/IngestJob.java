@@ -0,0 +1,134 @@
+package com.weather.data.service;
+
+import java.time.Instant;
+
+/**
+ * One CSV load submitted through the ingest API, with its state, timing and progress. Throughput
+ * and the ETA are derived from the bytes read so far against the bytes the load has to read.
+ */
+public class IngestJob {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final String source;
+    private final String station;
+    private final Instant submittedAt = Instant.now();
+    private final IngestProgress progress = new IngestProgress();
+
+    private volatile State state = State.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+    private volatile String error;
+
+    public IngestJob(String id, String source, String station) {
+        this.id = id;
+        this.source = source;
+        this.station = station;
+    }
+
+    void start() {
+        startedNanos = System.nanoTime();
+        startedAt = Instant.now();
+        state = State.RUNNING;
+    }
+
+    void complete() {
+        finish(State.COMPLETED);
+    }
+
+    void fail(Exception e) {
+        error = e.getCause() != null ? e.getMessage() + ": " + e.getCause().getMessage() : e.getMessage();
+        finish(State.FAILED);
+    }
+
+    private void finish(State finalState) {
+        finishedNanos = System.nanoTime();
+        finishedAt = Instant.now();
+        state = finalState;
+    }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getStation() {
+        return station;
+    }
+
+    public IngestProgress getProgress() {
+        return progress;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public double getElapsedSeconds() {
+        if (state == State.QUEUED) {
+            return 0.0;
+        }
+        long end = isFinished() ? finishedNanos : System.nanoTime();
+        return Math.max(end - startedNanos, 1) / 1_000_000_000.0;
+    }
+
+    /**
+     * Fraction of the bytes this load reads that have been read so far, between 0 and 1.
+     */
+    public double getFractionRead() {
+        if (state == State.COMPLETED) {
+            return 1.0;
+        }
+        long totalBytes = progress.getTotalBytes();
+        return totalBytes > 0 ? Math.min(1.0, progress.getBytesRead() / (double) totalBytes) : 0.0;
+    }
+
+    public double getRowsPerSecond() {
+        double elapsed = getElapsedSeconds();
+        return elapsed > 0 ? progress.getRowsPersisted() / elapsed : 0.0;
+    }
+
+    /**
+     * Seconds until the whole file is read at the rate seen so far, or null before there is a rate.
+     */
+    public Double getEtaSeconds() {
+        if (isFinished()) {
+            return 0.0;
+        }
+        long bytesRead = progress.getBytesRead();
+        long totalBytes = progress.getTotalBytes();
+        if (state != State.RUNNING || bytesRead == 0 || totalBytes <= 0) {
+            return null;
+        }
+        double bytesPerSecond = bytesRead / getElapsedSeconds();
+        return Math.max(0, totalBytes - bytesRead) / bytesPerSecond;
+    }
+}
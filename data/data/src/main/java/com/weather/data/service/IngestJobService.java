@@ -0,0 +1,87 @@
+package com.weather.data.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs CSV loads submitted through the ingest API as background jobs on the ingest executor and
+ * keeps their progress for polling. Each job streams its file through
+ * {@link CsvProcessorService#processCsvFile}; server files resume from their checkpoint.
+ */
+@Service
+public class IngestJobService {
+
+    // Finished jobs are forgotten once this many jobs are tracked
+    private static final int MAX_JOBS = 100;
+
+    private final Map<String, IngestJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    private CsvProcessorService csvProcessorService;
+
+    @Autowired
+    private TaskExecutor ingestJobExecutor;
+
+    /**
+     * Queues a load of {@code file} as observations of {@code station}. With
+     * {@code deleteWhenDone} the file is removed once the job finishes, as for uploads spooled to
+     * a temporary file; other files are checkpointed so loading them again only reads new rows.
+     */
+    public IngestJob submit(Path file, String source, String station, boolean deleteWhenDone) {
+        IngestJob job = new IngestJob(UUID.randomUUID().toString(), source, station);
+        if (jobs.size() >= MAX_JOBS) {
+            jobs.values().removeIf(IngestJob::isFinished);
+        }
+        jobs.put(job.getId(), job);
+        ingestJobExecutor.execute(() -> run(job, file, deleteWhenDone));
+        return job;
+    }
+
+    public IngestJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * All tracked jobs, most recently submitted first.
+     */
+    public List<IngestJob> getJobs() {
+        List<IngestJob> result = new ArrayList<>(jobs.values());
+        result.sort(Comparator.comparing(IngestJob::getSubmittedAt).reversed());
+        return result;
+    }
+
+    private void run(IngestJob job, Path file, boolean deleteWhenDone) {
+        job.start();
+        System.out.println("Ingest job " + job.getId() + " started for " + job.getSource());
+        try {
+            csvProcessorService.processCsvFile(file, job.getStation(), job.getProgress(), !deleteWhenDone);
+            job.complete();
+            System.out.println("Ingest job " + job.getId() + " persisted " + job.getProgress().getRowsPersisted()
+                    + " records, skipped " + job.getProgress().getRowsSkipped()
+                    + ", rejected " + job.getProgress().getRowsRejected()
+                    + String.format(" in %.2f s (%.0f rows/sec)", job.getElapsedSeconds(), job.getRowsPerSecond()));
+        } catch (Exception e) {
+            job.fail(e);
+            System.err.println("Ingest job " + job.getId() + " failed: " + job.getError());
+        } finally {
+            if (deleteWhenDone) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    System.err.println("Could not delete " + file + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.weather.data.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live counters of one CSV load, updated by the reader and writer threads and safe to read
+ * while the load is running.
+ */
+public class IngestProgress {
+
+    private volatile long startOffset;
+    private volatile long totalBytes;
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final AtomicLong rowsPersisted = new AtomicLong();
+    private final AtomicLong rowsSkipped = new AtomicLong();
+
+    /**
+     * Sets the part of the file this load reads: {@code totalBytes} bytes from {@code startOffset}.
+     */
+    public void setRange(long startOffset, long totalBytes) {
+        this.startOffset = startOffset;
+        this.totalBytes = totalBytes;
+    }
+
+    public void addBytesRead(long bytes) {
+        bytesRead.addAndGet(bytes);
+    }
+
+    public void rowParsed() {
+        rowsParsed.incrementAndGet();
+    }
+
+    public void rowRejected() {
+        rowsRejected.incrementAndGet();
+    }
+
+    public void rowsPersisted(int rows) {
+        rowsPersisted.addAndGet(rows);
+    }
+
+    public void rowsSkipped(int rows) {
+        rowsSkipped.addAndGet(rows);
+    }
+
+    public long getStartOffset() {
+        return startOffset;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    public long getRowsParsed() {
+        return rowsParsed.get();
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected.get();
+    }
+
+    public long getRowsPersisted() {
+        return rowsPersisted.get();
+    }
+
+    /**
+     * Rows not inserted because the station already has an observation at their time.
+     */
+    public long getRowsSkipped() {
+        return rowsSkipped.get();
+    }
+}
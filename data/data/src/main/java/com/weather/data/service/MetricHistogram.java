@@ -0,0 +1,93 @@
+package com.weather.data.service;
+
+import com.weather.data.entity.HistogramMetric;
+import com.weather.data.model.WeatherData;
+
+/**
+ * Fixed-bin histogram of one metric, used as a quantile sketch. Memory is bounded by the bin
+ * count of the metric whatever the number of readings, and histograms built over separate chunks
+ * or time buckets merge exactly by adding counts. Quantiles are reported as the lower bound of the
+ * bin holding the requested rank, so they are exact for readings with at most the bin resolution
+ * and otherwise at most one bin width low.
+ */
+public class MetricHistogram {
+    private final HistogramMetric metric;
+    private final long[] counts;
+    private long count;
+
+    public MetricHistogram(HistogramMetric metric) {
+        this.metric = metric;
+        this.counts = new long[metric.getBinCount()];
+    }
+
+    public void accept(double value) {
+        counts[metric.bin(value)]++;
+        count++;
+    }
+
+    /**
+     * Adds the observation's reading of the metric, if it has one.
+     */
+    public void accept(WeatherData data) {
+        Number value;
+        switch (metric) {
+            case TEMPERATURE:
+                value = data.getTempm();
+                break;
+            case HUMIDITY:
+                value = data.getHumidity();
+                break;
+            default:
+                value = data.getWspdm();
+        }
+        if (value != null) {
+            accept(value.doubleValue());
+        }
+    }
+
+    public void add(int bin, long binCount) {
+        counts[bin] += binCount;
+        count += binCount;
+    }
+
+    public MetricHistogram merge(MetricHistogram other) {
+        if (other.metric != metric) {
+            throw new IllegalArgumentException("Cannot merge a " + other.metric + " histogram into a " + metric + " histogram");
+        }
+        for (int bin = 0; bin < counts.length; bin++) {
+            counts[bin] += other.counts[bin];
+        }
+        count += other.count;
+        return this;
+    }
+
+    public HistogramMetric getMetric() {
+        return metric;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getCount(int bin) {
+        return counts[bin];
+    }
+
+    /**
+     * Nearest-rank quantile for {@code q} in [0, 1], or null for an empty histogram.
+     */
+    public Double quantile(double q) {
+        if (count == 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        long seen = 0;
+        for (int bin = 0; bin < counts.length; bin++) {
+            seen += counts[bin];
+            if (seen >= rank) {
+                return metric.lowerBound(bin);
+            }
+        }
+        return metric.lowerBound(counts.length - 1);
+    }
+}
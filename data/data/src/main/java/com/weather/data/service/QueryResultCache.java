@@ -0,0 +1,134 @@
+package com.weather.data.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Caches read-only endpoint responses keyed on the {@link DatasetVersion} generation, the endpoint
+ * and its normalized parameters. Bumping the generation makes every older entry unreachable at
+ * once; they are then dropped on the next lookup. Entries are weighed by the rows they hold and
+ * also expire after {@code weather.cache.ttl-seconds}. Row counts of filters, which paged
+ * responses compute while they are loaded, are kept in a second cache under the same rules.
+ */
+@Component
+public class QueryResultCache {
+
+    private static final int MAX_COUNTS = 1024;
+
+    private final boolean enabled;
+    private final Cache<String, Object> cache;
+    // Separate, since a cache must not be updated from inside one of its own loaders
+    private final Cache<String, Long> counts;
+    private final AtomicLong cachedGeneration = new AtomicLong(-1);
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    @Autowired
+    public QueryResultCache(@Value("${weather.cache.enabled:true}") boolean enabled,
+                            @Value("${weather.cache.maximum-weight:100000}") long maximumWeight,
+                            @Value("${weather.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((String key, Object value) -> weigh(value))
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(MAX_COUNTS)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Returns the cached result for the endpoint and parameters, computing it at most once per
+     * dataset generation; concurrent requests for the same key wait for a single computation.
+     * Results must not be modified after they are returned.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String endpoint, String parameters, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        long generation = currentGeneration();
+        return (T) cache.get(generation + "|" + endpoint + "|" + parameters, key -> loader.get());
+    }
+
+    /**
+     * Returns the row count of a normalized filter, counting it at most once per dataset generation.
+     * Unlike {@link #get}, this may be called from inside the loader of a cached response.
+     */
+    public long count(String filterKey, LongSupplier counter) {
+        if (!enabled) {
+            return counter.getAsLong();
+        }
+        long generation = currentGeneration();
+        return counts.get(generation + "|" + filterKey, key -> counter.getAsLong());
+    }
+
+    /**
+     * Reads the dataset generation, dropping every entry of older generations when it has moved on.
+     * A caller that read an older generation than another one never drops the newer entries.
+     */
+    private long currentGeneration() {
+        // The generation is read before loading, so a result racing an ingest is filed under the old generation
+        long generation = datasetVersion.getGeneration();
+        long previous = cachedGeneration.getAndAccumulate(generation, Math::max);
+        if (previous < generation && previous != -1) {
+            cache.invalidateAll();
+            counts.invalidateAll();
+        }
+        return generation;
+    }
+
+    public Map<String, Object> getStatistics() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("enabled", enabled);
+        statistics.put("generation", datasetVersion.getGeneration());
+        statistics.put("entries", cache.estimatedSize());
+        cache.policy().eviction().ifPresent(eviction -> {
+            statistics.put("weight", eviction.weightedSize().orElse(0L));
+            statistics.put("maximumWeight", eviction.getMaximum());
+        });
+        statistics.put("hitCount", stats.hitCount());
+        statistics.put("missCount", stats.missCount());
+        statistics.put("hitRate", stats.hitRate());
+        statistics.put("evictionCount", stats.evictionCount());
+        statistics.put("evictionWeight", stats.evictionWeight());
+        statistics.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        statistics.put("countEntries", counts.estimatedSize());
+        return statistics;
+    }
+
+    /**
+     * Approximates the size of a response by the number of rows it holds: one for the response
+     * itself plus the size of every collection or map directly inside it.
+     */
+    static int weigh(Object value) {
+        int weight = 1;
+        if (value instanceof Map) {
+            for (Object field : ((Map<?, ?>) value).values()) {
+                if (field instanceof Collection) {
+                    weight += ((Collection<?>) field).size();
+                } else if (field instanceof Map) {
+                    weight += ((Map<?, ?>) field).size();
+                }
+            }
+        }
+        return weight;
+    }
+}
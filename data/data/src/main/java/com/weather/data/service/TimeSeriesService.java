@@ -0,0 +1,77 @@
+package com.weather.data.service;
+
+import com.weather.data.repository.NameIdDictionary;
+import com.weather.data.repository.WeatherDataRepository;
+import com.weather.data.repository.WeatherStationDictionary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Downsamples one numeric column over a time range for charting, streaming the rows in time order
+ * through a {@link Downsampler} so memory stays bounded by the target point count.
+ */
+@Service
+public class TimeSeriesService {
+
+    public static final List<String> METRICS = Collections.unmodifiableList(Arrays.asList(
+            "tempm", "dewptm", "heatindexm", "windchillm", "humidity", "precipm", "pressurem", "visibility",
+            "wspdm", "windGustm"));
+
+    @Autowired
+    private WeatherDataRepository weatherDataRepository;
+
+    @Autowired
+    private WeatherStationDictionary weatherStationDictionary;
+
+    @Value("${weather.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Downsamples {@code metric} of one station, or of every station when the station is blank,
+     * between start and end (inclusive); a missing bound defaults to the first or last observation.
+     */
+    @Transactional(readOnly = true)
+    public Downsampler downsample(String metric, String station, LocalDateTime start, LocalDateTime end, int points,
+                                  Downsampler.Mode mode) {
+        if (!METRICS.contains(metric)) {
+            throw new IllegalArgumentException("Unsupported metric: " + metric + " (" + String.join("|", METRICS) + ")");
+        }
+        Integer stationId = null;
+        if (NameIdDictionary.lookupKey(station) != null) {
+            stationId = weatherStationDictionary.findId(station);
+            if (stationId == null) {
+                return new Downsampler(mode, 0, 0, points);
+            }
+        }
+        if (start == null || end == null) {
+            LocalDateTime[] range = weatherDataRepository.findTimeRange(stationId);
+            start = start != null ? start : range[0];
+            end = end != null ? end : range[1];
+        }
+
+        if (start == null || end == null) {
+            return new Downsampler(mode, 0, 0, points);
+        }
+        Downsampler downsampler = new Downsampler(mode, start.toEpochSecond(ZoneOffset.UTC),
+                end.toEpochSecond(ZoneOffset.UTC), points);
+        try (Stream<Object[]> rows = weatherDataRepository.streamSeries(metric, stationId, start, end, fetchSize)) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                downsampler.accept(((LocalDateTime) row[0]).toEpochSecond(ZoneOffset.UTC),
+                        ((Number) row[1]).doubleValue());
+            }
+        }
+        return downsampler;
+    }
+}
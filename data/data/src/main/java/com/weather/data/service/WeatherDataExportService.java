@@ -0,0 +1,179 @@
+package com.weather.data.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.weather.data.entity.WeatherDataEntity;
+import com.weather.data.repository.WeatherDataRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Writes query results straight to an output stream as NDJSON or CSV. Rows are read through a
+ * database cursor and detached once written, so memory use does not grow with the result size;
+ * the output is flushed every {@code weather.export.flush-rows} rows so the client receives data
+ * as it is produced and a slow client holds back the cursor instead of filling the heap.
+ */
+@Service
+public class WeatherDataExportService {
+
+    private static final String CSV_HEADER = "id,station,datetimeUtc,conditions,conditionId,dewptm,fog,hail,heatindexm,"
+            + "humidity,precipm,pressurem,rain,snow,tempm,thunder,tornado,visibility,windDirection,"
+            + "windDirectionName,windGustm,windchillm,wspdm";
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public static Format fromString(String format) {
+            try {
+                return valueOf(format.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + format + " (ndjson|csv)");
+            }
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    @Autowired
+    private WeatherDataRepository weatherDataRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${weather.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${weather.export.flush-rows:1000}")
+    private int flushRows;
+
+    @Autowired
+    public WeatherDataExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Exports every row matching the specification in the given order and returns the row count.
+     */
+    public long export(Specification<WeatherDataEntity> spec, Sort sort, Format format, OutputStream output) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        ObjectWriter jsonWriter = objectMapper.writerFor(WeatherDataEntity.class);
+        Long rows = readOnlyTransaction.execute(status -> {
+            try (Stream<WeatherDataEntity> stream = weatherDataRepository.streamAll(spec, sort, fetchSize)) {
+                if (format == Format.CSV) {
+                    writer.write(CSV_HEADER);
+                    writer.write('\n');
+                }
+                long count = 0;
+                Iterator<WeatherDataEntity> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    WeatherDataEntity entity = iterator.next();
+                    if (format == Format.CSV) {
+                        writeCsvRow(writer, entity);
+                    } else {
+                        writer.write(jsonWriter.writeValueAsString(entity));
+                        writer.write('\n');
+                    }
+                    entityManager.detach(entity);
+                    if (++count % flushRows == 0) {
+                        writer.flush();
+                    }
+                }
+                writer.flush();
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return rows != null ? rows : 0;
+    }
+
+    private static void writeCsvRow(Writer writer, WeatherDataEntity entity) throws IOException {
+        writer.write(String.valueOf(entity.getId()));
+        writeCsvText(writer, entity.getStation());
+        writeCsvValue(writer, DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(entity.getDatetimeUtc()));
+        writeCsvText(writer, entity.getConditions());
+        writeCsvValue(writer, entity.getConditionId());
+        writeCsvValue(writer, entity.getDewptm());
+        writeCsvValue(writer, entity.getFog());
+        writeCsvValue(writer, entity.getHail());
+        writeCsvValue(writer, entity.getHeatindexm());
+        writeCsvValue(writer, entity.getHumidity());
+        writeCsvValue(writer, entity.getPrecipm());
+        writeCsvValue(writer, entity.getPressurem());
+        writeCsvValue(writer, entity.getRain());
+        writeCsvValue(writer, entity.getSnow());
+        writeCsvValue(writer, entity.getTempm());
+        writeCsvValue(writer, entity.getThunder());
+        writeCsvValue(writer, entity.getTornado());
+        writeCsvValue(writer, entity.getVisibility());
+        writeCsvValue(writer, entity.getWindDirection());
+        writeCsvText(writer, entity.getWindDirectionName());
+        writeCsvValue(writer, entity.getWindGustm());
+        writeCsvValue(writer, entity.getWindchillm());
+        writeCsvValue(writer, entity.getWspdm());
+        writer.write('\n');
+    }
+
+    // Missing values are written as empty fields
+    private static void writeCsvValue(Writer writer, Object value) throws IOException {
+        writer.write(',');
+        if (value != null) {
+            writer.write(value.toString());
+        }
+    }
+
+    private static void writeCsvText(Writer writer, String value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(value);
+        }
+    }
+}
@@ -5,11 +5,18 @@ public class WeatherDataStatistics {
     private Double avgTemperature;
     private Double maxTemperature;
     private Double minTemperature;
+    private Double temperatureStdDev;
+    private long missingTemperatureCount;
     private Double avgHumidity;
+    private Double humidityStdDev;
+    private long missingHumidityCount;
     private long rainCount;
     private long snowCount;
     private long thunderCount;
     private long fogCount;
+    private Percentiles temperaturePercentiles;
+    private Percentiles humidityPercentiles;
+    private Percentiles windSpeedPercentiles;
 
     public WeatherDataStatistics() {
     }
@@ -46,6 +53,22 @@ public class WeatherDataStatistics {
         this.minTemperature = minTemperature;
     }
 
+    public Double getTemperatureStdDev() {
+        return temperatureStdDev;
+    }
+
+    public void setTemperatureStdDev(Double temperatureStdDev) {
+        this.temperatureStdDev = temperatureStdDev;
+    }
+
+    public long getMissingTemperatureCount() {
+        return missingTemperatureCount;
+    }
+
+    public void setMissingTemperatureCount(long missingTemperatureCount) {
+        this.missingTemperatureCount = missingTemperatureCount;
+    }
+
     public Double getAvgHumidity() {
         return avgHumidity;
     }
@@ -54,6 +77,22 @@ public class WeatherDataStatistics {
         this.avgHumidity = avgHumidity;
     }
 
+    public Double getHumidityStdDev() {
+        return humidityStdDev;
+    }
+
+    public void setHumidityStdDev(Double humidityStdDev) {
+        this.humidityStdDev = humidityStdDev;
+    }
+
+    public long getMissingHumidityCount() {
+        return missingHumidityCount;
+    }
+
+    public void setMissingHumidityCount(long missingHumidityCount) {
+        this.missingHumidityCount = missingHumidityCount;
+    }
+
     public long getRainCount() {
         return rainCount;
     }
@@ -86,6 +125,30 @@ public class WeatherDataStatistics {
         this.fogCount = fogCount;
     }
 
+    public Percentiles getTemperaturePercentiles() {
+        return temperaturePercentiles;
+    }
+
+    public void setTemperaturePercentiles(Percentiles temperaturePercentiles) {
+        this.temperaturePercentiles = temperaturePercentiles;
+    }
+
+    public Percentiles getHumidityPercentiles() {
+        return humidityPercentiles;
+    }
+
+    public void setHumidityPercentiles(Percentiles humidityPercentiles) {
+        this.humidityPercentiles = humidityPercentiles;
+    }
+
+    public Percentiles getWindSpeedPercentiles() {
+        return windSpeedPercentiles;
+    }
+
+    public void setWindSpeedPercentiles(Percentiles windSpeedPercentiles) {
+        this.windSpeedPercentiles = windSpeedPercentiles;
+    }
+
     @Override
     public String toString() {
         return "WeatherDataStatistics{" +
@@ -93,11 +156,54 @@ public class WeatherDataStatistics {
                 ", avgTemperature=" + String.format("%.2f", avgTemperature) +
                 ", maxTemperature=" + String.format("%.2f", maxTemperature) +
                 ", minTemperature=" + String.format("%.2f", minTemperature) +
+                ", temperatureStdDev=" + String.format("%.2f", temperatureStdDev) +
+                ", missingTemperatureCount=" + missingTemperatureCount +
                 ", avgHumidity=" + String.format("%.2f", avgHumidity) +
+                ", humidityStdDev=" + String.format("%.2f", humidityStdDev) +
+                ", missingHumidityCount=" + missingHumidityCount +
                 ", rainCount=" + rainCount +
                 ", snowCount=" + snowCount +
                 ", thunderCount=" + thunderCount +
                 ", fogCount=" + fogCount +
+                ", temperaturePercentiles=" + temperaturePercentiles +
+                ", humidityPercentiles=" + humidityPercentiles +
+                ", windSpeedPercentiles=" + windSpeedPercentiles +
                 '}';
     }
+
+    /**
+     * Median, 90th and 99th percentile of one metric; null when no row has a value for it.
+     */
+    public static class Percentiles {
+        private final Double p50;
+        private final Double p90;
+        private final Double p99;
+
+        public Percentiles(Double p50, Double p90, Double p99) {
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+        }
+
+        public static Percentiles of(MetricHistogram histogram) {
+            return new Percentiles(histogram.quantile(0.5), histogram.quantile(0.9), histogram.quantile(0.99));
+        }
+
+        public Double getP50() {
+            return p50;
+        }
+
+        public Double getP90() {
+            return p90;
+        }
+
+        public Double getP99() {
+            return p99;
+        }
+
+        @Override
+        public String toString() {
+            return "{p50=" + p50 + ", p90=" + p90 + ", p99=" + p99 + '}';
+        }
+    }
 }
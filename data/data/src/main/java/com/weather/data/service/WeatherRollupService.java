@@ -0,0 +1,312 @@
+package com.weather.data.service;
+
+import com.weather.data.entity.HistogramMetric;
+import com.weather.data.entity.RollupGranularity;
+import com.weather.data.entity.WeatherRollupEntity;
+import com.weather.data.model.WeatherData;
+import com.weather.data.repository.NameIdDictionary;
+import com.weather.data.repository.WeatherRollupRepository;
+import com.weather.data.repository.WeatherStationDictionary;
+import com.weather.data.service.WeatherStatisticsAccumulator.MetricAccumulator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Maintains the hourly, daily and monthly rollups in weather_rollup. Each ingested batch is
+ * aggregated in memory per bucket and merged into the table in the batch's transaction, adding
+ * counts and sums and widening min/max, so the rollups always match the committed rows. Daily and
+ * monthly buckets also keep a histogram per {@link HistogramMetric} in weather_rollup_histogram,
+ * one row per non-empty bin, whose counts are added the same way. Every bucket is kept once per
+ * station and once for {@link WeatherRollupEntity#ALL_STATIONS}, so reads of either kind stay one
+ * row per bucket.
+ */
+@Service
+public class WeatherRollupService {
+
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59);
+
+    private static final String[] METRICS = {"temperature", "humidity", "precipitation"};
+    private static final String[] EVENTS = {"rain", "snow", "thunder", "fog", "hail", "tornado"};
+
+    private static final String MERGE_SQL = buildMergeSql();
+
+    private static final String MERGE_HISTOGRAM_SQL = "MERGE INTO weather_rollup_histogram h USING (VALUES ("
+            + "CAST(? AS VARCHAR(8)), CAST(? AS INT), CAST(? AS TIMESTAMP), CAST(? AS VARCHAR(16)), CAST(? AS INT), "
+            + "CAST(? AS BIGINT))) "
+            + "AS s(granularity, station_id, bucket_start, metric, bin_index, bin_count) "
+            + "ON h.granularity = s.granularity AND h.station_id = s.station_id AND h.bucket_start = s.bucket_start "
+            + "AND h.metric = s.metric AND h.bin_index = s.bin_index "
+            + "WHEN MATCHED THEN UPDATE SET bin_count = h.bin_count + s.bin_count "
+            + "WHEN NOT MATCHED THEN INSERT (granularity, station_id, bucket_start, metric, bin_index, bin_count) "
+            + "VALUES (s.granularity, s.station_id, s.bucket_start, s.metric, s.bin_index, s.bin_count)";
+
+    private static final String HISTOGRAM_SQL = "SELECT bin_index, SUM(bin_count) FROM weather_rollup_histogram "
+            + "WHERE granularity = ? AND station_id = ? AND metric = ? AND bucket_start BETWEEN ? AND ? "
+            + "GROUP BY bin_index";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WeatherRollupRepository weatherRollupRepository;
+
+    @Autowired
+    private WeatherStationDictionary weatherStationDictionary;
+
+    /**
+     * Adds a batch of observations to the rollups. Must run inside the transaction that
+     * persists the batch.
+     */
+    public void addBatch(List<WeatherData> batch) {
+        // Sorted so concurrent loads lock shared buckets in the same order
+        Map<BucketKey, Bucket> buckets = new TreeMap<>();
+        for (WeatherData data : batch) {
+            // A row without a station only counts towards the all-stations buckets
+            Integer stationId = weatherStationDictionary.resolve(data.getStation());
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                LocalDateTime bucketStart = granularity.truncate(data.getDatetimeUtc());
+                bucket(buckets, new BucketKey(granularity, WeatherRollupEntity.ALL_STATIONS, bucketStart)).accept(data);
+                if (stationId != null) {
+                    bucket(buckets, new BucketKey(granularity, stationId, bucketStart)).accept(data);
+                }
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<>(buckets.size());
+        List<Object[]> histogramRows = new ArrayList<>();
+        for (Map.Entry<BucketKey, Bucket> entry : buckets.entrySet()) {
+            rows.add(entry.getValue().toRow(entry.getKey()));
+            entry.getValue().addHistogramRows(entry.getKey(), histogramRows);
+        }
+        jdbcTemplate.batchUpdate(MERGE_SQL, rows);
+        jdbcTemplate.batchUpdate(MERGE_HISTOGRAM_SQL, histogramRows);
+    }
+
+    /**
+     * Buckets of one granularity whose start lies in {@code [start, end]}, oldest first; a
+     * missing bound leaves that side open. A blank station reads the buckets over all stations.
+     */
+    @Transactional(readOnly = true)
+    public List<WeatherRollupEntity> findRollups(RollupGranularity granularity, String station,
+                                                 LocalDateTime start, LocalDateTime end) {
+        Integer stationId = rollupStationId(station);
+        if (stationId == null) {
+            return Collections.emptyList();
+        }
+        return weatherRollupRepository.findByGranularityAndStationIdAndBucketStartBetweenOrderByBucketStart(
+                granularity, stationId, start != null ? start : EARLIEST, end != null ? end : LATEST);
+    }
+
+    /**
+     * Histogram of one metric over the daily or monthly buckets whose start lies in
+     * {@code [start, end]}; a missing bound leaves that side open. A blank station reads the
+     * histograms over all stations.
+     */
+    @Transactional(readOnly = true)
+    public MetricHistogram findHistogram(HistogramMetric metric, RollupGranularity granularity, String station,
+                                         LocalDateTime start, LocalDateTime end) {
+        if (granularity == RollupGranularity.HOUR) {
+            throw new IllegalArgumentException("Histograms are kept for daily and monthly buckets only");
+        }
+        MetricHistogram histogram = new MetricHistogram(metric);
+        Integer stationId = rollupStationId(station);
+        if (stationId == null) {
+            return histogram;
+        }
+        jdbcTemplate.query(HISTOGRAM_SQL, rs -> {
+            histogram.add(rs.getInt(1), rs.getLong(2));
+        }, granularity.name(), stationId, metric.name(), start != null ? start : EARLIEST, end != null ? end : LATEST);
+        return histogram;
+    }
+
+    // The rollup station of a station name; null for a station never ingested, which has no buckets
+    private Integer rollupStationId(String station) {
+        if (NameIdDictionary.lookupKey(station) == null) {
+            return WeatherRollupEntity.ALL_STATIONS;
+        }
+        return weatherStationDictionary.findId(station);
+    }
+
+    private static Bucket bucket(Map<BucketKey, Bucket> buckets, BucketKey key) {
+        return buckets.computeIfAbsent(key, k -> new Bucket(k.granularity != RollupGranularity.HOUR));
+    }
+
+    /**
+     * MERGE that inserts a new bucket or folds the batch into the existing one. LEAST/GREATEST are
+     * wrapped in COALESCE so a side without values does not null out the other.
+     */
+    private static String buildMergeSql() {
+        List<String> columns = new ArrayList<>();
+        List<String> types = new ArrayList<>();
+        columns.add("record_count");
+        types.add("BIGINT");
+        for (String metric : METRICS) {
+            columns.add(metric + "_count");
+            types.add("BIGINT");
+            columns.add(metric + "_sum");
+            types.add("DOUBLE PRECISION");
+            columns.add(metric + "_sum_of_squares");
+            types.add("DOUBLE PRECISION");
+            columns.add(metric + "_min");
+            types.add("DOUBLE PRECISION");
+            columns.add(metric + "_max");
+            types.add("DOUBLE PRECISION");
+        }
+        for (String event : EVENTS) {
+            columns.add(event + "_count");
+            types.add("BIGINT");
+        }
+
+        StringBuilder values = new StringBuilder("CAST(? AS VARCHAR(8)), CAST(? AS INT), CAST(? AS TIMESTAMP)");
+        StringBuilder updates = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            String column = columns.get(i);
+            values.append(", CAST(? AS ").append(types.get(i)).append(')');
+            if (updates.length() > 0) {
+                updates.append(", ");
+            }
+            if (column.endsWith("_min") || column.endsWith("_max")) {
+                String function = column.endsWith("_min") ? "LEAST" : "GREATEST";
+                updates.append(column).append(" = COALESCE(").append(function).append("(r.").append(column)
+                        .append(", s.").append(column).append("), r.").append(column).append(", s.").append(column)
+                        .append(')');
+            } else {
+                updates.append(column).append(" = r.").append(column).append(" + s.").append(column);
+            }
+        }
+        String columnList = String.join(", ", columns);
+        return "MERGE INTO weather_rollup r USING (VALUES (" + values + ")) "
+                + "AS s(granularity, station_id, bucket_start, " + columnList + ") "
+                + "ON r.granularity = s.granularity AND r.station_id = s.station_id AND r.bucket_start = s.bucket_start "
+                + "WHEN MATCHED THEN UPDATE SET " + updates + " "
+                + "WHEN NOT MATCHED THEN INSERT (granularity, station_id, bucket_start, " + columnList + ") "
+                + "VALUES (s.granularity, s.station_id, s.bucket_start, s." + columnList.replace(", ", ", s.") + ")";
+    }
+
+    private static final class BucketKey implements Comparable<BucketKey> {
+        private final RollupGranularity granularity;
+        private final int stationId;
+        private final LocalDateTime bucketStart;
+
+        private BucketKey(RollupGranularity granularity, int stationId, LocalDateTime bucketStart) {
+            this.granularity = granularity;
+            this.stationId = stationId;
+            this.bucketStart = bucketStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof BucketKey)) {
+                return false;
+            }
+            BucketKey other = (BucketKey) o;
+            return granularity == other.granularity && stationId == other.stationId
+                    && bucketStart.equals(other.bucketStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(granularity, stationId, bucketStart);
+        }
+
+        @Override
+        public int compareTo(BucketKey other) {
+            int byGranularity = granularity.compareTo(other.granularity);
+            if (byGranularity != 0) {
+                return byGranularity;
+            }
+            int byStation = Integer.compare(stationId, other.stationId);
+            return byStation != 0 ? byStation : bucketStart.compareTo(other.bucketStart);
+        }
+    }
+
+    /**
+     * Aggregates of one bucket within a single batch, in the column order of {@link #MERGE_SQL}.
+     */
+    private static final class Bucket {
+        private long records;
+        private final MetricAccumulator temperature = new MetricAccumulator();
+        private final MetricAccumulator humidity = new MetricAccumulator();
+        private final MetricAccumulator precipitation = new MetricAccumulator();
+        private final long[] events = new long[EVENTS.length];
+        private final MetricHistogram[] histograms;
+
+        private Bucket(boolean withHistograms) {
+            HistogramMetric[] metrics = HistogramMetric.values();
+            histograms = new MetricHistogram[withHistograms ? metrics.length : 0];
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new MetricHistogram(metrics[i]);
+            }
+        }
+
+        void accept(WeatherData data) {
+            records++;
+            if (data.getTempm() != null) {
+                temperature.accept(data.getTempm());
+            }
+            if (data.getHumidity() != null) {
+                humidity.accept(data.getHumidity());
+            }
+            for (MetricHistogram histogram : histograms) {
+                histogram.accept(data);
+            }
+            if (data.getPrecipm() != null) {
+                precipitation.accept(data.getPrecipm());
+            }
+            events[0] += isSet(data.getRain());
+            events[1] += isSet(data.getSnow());
+            events[2] += isSet(data.getThunder());
+            events[3] += isSet(data.getFog());
+            events[4] += isSet(data.getHail());
+            events[5] += isSet(data.getTornado());
+        }
+
+        Object[] toRow(BucketKey key) {
+            List<Object> row = new ArrayList<>();
+            row.add(key.granularity.name());
+            row.add(key.stationId);
+            row.add(key.bucketStart);
+            row.add(records);
+            for (MetricAccumulator metric : new MetricAccumulator[]{temperature, humidity, precipitation}) {
+                boolean empty = metric.getCount() == 0;
+                row.add(metric.getCount());
+                row.add(metric.getSum());
+                row.add(metric.getSumOfSquares());
+                row.add(empty ? null : metric.getMin());
+                row.add(empty ? null : metric.getMax());
+            }
+            for (long events : this.events) {
+                row.add(events);
+            }
+            return row.toArray();
+        }
+
+        // Rows for MERGE_HISTOGRAM_SQL, in bin order so concurrent loads lock them in the same order
+        void addHistogramRows(BucketKey key, List<Object[]> rows) {
+            for (MetricHistogram histogram : histograms) {
+                for (int bin = 0; bin < histogram.getMetric().getBinCount(); bin++) {
+                    long count = histogram.getCount(bin);
+                    if (count > 0) {
+                        rows.add(new Object[]{key.granularity.name(), key.stationId, key.bucketStart,
+                                histogram.getMetric().name(), bin, count});
+                    }
+                }
+            }
+        }
+
+        private static int isSet(Integer flag) {
+            return flag != null && flag == 1 ? 1 : 0;
+        }
+    }
+}
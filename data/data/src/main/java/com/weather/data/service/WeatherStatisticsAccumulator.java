@@ -0,0 +1,231 @@
+package com.weather.data.service;
+
+import com.weather.data.entity.HistogramMetric;
+import com.weather.data.model.WeatherData;
+import com.weather.data.repository.WeatherDataAggregate;
+
+import java.util.stream.Collector;
+
+/**
+ * Accumulates all weather statistics in a single pass over the records. Accumulators built over
+ * separate chunks of a dataset can be combined with {@link #merge}, and an accumulator can be
+ * rebuilt from database aggregates, so the startup report and the REST statistics share it.
+ * Temperature, humidity and wind speed also go into fixed-bin histograms for percentiles; these
+ * are not part of the database aggregates and are merged in separately.
+ */
+public class WeatherStatisticsAccumulator {
+    private long totalRecords;
+
+    private final MetricAccumulator temperature = new MetricAccumulator();
+    private final MetricAccumulator humidity = new MetricAccumulator();
+
+    private final MetricHistogram temperatureHistogram = new MetricHistogram(HistogramMetric.TEMPERATURE);
+    private final MetricHistogram humidityHistogram = new MetricHistogram(HistogramMetric.HUMIDITY);
+    private final MetricHistogram windSpeedHistogram = new MetricHistogram(HistogramMetric.WIND_SPEED);
+
+    private long rainCount;
+    private long snowCount;
+    private long thunderCount;
+    private long fogCount;
+
+    public static Collector<WeatherData, ?, WeatherStatisticsAccumulator> collector() {
+        return Collector.of(WeatherStatisticsAccumulator::new,
+                (accumulator, data) -> accumulator.accept(data),
+                WeatherStatisticsAccumulator::merge);
+    }
+
+    /**
+     * Rebuilds an accumulator from aggregates computed by the database.
+     */
+    public static WeatherStatisticsAccumulator of(WeatherDataAggregate aggregate) {
+        WeatherStatisticsAccumulator accumulator = new WeatherStatisticsAccumulator();
+        accumulator.totalRecords = aggregate.getTotalRecords();
+        accumulator.temperature.set(aggregate.getTemperatureCount(), aggregate.getTemperatureSum(),
+                aggregate.getTemperatureSumOfSquares(), aggregate.getMinTemperature(), aggregate.getMaxTemperature());
+        accumulator.humidity.set(aggregate.getHumidityCount(), aggregate.getHumiditySum(),
+                aggregate.getHumiditySumOfSquares(), aggregate.getMinHumidity(), aggregate.getMaxHumidity());
+        accumulator.rainCount = aggregate.getRainCount();
+        accumulator.snowCount = aggregate.getSnowCount();
+        accumulator.thunderCount = aggregate.getThunderCount();
+        accumulator.fogCount = aggregate.getFogCount();
+        return accumulator;
+    }
+
+    public void accept(WeatherData data) {
+        accept(data.getTempm(), data.getHumidity(), data.getWspdm(),
+                data.getRain(), data.getSnow(), data.getThunder(), data.getFog());
+    }
+
+    public void accept(Double tempm, Integer humidity, Double wspdm,
+                       Integer rain, Integer snow, Integer thunder, Integer fog) {
+        totalRecords++;
+        if (tempm != null) {
+            temperature.accept(tempm);
+            temperatureHistogram.accept(tempm);
+        }
+        if (humidity != null) {
+            this.humidity.accept(humidity);
+            humidityHistogram.accept(humidity);
+        }
+        if (wspdm != null) {
+            windSpeedHistogram.accept(wspdm);
+        }
+        rainCount += isSet(rain);
+        snowCount += isSet(snow);
+        thunderCount += isSet(thunder);
+        fogCount += isSet(fog);
+    }
+
+    public WeatherStatisticsAccumulator merge(WeatherStatisticsAccumulator other) {
+        totalRecords += other.totalRecords;
+        temperature.merge(other.temperature);
+        humidity.merge(other.humidity);
+        temperatureHistogram.merge(other.temperatureHistogram);
+        humidityHistogram.merge(other.humidityHistogram);
+        windSpeedHistogram.merge(other.windSpeedHistogram);
+        rainCount += other.rainCount;
+        snowCount += other.snowCount;
+        thunderCount += other.thunderCount;
+        fogCount += other.fogCount;
+        return this;
+    }
+
+    public long getTotalRecords() {
+        return totalRecords;
+    }
+
+    public MetricAccumulator getTemperature() {
+        return temperature;
+    }
+
+    public MetricAccumulator getHumidity() {
+        return humidity;
+    }
+
+    public MetricHistogram getHistogram(HistogramMetric metric) {
+        switch (metric) {
+            case TEMPERATURE:
+                return temperatureHistogram;
+            case HUMIDITY:
+                return humidityHistogram;
+            default:
+                return windSpeedHistogram;
+        }
+    }
+
+    public long getRainCount() {
+        return rainCount;
+    }
+
+    public long getSnowCount() {
+        return snowCount;
+    }
+
+    public long getThunderCount() {
+        return thunderCount;
+    }
+
+    public long getFogCount() {
+        return fogCount;
+    }
+
+    public WeatherDataStatistics toStatistics() {
+        WeatherDataStatistics stats = new WeatherDataStatistics();
+        stats.setTotalRecords(totalRecords);
+        stats.setAvgTemperature(temperature.getAverage());
+        stats.setMaxTemperature(temperature.getMax());
+        stats.setMinTemperature(temperature.getMin());
+        stats.setTemperatureStdDev(temperature.getStandardDeviation());
+        stats.setMissingTemperatureCount(totalRecords - temperature.getCount());
+        stats.setAvgHumidity(humidity.getAverage());
+        stats.setHumidityStdDev(humidity.getStandardDeviation());
+        stats.setMissingHumidityCount(totalRecords - humidity.getCount());
+        stats.setRainCount(rainCount);
+        stats.setSnowCount(snowCount);
+        stats.setThunderCount(thunderCount);
+        stats.setFogCount(fogCount);
+        stats.setTemperaturePercentiles(WeatherDataStatistics.Percentiles.of(temperatureHistogram));
+        stats.setHumidityPercentiles(WeatherDataStatistics.Percentiles.of(humidityHistogram));
+        stats.setWindSpeedPercentiles(WeatherDataStatistics.Percentiles.of(windSpeedHistogram));
+        return stats;
+    }
+
+    private static int isSet(Integer flag) {
+        return flag != null && flag == 1 ? 1 : 0;
+    }
+
+    /**
+     * Count, sum, sum of squares and range of one numeric column. Statistics of an empty column
+     * are reported as 0.0, matching the previous stream-based averages.
+     */
+    public static class MetricAccumulator {
+        private long count;
+        private double sum;
+        private double sumOfSquares;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        public void accept(double value) {
+            count++;
+            sum += value;
+            sumOfSquares += value * value;
+            if (value < min) {
+                min = value;
+            }
+            if (value > max) {
+                max = value;
+            }
+        }
+
+        void set(long count, Double sum, Double sumOfSquares, Double min, Double max) {
+            if (count == 0) {
+                return;
+            }
+            this.count = count;
+            this.sum = sum;
+            this.sumOfSquares = sumOfSquares;
+            this.min = min;
+            this.max = max;
+        }
+
+        public void merge(MetricAccumulator other) {
+            count += other.count;
+            sum += other.sum;
+            sumOfSquares += other.sumOfSquares;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getSum() {
+            return sum;
+        }
+
+        public double getSumOfSquares() {
+            return sumOfSquares;
+        }
+
+        public double getMin() {
+            return count > 0 ? min : 0.0;
+        }
+
+        public double getMax() {
+            return count > 0 ? max : 0.0;
+        }
+
+        public double getAverage() {
+            return count > 0 ? sum / count : 0.0;
+        }
+
+        public double getStandardDeviation() {
+            if (count == 0) {
+                return 0.0;
+            }
+            double mean = sum / count;
+            return Math.sqrt(Math.max(0.0, sumOfSquares / count - mean * mean));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.weather.data.service;
+
+import com.weather.data.model.WeatherData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Aggregates a list of observations with fork-join: ranges of more than {@code leafSize} rows are
+ * split in half, one half forked and the other computed in place, ranges up to the leaf size are
+ * accumulated in a plain loop, and the partial accumulators are merged on the way back up. Ranges
+ * are split by index, so the list has to be array-backed; other lists are copied first.
+ */
+public class WeatherStatisticsTask extends RecursiveTask<WeatherStatisticsAccumulator> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<WeatherData> rows;
+    private final int from;
+    private final int to;
+    private final int leafSize;
+
+    private WeatherStatisticsTask(List<WeatherData> rows, int from, int to, int leafSize) {
+        this.rows = rows;
+        this.from = from;
+        this.to = to;
+        this.leafSize = leafSize;
+    }
+
+    /**
+     * Aggregates all rows on the common fork-join pool.
+     */
+    public static WeatherStatisticsAccumulator aggregate(List<WeatherData> rows, int leafSize) {
+        List<WeatherData> indexed = rows instanceof RandomAccess ? rows : new ArrayList<>(rows);
+        return ForkJoinPool.commonPool().invoke(
+                new WeatherStatisticsTask(indexed, 0, indexed.size(), Math.max(1, leafSize)));
+    }
+
+    @Override
+    protected WeatherStatisticsAccumulator compute() {
+        if (to - from <= leafSize) {
+            WeatherStatisticsAccumulator accumulator = new WeatherStatisticsAccumulator();
+            for (int i = from; i < to; i++) {
+                accumulator.accept(rows.get(i));
+            }
+            return accumulator;
+        }
+        int middle = (from + to) >>> 1;
+        WeatherStatisticsTask left = new WeatherStatisticsTask(rows, from, middle, leafSize);
+        left.fork();
+        WeatherStatisticsAccumulator right = new WeatherStatisticsTask(rows, middle, to, leafSize).compute();
+        return left.join().merge(right);
+    }
+}
@@ -0,0 +1,313 @@
+package com.weather.data.specification;
+
+import com.weather.data.entity.WeatherDataEntity;
+import com.weather.data.repository.WeatherConditionDictionary;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Boolean expression over weather event flags and conditions, as passed in the {@code eventExpr}
+ * parameter, e.g. {@code fog AND NOT rain AND condition=Haze}. Operands are event names or
+ * {@code condition=<name>}, with the name quoted when it has spaces ({@code condition='Light Rain'});
+ * they combine with AND, OR, NOT and parentheses, NOT binding tightest and OR loosest. Keywords,
+ * event names and conditions are case-insensitive.
+ *
+ * An expression is evaluated by folding it with a {@link Visitor}, so the same tree becomes a
+ * Specification for the database or a bitmap for the columnar store.
+ */
+public abstract class EventExpression {
+
+    /**
+     * Events with a 0/1 flag column of the same name.
+     */
+    public static final List<String> EVENTS = Collections.unmodifiableList(
+            Arrays.asList("rain", "snow", "thunder", "fog", "hail", "tornado"));
+
+    public interface Visitor<T> {
+        T event(String event);
+
+        T condition(String condition);
+
+        T not(T operand);
+
+        T and(T left, T right);
+
+        T or(T left, T right);
+    }
+
+    public abstract <T> T accept(Visitor<T> visitor);
+
+    public static EventExpression parse(String text) {
+        return new Parser(text).parse();
+    }
+
+    /**
+     * Matches the rows the expression selects. A missing flag or condition counts as not set, so
+     * NOT also matches rows where the column is null.
+     */
+    public Specification<WeatherDataEntity> toSpecification(WeatherConditionDictionary conditions) {
+        return accept(new Visitor<Specification<WeatherDataEntity>>() {
+            @Override
+            public Specification<WeatherDataEntity> event(String event) {
+                return (root, query, cb) -> isSet(root, cb, event, 1);
+            }
+
+            @Override
+            public Specification<WeatherDataEntity> condition(String condition) {
+                Integer conditionId = conditions.findId(condition);
+                return (root, query, cb) -> conditionId == null ? cb.disjunction()
+                        : isSet(root, cb, "conditionId", conditionId);
+            }
+
+            @Override
+            public Specification<WeatherDataEntity> not(Specification<WeatherDataEntity> operand) {
+                return Specification.not(operand);
+            }
+
+            @Override
+            public Specification<WeatherDataEntity> and(Specification<WeatherDataEntity> left,
+                                                        Specification<WeatherDataEntity> right) {
+                return left.and(right);
+            }
+
+            @Override
+            public Specification<WeatherDataEntity> or(Specification<WeatherDataEntity> left,
+                                                       Specification<WeatherDataEntity> right) {
+                return left.or(right);
+            }
+        });
+    }
+
+    // Never NULL, so that NOT of it is true for rows where the column is null
+    private static Predicate isSet(Root<WeatherDataEntity> root, CriteriaBuilder cb, String field, Object value) {
+        Path<Object> column = root.get(field);
+        return cb.and(cb.isNotNull(column), cb.equal(column, value));
+    }
+
+    /**
+     * Canonical, fully parenthesized form, equal for expressions that only differ in spelling.
+     */
+    @Override
+    public String toString() {
+        return accept(new Visitor<String>() {
+            @Override
+            public String event(String event) {
+                return event;
+            }
+
+            @Override
+            public String condition(String condition) {
+                return "condition='" + condition + "'";
+            }
+
+            @Override
+            public String not(String operand) {
+                return "NOT " + operand;
+            }
+
+            @Override
+            public String and(String left, String right) {
+                return "(" + left + " AND " + right + ")";
+            }
+
+            @Override
+            public String or(String left, String right) {
+                return "(" + left + " OR " + right + ")";
+            }
+        });
+    }
+
+    private static final class Event extends EventExpression {
+        private final String event;
+
+        private Event(String event) {
+            this.event = event;
+        }
+
+        @Override
+        public <T> T accept(Visitor<T> visitor) {
+            return visitor.event(event);
+        }
+    }
+
+    private static final class Condition extends EventExpression {
+        private final String condition;
+
+        private Condition(String condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        public <T> T accept(Visitor<T> visitor) {
+            return visitor.condition(condition);
+        }
+    }
+
+    private static final class Not extends EventExpression {
+        private final EventExpression operand;
+
+        private Not(EventExpression operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public <T> T accept(Visitor<T> visitor) {
+            return visitor.not(operand.accept(visitor));
+        }
+    }
+
+    private static final class Binary extends EventExpression {
+        private final boolean and;
+        private final EventExpression left;
+        private final EventExpression right;
+
+        private Binary(boolean and, EventExpression left, EventExpression right) {
+            this.and = and;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public <T> T accept(Visitor<T> visitor) {
+            T leftValue = left.accept(visitor);
+            T rightValue = right.accept(visitor);
+            return and ? visitor.and(leftValue, rightValue) : visitor.or(leftValue, rightValue);
+        }
+    }
+
+    /**
+     * Recursive descent parser over the tokens of the expression:
+     * <pre>
+     * or      := and ("OR" and)*
+     * and     := unary ("AND" unary)*
+     * unary   := "NOT" unary | "(" or ")" | event | "condition" "=" name
+     * </pre>
+     */
+    private static final class Parser {
+        private final String text;
+        private final List<String> tokens = new ArrayList<>();
+        private int position;
+
+        private Parser(String text) {
+            this.text = text;
+            tokenize();
+        }
+
+        EventExpression parse() {
+            if (tokens.isEmpty()) {
+                throw error("expression is empty");
+            }
+            EventExpression expression = parseOr();
+            if (position < tokens.size()) {
+                throw error("unexpected '" + tokens.get(position) + "'");
+            }
+            return expression;
+        }
+
+        private EventExpression parseOr() {
+            EventExpression expression = parseAnd();
+            while (acceptKeyword("OR")) {
+                expression = new Binary(false, expression, parseAnd());
+            }
+            return expression;
+        }
+
+        private EventExpression parseAnd() {
+            EventExpression expression = parseUnary();
+            while (acceptKeyword("AND")) {
+                expression = new Binary(true, expression, parseUnary());
+            }
+            return expression;
+        }
+
+        private EventExpression parseUnary() {
+            if (acceptKeyword("NOT")) {
+                return new Not(parseUnary());
+            }
+            String token = next("an event, condition=<name>, NOT or '('");
+            if ("(".equals(token)) {
+                EventExpression expression = parseOr();
+                if (!")".equals(next("')'"))) {
+                    throw error("expected ')'");
+                }
+                return expression;
+            }
+            String word = token.toLowerCase(Locale.ROOT);
+            if ("condition".equals(word)) {
+                if (!"=".equals(next("'='"))) {
+                    throw error("expected '=' after condition");
+                }
+                String name = unquote(next("a condition name"));
+                if (name.trim().isEmpty()) {
+                    throw error("condition name is empty");
+                }
+                return new Condition(name.trim().toLowerCase(Locale.ROOT));
+            }
+            if (!EVENTS.contains(word)) {
+                throw error("unknown event '" + token + "' (events: " + String.join("|", EVENTS) + ")");
+            }
+            return new Event(word);
+        }
+
+        private boolean acceptKeyword(String keyword) {
+            if (position < tokens.size() && keyword.equalsIgnoreCase(tokens.get(position))) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private String next(String expected) {
+            if (position == tokens.size()) {
+                throw error("expected " + expected + " at the end");
+            }
+            return tokens.get(position++);
+        }
+
+        private static String unquote(String token) {
+            char first = token.charAt(0);
+            return first == '\'' || first == '"' ? token.substring(1, token.length() - 1) : token;
+        }
+
+        // Tokens are "(", ")", "=", quoted names with their quotes, and runs of any other non-space characters
+        private void tokenize() {
+            int i = 0;
+            while (i < text.length()) {
+                char c = text.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '(' || c == ')' || c == '=') {
+                    tokens.add(String.valueOf(c));
+                    i++;
+                } else if (c == '\'' || c == '"') {
+                    int end = text.indexOf(c, i + 1);
+                    if (end < 0) {
+                        throw error("unterminated quote");
+                    }
+                    tokens.add(text.substring(i, end + 1));
+                    i = end + 1;
+                } else {
+                    int start = i;
+                    while (i < text.length() && !Character.isWhitespace(text.charAt(i))
+                            && "()='\"".indexOf(text.charAt(i)) < 0) {
+                        i++;
+                    }
+                    tokens.add(text.substring(start, i));
+                }
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid eventExpr '" + text + "': " + message);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.weather.data.specification;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Filter parameters shared by the search-style endpoints, bound from the request query string.
+ */
+public class WeatherDataFilter {
+
+    private static final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private Double minTemp;
+    private Double maxTemp;
+    private Integer minHumidity;
+    private Integer maxHumidity;
+    private String startDate;
+    private String endDate;
+    private String condition;
+    private Double minPressure;
+    private Double maxPressure;
+    private Double minVisibility;
+    private Double maxVisibility;
+    private Double minWindSpeed;
+    private Double maxWindSpeed;
+    private String weatherEvent;
+    private String eventExpr;
+    private String station;
+
+    // Parsed when eventExpr is bound; a parse error is kept and thrown where the expression is used
+    private EventExpression eventExpression;
+    private IllegalArgumentException eventExprError;
+
+    public boolean hasCriteria() {
+        return (station != null && !station.isEmpty()) || minTemp != null || maxTemp != null || minHumidity != null || maxHumidity != null
+                || startDate != null || endDate != null || (condition != null && !condition.isEmpty())
+                || minPressure != null || maxPressure != null || minVisibility != null || maxVisibility != null
+                || minWindSpeed != null || maxWindSpeed != null || (weatherEvent != null && !weatherEvent.isEmpty())
+                || getEventExpression() != null;
+    }
+
+    /**
+     * Canonical form of the criteria, equal for filters that select the same rows however the
+     * request spelled them; used as a cache key. Unset criteria are left out.
+     */
+    public String normalizedKey() {
+        StringBuilder key = new StringBuilder();
+        append(key, "station", normalize(station));
+        append(key, "minTemp", minTemp);
+        append(key, "maxTemp", maxTemp);
+        append(key, "minHumidity", minHumidity);
+        append(key, "maxHumidity", maxHumidity);
+        append(key, "startDate", getStartDateTime());
+        append(key, "endDate", getEndDateTime());
+        append(key, "condition", normalize(condition));
+        append(key, "minPressure", minPressure);
+        append(key, "maxPressure", maxPressure);
+        append(key, "minVisibility", minVisibility);
+        append(key, "maxVisibility", maxVisibility);
+        append(key, "minWindSpeed", minWindSpeed);
+        append(key, "maxWindSpeed", maxWindSpeed);
+        append(key, "weatherEvent", normalize(weatherEvent));
+        append(key, "eventExpr", getEventExpression());
+        return key.toString();
+    }
+
+    private static void append(StringBuilder key, String name, Object value) {
+        if (value != null) {
+            key.append(name).append('=').append(value).append(';');
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The parsed {@code eventExpr}, or null when it is not set.
+     *
+     * @throws IllegalArgumentException if {@code eventExpr} is not a valid expression
+     */
+    public EventExpression getEventExpression() {
+        if (eventExprError != null) {
+            throw eventExprError;
+        }
+        return eventExpression;
+    }
+
+    public LocalDateTime getStartDateTime() {
+        return startDate != null ? LocalDateTime.parse(startDate, dateTimeFormatter) : null;
+    }
+
+    public LocalDateTime getEndDateTime() {
+        return endDate != null ? LocalDateTime.parse(endDate, dateTimeFormatter) : null;
+    }
+
+    public String getEventExpr() {
+        return eventExpr;
+    }
+
+    public void setEventExpr(String eventExpr) {
+        this.eventExpr = eventExpr;
+        this.eventExpression = null;
+        this.eventExprError = null;
+        if (eventExpr != null && !eventExpr.trim().isEmpty()) {
+            try {
+                this.eventExpression = EventExpression.parse(eventExpr);
+            } catch (IllegalArgumentException e) {
+                this.eventExprError = e;
+            }
+        }
+    }
+
+    public String getStation() {
+        return station;
+    }
+
+    public void setStation(String station) {
+        this.station = station;
+    }
+
+    public Double getMinTemp() {
+        return minTemp;
+    }
+
+    public void setMinTemp(Double minTemp) {
+        this.minTemp = minTemp;
+    }
+
+    public Double getMaxTemp() {
+        return maxTemp;
+    }
+
+    public void setMaxTemp(Double maxTemp) {
+        this.maxTemp = maxTemp;
+    }
+
+    public Integer getMinHumidity() {
+        return minHumidity;
+    }
+
+    public void setMinHumidity(Integer minHumidity) {
+        this.minHumidity = minHumidity;
+    }
+
+    public Integer getMaxHumidity() {
+        return maxHumidity;
+    }
+
+    public void setMaxHumidity(Integer maxHumidity) {
+        this.maxHumidity = maxHumidity;
+    }
+
+    public String getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(String startDate) {
+        this.startDate = startDate;
+    }
+
+    public String getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(String endDate) {
+        this.endDate = endDate;
+    }
+
+    public String getCondition() {
+        return condition;
+    }
+
+    public void setCondition(String condition) {
+        this.condition = condition;
+    }
+
+    public Double getMinPressure() {
+        return minPressure;
+    }
+
+    public void setMinPressure(Double minPressure) {
+        this.minPressure = minPressure;
+    }
+
+    public Double getMaxPressure() {
+        return maxPressure;
+    }
+
+    public void setMaxPressure(Double maxPressure) {
+        this.maxPressure = maxPressure;
+    }
+
+    public Double getMinVisibility() {
+        return minVisibility;
+    }
+
+    public void setMinVisibility(Double minVisibility) {
+        this.minVisibility = minVisibility;
+    }
+
+    public Double getMaxVisibility() {
+        return maxVisibility;
+    }
+
+    public void setMaxVisibility(Double maxVisibility) {
+        this.maxVisibility = maxVisibility;
+    }
+
+    public Double getMinWindSpeed() {
+        return minWindSpeed;
+    }
+
+    public void setMinWindSpeed(Double minWindSpeed) {
+        this.minWindSpeed = minWindSpeed;
+    }
+
+    public Double getMaxWindSpeed() {
+        return maxWindSpeed;
+    }
+
+    public void setMaxWindSpeed(Double maxWindSpeed) {
+        this.maxWindSpeed = maxWindSpeed;
+    }
+
+    public String getWeatherEvent() {
+        return weatherEvent;
+    }
+
+    public void setWeatherEvent(String weatherEvent) {
+        this.weatherEvent = weatherEvent;
+    }
+}
@@ -1,12 +1,58 @@
 package com.weather.data.specification;
 
 import com.weather.data.entity.WeatherDataEntity;
+import com.weather.data.repository.WeatherConditionDictionary;
+import com.weather.data.repository.WeatherStationDictionary;
 import org.springframework.data.jpa.domain.Specification;
 import javax.persistence.criteria.Predicate;
 import java.time.LocalDateTime;
 
 public class WeatherDataSpecification {
 
+    /**
+     * Combines every criterion set on the filter, the way /search applies its parameters.
+     * Condition and station names are translated to their ids through the dictionaries.
+     */
+    public static Specification<WeatherDataEntity> fromFilter(WeatherDataFilter filter,
+                                                              WeatherConditionDictionary conditions,
+                                                              WeatherStationDictionary stations) {
+        Specification<WeatherDataEntity> spec = Specification.where((root, query, cb) -> cb.conjunction());
+
+        if (filter.getStation() != null && !filter.getStation().isEmpty()) {
+            spec = spec.and(hasStationId(stations.findId(filter.getStation())));
+        }
+        if (filter.getMinTemp() != null || filter.getMaxTemp() != null) {
+            spec = spec.and(hasTemperatureRange(filter.getMinTemp(), filter.getMaxTemp()));
+        }
+        if (filter.getMinHumidity() != null || filter.getMaxHumidity() != null) {
+            spec = spec.and(hasHumidityRange(filter.getMinHumidity(), filter.getMaxHumidity()));
+        }
+        if (filter.getCondition() != null && !filter.getCondition().isEmpty()) {
+            spec = spec.and(hasConditionId(conditions.findId(filter.getCondition())));
+        }
+        if (filter.getMinPressure() != null || filter.getMaxPressure() != null) {
+            spec = spec.and(hasPressureRange(filter.getMinPressure(), filter.getMaxPressure()));
+        }
+        if (filter.getMinVisibility() != null || filter.getMaxVisibility() != null) {
+            spec = spec.and(hasVisibilityRange(filter.getMinVisibility(), filter.getMaxVisibility()));
+        }
+        if (filter.getMinWindSpeed() != null || filter.getMaxWindSpeed() != null) {
+            spec = spec.and(hasWindSpeedRange(filter.getMinWindSpeed(), filter.getMaxWindSpeed()));
+        }
+        if (filter.getWeatherEvent() != null && !filter.getWeatherEvent().isEmpty()) {
+            spec = spec.and(hasWeatherEvent(filter.getWeatherEvent()));
+        }
+        EventExpression eventExpression = filter.getEventExpression();
+        if (eventExpression != null) {
+            spec = spec.and(eventExpression.toSpecification(conditions));
+        }
+        if (filter.getStartDate() != null || filter.getEndDate() != null) {
+            spec = spec.and(hasDateRange(filter.getStartDateTime(), filter.getEndDateTime()));
+        }
+
+        return spec;
+    }
+
     public static Specification<WeatherDataEntity> hasTemperatureRange(Double minTemp, Double maxTemp) {
         return (root, query, cb) -> {
             Predicate predicate = cb.conjunction();
@@ -52,12 +98,28 @@ public class WeatherDataSpecification {
         };
     }
 
-    public static Specification<WeatherDataEntity> hasCondition(String condition) {
+    /**
+     * Matches one condition by id; a null id is a condition that was never ingested and matches nothing.
+     */
+    public static Specification<WeatherDataEntity> hasConditionId(Integer conditionId) {
         return (root, query, cb) -> {
-            if (condition == null || condition.isEmpty()) {
-                return cb.conjunction();
+            if (conditionId == null) {
+                return cb.disjunction();
+            }
+            return cb.equal(root.get("conditionId"), conditionId);
+        };
+    }
+
+    /**
+     * Matches one station by id; together with a date range this is a range scan of the
+     * (station_id, datetime_utc) index. A null id is a station never ingested and matches nothing.
+     */
+    public static Specification<WeatherDataEntity> hasStationId(Integer stationId) {
+        return (root, query, cb) -> {
+            if (stationId == null) {
+                return cb.disjunction();
             }
-            return cb.equal(cb.lower(root.get("conditions")), condition.toLowerCase());
+            return cb.equal(root.get("stationId"), stationId);
         };
     }
 
@@ -122,6 +184,8 @@ public class WeatherDataSpecification {
                 return cb.equal(root.get("fog"), 1);
             } else if ("hail".equals(event)) {
                 return cb.equal(root.get("hail"), 1);
+            } else if ("tornado".equals(event)) {
+                return cb.equal(root.get("tornado"), 1);
             } else {
                 return cb.conjunction();
             }
@@ -0,0 +1,118 @@
+package com.weather.data.store;
+
+import com.weather.data.repository.WeatherConditionDictionary;
+import com.weather.data.specification.EventExpression;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compressed bitmaps of the rows of a {@link WeatherColumns} snapshot that have each event flag
+ * set and each condition, so event and condition criteria combine as bitmap AND/OR/NOT and are
+ * counted from the cardinality of the result without reading rows. The bitmaps are shared and
+ * must not be modified; combine them with the static {@link RoaringBitmap} operations.
+ */
+public final class BitmapIndex {
+
+    private final int size;
+    private final Map<String, RoaringBitmap> events = new HashMap<>();
+    private final Map<String, RoaringBitmap> conditions = new HashMap<>();
+
+    BitmapIndex(WeatherColumns columns) {
+        size = columns.size();
+        for (String event : EventExpression.EVENTS) {
+            events.put(event, flagged(columns.getFlag(event), size));
+        }
+
+        // Keyed by normalized condition, so differently cased spellings share one bitmap
+        DictionaryColumn conditionColumn = columns.getConditions();
+        List<String> values = conditionColumn.getDictionary().values();
+        RoaringBitmap[] byCode = new RoaringBitmap[values.size()];
+        for (int code = 0; code < byCode.length; code++) {
+            byCode[code] = conditions.computeIfAbsent(WeatherConditionDictionary.lookupKey(values.get(code)),
+                    key -> new RoaringBitmap());
+        }
+        int[] codes = conditionColumn.codes();
+        for (int row = 0; row < size; row++) {
+            if (codes[row] != StringDictionary.NULL_CODE) {
+                byCode[codes[row]].add(row);
+            }
+        }
+        for (RoaringBitmap bitmap : conditions.values()) {
+            bitmap.runOptimize();
+        }
+    }
+
+    private static RoaringBitmap flagged(IntColumn flag, int size) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        int[] values = flag.values();
+        for (int row = 0; row < size; row++) {
+            if (values[row] == 1) {
+                bitmap.add(row);
+            }
+        }
+        bitmap.runOptimize();
+        return bitmap;
+    }
+
+    /**
+     * Rows with the event flag set, empty for an unknown event.
+     */
+    public RoaringBitmap event(String event) {
+        RoaringBitmap bitmap = events.get(event);
+        return bitmap != null ? bitmap : new RoaringBitmap();
+    }
+
+    /**
+     * Rows reported with the condition in any spelling, empty for a condition never seen.
+     */
+    public RoaringBitmap condition(String condition) {
+        RoaringBitmap bitmap = conditions.get(WeatherConditionDictionary.lookupKey(condition));
+        return bitmap != null ? bitmap : new RoaringBitmap();
+    }
+
+    /**
+     * Rows selected by an event expression.
+     */
+    public RoaringBitmap evaluate(EventExpression expression) {
+        return expression.accept(new EventExpression.Visitor<RoaringBitmap>() {
+            @Override
+            public RoaringBitmap event(String event) {
+                return BitmapIndex.this.event(event);
+            }
+
+            @Override
+            public RoaringBitmap condition(String condition) {
+                return BitmapIndex.this.condition(condition);
+            }
+
+            @Override
+            public RoaringBitmap not(RoaringBitmap operand) {
+                return RoaringBitmap.flip(operand, 0L, size);
+            }
+
+            @Override
+            public RoaringBitmap and(RoaringBitmap left, RoaringBitmap right) {
+                return RoaringBitmap.and(left, right);
+            }
+
+            @Override
+            public RoaringBitmap or(RoaringBitmap left, RoaringBitmap right) {
+                return RoaringBitmap.or(left, right);
+            }
+        });
+    }
+
+    long sizeInBytes() {
+        long bytes = 0;
+        for (RoaringBitmap bitmap : events.values()) {
+            bytes += bitmap.getLongSizeInBytes();
+        }
+        for (RoaringBitmap bitmap : conditions.values()) {
+            bytes += bitmap.getLongSizeInBytes();
+        }
+        return bytes;
+    }
+}
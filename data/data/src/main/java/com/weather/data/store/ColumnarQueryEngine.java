@@ -0,0 +1,435 @@
+package com.weather.data.store;
+
+import com.weather.data.repository.WeatherConditionDictionary;
+import com.weather.data.repository.WeatherStationDictionary;
+import com.weather.data.specification.EventExpression;
+import com.weather.data.specification.WeatherDataFilter;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Answers paged {@link WeatherDataFilter} queries from the {@link ColumnarWeatherStore} with the
+ * same matching rules as {@code WeatherDataSpecification.fromFilter}. The station picks the
+ * segments, the date range is a binary search on the time-ordered rows, condition and event
+ * criteria are bitmap operations on the segment's {@link BitmapIndex}, and the zone maps skip
+ * blocks no row of which can match a range criterion, or accept blocks all of whose rows match it.
+ */
+@Component
+public class ColumnarQueryEngine {
+
+    // Sort fields the engine can order by; other orders are left to the database
+    private static final Set<String> SORT_FIELDS = new HashSet<>(Arrays.asList(
+            "datetimeUtc", "tempm", "humidity", "pressurem", "visibility", "wspdm", "dewptm", "windchillm"));
+
+    @Autowired
+    private ColumnarWeatherStore columnarWeatherStore;
+
+    @Autowired
+    private WeatherConditionDictionary weatherConditionDictionary;
+
+    @Autowired
+    private WeatherStationDictionary weatherStationDictionary;
+
+    /**
+     * True when the store is enabled and the rows can be returned in the requested order.
+     */
+    public boolean supports(Sort sort) {
+        if (!columnarWeatherStore.isEnabled()) {
+            return false;
+        }
+        int orders = 0;
+        for (Sort.Order order : sort) {
+            if (++orders > 1 || !SORT_FIELDS.contains(order.getProperty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * One page of the matching rows as maps of the given fields, named like the JSON properties
+     * of WeatherDataEntity. Rows with equal sort values keep their time order. The total is the
+     * cardinality of the matched rows; unsorted pages and time-ordered pages of one station are
+     * picked straight from the bitmaps, other orders select the page from all matches.
+     */
+    public Slice<Map<String, Object>> findPage(WeatherDataFilter filter, Pageable pageable, boolean withTotal,
+                                                List<String> fields) {
+        List<WeatherColumns> segments = new ArrayList<>();
+        List<String> stations = new ArrayList<>();
+        List<RoaringBitmap> matched = new ArrayList<>();
+        long total = 0;
+        String station = WeatherStationDictionary.lookupKey(filter.getStation());
+        EventExpression eventExpression = filter.getEventExpression();
+        for (Map.Entry<String, WeatherColumns> segment : columnarWeatherStore.getSegments().entrySet()) {
+            if (station == null || station.equals(segment.getKey())) {
+                RoaringBitmap rows = match(segment.getValue(), filter, eventExpression);
+                if (!rows.isEmpty()) {
+                    segments.add(segment.getValue());
+                    stations.add(columnarWeatherStore.getStationName(segment.getKey()));
+                    matched.add(rows);
+                    total += rows.getLongCardinality();
+                }
+            }
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), total);
+        int to = (int) Math.min((long) from + pageable.getPageSize(), total);
+        Sort.Order order = pageable.getSort().isSorted() ? pageable.getSort().iterator().next() : null;
+        List<Map<String, Object>> content = new ArrayList<>(to - from);
+        if (segments.size() == 1 && (order == null || "datetimeUtc".equals(order.getProperty()))) {
+            RoaringBitmap rows = matched.get(0);
+            for (int i = from; i < to; i++) {
+                int row = rows.select(order == null || order.isAscending() ? i : (int) total - 1 - i);
+                content.add(toRow(segments.get(0), stations.get(0), row, fields));
+            }
+        } else if (order == null) {
+            // Match order: skip whole segments before the page, then select its rows
+            long skipped = 0;
+            for (int segment = 0; segment < matched.size() && skipped < to; segment++) {
+                RoaringBitmap rows = matched.get(segment);
+                long cardinality = rows.getLongCardinality();
+                for (long i = Math.max(from, skipped); i < Math.min(to, skipped + cardinality); i++) {
+                    content.add(toRow(segments.get(segment), stations.get(segment), rows.select((int) (i - skipped)),
+                            fields));
+                }
+                skipped += cardinality;
+            }
+        } else if (to > from) {
+            long[] sorted = firstInOrder(matched, segments, order, to);
+            for (int i = from; i < to; i++) {
+                int segment = (int) (sorted[i] >>> 32);
+                content.add(toRow(segments.get(segment), stations.get(segment), (int) sorted[i], fields));
+            }
+        }
+        if (withTotal) {
+            return new PageImpl<>(content, pageable, total);
+        }
+        return new SliceImpl<>(content, pageable, to < total);
+    }
+
+    /**
+     * Rows of one segment that match every criterion of the filter. Condition and event criteria
+     * are bitmap operations on the segment's index and the date range is a range of rows, so
+     * without range criteria no row is read; range criteria then check the remaining rows of the
+     * blocks the zone maps cannot rule out.
+     */
+    private RoaringBitmap match(WeatherColumns columns, WeatherDataFilter filter, EventExpression eventExpression) {
+        int first = filter.getStartDateTime() != null
+                ? columns.lowerBound(WeatherColumns.toEpochMinute(filter.getStartDateTime())) : 0;
+        int last = filter.getEndDateTime() != null
+                ? columns.lowerBound(WeatherColumns.toEpochMinute(filter.getEndDateTime()) + 1) : columns.size();
+        if (first >= last) {
+            return new RoaringBitmap();
+        }
+
+        BitmapIndex index = columns.getBitmapIndex();
+        RoaringBitmap rows = RoaringBitmap.bitmapOfRange(first, last);
+        if (filter.getCondition() != null && !filter.getCondition().isEmpty()) {
+            rows.and(index.condition(filter.getCondition()));
+        }
+        String event = eventType(filter.getWeatherEvent());
+        if (event != null) {
+            rows.and(index.event(event));
+        }
+        if (eventExpression != null) {
+            rows.and(index.evaluate(eventExpression));
+        }
+
+        List<RangeCriterion> ranges = new ArrayList<>();
+        addRange(ranges, columns, ZoneMap.Metric.TEMPERATURE, filter.getMinTemp(), filter.getMaxTemp());
+        addRange(ranges, columns, ZoneMap.Metric.HUMIDITY, toDouble(filter.getMinHumidity()), toDouble(filter.getMaxHumidity()));
+        addRange(ranges, columns, ZoneMap.Metric.PRESSURE, filter.getMinPressure(), filter.getMaxPressure());
+        addRange(ranges, columns, ZoneMap.Metric.VISIBILITY, filter.getMinVisibility(), filter.getMaxVisibility());
+        addRange(ranges, columns, ZoneMap.Metric.WIND_SPEED, filter.getMinWindSpeed(), filter.getMaxWindSpeed());
+        if (ranges.isEmpty() || rows.isEmpty()) {
+            return rows;
+        }
+
+        RoaringBitmap result = new RoaringBitmap();
+        PeekableIntIterator candidates = rows.getIntIterator();
+        ZoneMap zoneMap = columns.getZoneMap();
+        RangeCriterion[] toCheck = new RangeCriterion[ranges.size()];
+        for (int block = first / ZoneMap.BLOCK_SIZE; block < zoneMap.blocks() && zoneMap.blockStart(block) < last; block++) {
+            int checks = 0;
+            boolean skip = false;
+            for (RangeCriterion range : ranges) {
+                if (zoneMap.excludes(block, range.metric, range.min, range.max)) {
+                    skip = true;
+                    break;
+                }
+                if (!zoneMap.covers(block, range.metric, range.min, range.max)) {
+                    toCheck[checks++] = range;
+                }
+            }
+            if (skip) {
+                continue;
+            }
+            int end = zoneMap.blockEnd(block);
+            candidates.advanceIfNeeded(zoneMap.blockStart(block));
+            rows:
+            while (candidates.hasNext() && candidates.peekNext() < end) {
+                int row = candidates.next();
+                for (int i = 0; i < checks; i++) {
+                    double value = toCheck[i].values.applyAsDouble(row);
+                    // Missing values are NaN and fail both comparisons, as NULL does in SQL
+                    if (!(value >= toCheck[i].min && value <= toCheck[i].max)) {
+                        continue rows;
+                    }
+                }
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    private static void addRange(List<RangeCriterion> ranges, WeatherColumns columns, ZoneMap.Metric metric,
+                                 Double min, Double max) {
+        if (min != null || max != null) {
+            ranges.add(new RangeCriterion(metric, values(columns, metric),
+                    min != null ? min : Double.NEGATIVE_INFINITY, max != null ? max : Double.POSITIVE_INFINITY));
+        }
+    }
+
+    private static Double toDouble(Integer value) {
+        return value != null ? value.doubleValue() : null;
+    }
+
+    // Unknown event types match every row, like WeatherDataSpecification.hasWeatherEvent
+    private static String eventType(String weatherEvent) {
+        if (weatherEvent == null || weatherEvent.isEmpty()) {
+            return null;
+        }
+        String event = weatherEvent.toLowerCase();
+        return EventExpression.EVENTS.contains(event) ? event : null;
+    }
+
+    /**
+     * References (segment << 32 | row) of the first {@code limit} matches in the requested order,
+     * with ties kept in match order and missing values lowest, as in H2. The rows are fed from the
+     * bitmaps into a bounded heap, so a page costs O(n log limit) time and O(limit) memory however
+     * many rows match.
+     */
+    private static long[] firstInOrder(List<RoaringBitmap> matched, List<WeatherColumns> segments, Sort.Order order,
+                                       int limit) {
+        boolean byTime = "datetimeUtc".equals(order.getProperty());
+        TopRows top = new TopRows(limit, order.isAscending());
+        for (int segment = 0; segment < matched.size(); segment++) {
+            WeatherColumns columns = segments.get(segment);
+            IntToDoubleFunction values = byTime ? columns::getEpochMinute : sortValues(columns, order.getProperty());
+            for (PeekableIntIterator rows = matched.get(segment).getIntIterator(); rows.hasNext(); ) {
+                int row = rows.next();
+                double value = values.applyAsDouble(row);
+                top.offer(((long) segment << 32) | row, Double.isNaN(value) ? Double.NEGATIVE_INFINITY : value);
+            }
+        }
+        return top.drain();
+    }
+
+    private static IntToDoubleFunction sortValues(WeatherColumns columns, String field) {
+        switch (field) {
+            case "dewptm":
+                return values(columns.getDewptm());
+            case "windchillm":
+                return values(columns.getWindchillm());
+            case "tempm":
+                return values(columns, ZoneMap.Metric.TEMPERATURE);
+            case "humidity":
+                return values(columns, ZoneMap.Metric.HUMIDITY);
+            case "pressurem":
+                return values(columns, ZoneMap.Metric.PRESSURE);
+            case "visibility":
+                return values(columns, ZoneMap.Metric.VISIBILITY);
+            case "wspdm":
+                return values(columns, ZoneMap.Metric.WIND_SPEED);
+            default:
+                throw new IllegalArgumentException("Unsupported sort field: " + field);
+        }
+    }
+
+    private static IntToDoubleFunction values(WeatherColumns columns, ZoneMap.Metric metric) {
+        switch (metric) {
+            case TEMPERATURE:
+                return values(columns.getTempm());
+            case HUMIDITY:
+                IntColumn humidity = columns.getHumidity();
+                return row -> humidity.isNull(row) ? Double.NaN : humidity.get(row);
+            case PRESSURE:
+                return values(columns.getPressurem());
+            case WIND_SPEED:
+                return values(columns.getWspdm());
+            default:
+                return values(columns.getVisibility());
+        }
+    }
+
+    private static IntToDoubleFunction values(DoubleColumn column) {
+        return row -> column.isNull(row) ? Double.NaN : column.get(row);
+    }
+
+    private Map<String, Object> toRow(WeatherColumns columns, String station, int row, List<String> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            values.put(field, value(columns, station, row, field));
+        }
+        return values;
+    }
+
+    private Object value(WeatherColumns columns, String station, int row, String field) {
+        switch (field) {
+            case "id":
+                return columns.getId(row);
+            case "station":
+                return station;
+            case "stationId":
+                return weatherStationDictionary.findId(station);
+            case "datetimeUtc":
+                return columns.getDatetimeUtc(row);
+            case "conditions":
+                return columns.getConditions().get(row);
+            case "conditionId":
+                return weatherConditionDictionary.findId(columns.getConditions().get(row));
+            case "dewptm":
+                return columns.getDewptm().getBoxed(row);
+            case "fog":
+                return columns.getFog().getBoxed(row);
+            case "hail":
+                return columns.getHail().getBoxed(row);
+            case "heatindexm":
+                return columns.getHeatindexm().getBoxed(row);
+            case "humidity":
+                return columns.getHumidity().getBoxed(row);
+            case "precipm":
+                return columns.getPrecipm().getBoxed(row);
+            case "pressurem":
+                return columns.getPressurem().getBoxed(row);
+            case "rain":
+                return columns.getRain().getBoxed(row);
+            case "snow":
+                return columns.getSnow().getBoxed(row);
+            case "tempm":
+                return columns.getTempm().getBoxed(row);
+            case "thunder":
+                return columns.getThunder().getBoxed(row);
+            case "tornado":
+                return columns.getTornado().getBoxed(row);
+            case "visibility":
+                return columns.getVisibility().getBoxed(row);
+            case "windDirection":
+                return columns.getWindDirection().getBoxed(row);
+            case "windDirectionName":
+                return columns.getWindDirectionName().get(row);
+            case "windGustm":
+                return columns.getWindGustm().getBoxed(row);
+            case "windchillm":
+                return columns.getWindchillm().getBoxed(row);
+            case "wspdm":
+                return columns.getWspdm().getBoxed(row);
+            default:
+                throw new IllegalArgumentException("Unknown field: " + field);
+        }
+    }
+
+    /**
+     * Bounded max-heap of the best rows offered so far, the worst of them on top. Rows are
+     * compared by value in the sort direction, then by reference, which is match order.
+     */
+    private static final class TopRows {
+        private final long[] refs;
+        private final double[] values;
+        private final int direction;
+        private int size;
+
+        private TopRows(int limit, boolean ascending) {
+            this.refs = new long[limit];
+            this.values = new double[limit];
+            this.direction = ascending ? 1 : -1;
+        }
+
+        void offer(long ref, double value) {
+            if (size < refs.length) {
+                siftUp(size++, ref, value);
+            } else if (size > 0 && compare(value, ref, values[0], refs[0]) < 0) {
+                siftDown(0, size, ref, value);
+            }
+        }
+
+        // Empties the heap into an array, best row first
+        long[] drain() {
+            long[] sorted = new long[size];
+            for (int i = size - 1; i >= 0; i--) {
+                sorted[i] = refs[0];
+                siftDown(0, i, refs[i], values[i]);
+            }
+            size = 0;
+            return sorted;
+        }
+
+        private int compare(double value, long ref, double otherValue, long otherRef) {
+            int compared = direction * Double.compare(value, otherValue);
+            return compared != 0 ? compared : Long.compare(ref, otherRef);
+        }
+
+        private void siftUp(int index, long ref, double value) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (compare(value, ref, values[parent], refs[parent]) <= 0) {
+                    break;
+                }
+                refs[index] = refs[parent];
+                values[index] = values[parent];
+                index = parent;
+            }
+            refs[index] = ref;
+            values[index] = value;
+        }
+
+        private void siftDown(int index, int size, long ref, double value) {
+            int child;
+            while ((child = 2 * index + 1) < size) {
+                if (child + 1 < size && compare(values[child + 1], refs[child + 1], values[child], refs[child]) > 0) {
+                    child++;
+                }
+                if (compare(value, ref, values[child], refs[child]) >= 0) {
+                    break;
+                }
+                refs[index] = refs[child];
+                values[index] = values[child];
+                index = child;
+            }
+            if (index < size) {
+                refs[index] = ref;
+                values[index] = value;
+            }
+        }
+    }
+
+    private static final class RangeCriterion {
+        private final ZoneMap.Metric metric;
+        private final IntToDoubleFunction values;
+        private final double min;
+        private final double max;
+
+        private RangeCriterion(ZoneMap.Metric metric, IntToDoubleFunction values, double min, double max) {
+            this.metric = metric;
+            this.values = values;
+            this.min = min;
+            this.max = max;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.weather.data.store;
+
+import com.weather.data.entity.HistogramMetric;
+import com.weather.data.entity.WeatherDataEntity;
+import com.weather.data.model.WeatherData;
+import com.weather.data.repository.WeatherDataRepository;
+import com.weather.data.repository.WeatherStationDictionary;
+import com.weather.data.service.DatasetVersion;
+import com.weather.data.service.WeatherDataStatistics;
+import com.weather.data.service.WeatherStatisticsAccumulator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-memory columnar copy of the loaded observations, enabled with
+ * {@code weather.columnar.enabled}. Each station has its own immutable segment, and the segments
+ * are published together as one snapshot that is replaced in a single swap, so readers never see
+ * a half-loaded store. A load only rebuilds the segment of its station, so loads of different
+ * stations never wait for each other; they only retry the cheap swap when they race.
+ */
+@Component
+public class ColumnarWeatherStore {
+
+    @Value("${weather.columnar.enabled:false}")
+    private boolean enabled;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    @Autowired
+    private WeatherDataRepository weatherDataRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${weather.columnar.fetch-size:1000}")
+    private int fetchSize;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    // Serializes appends of the same station, so none of them rebuilds from a stale segment
+    private final ConcurrentMap<String, Object> appendLocks = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Snapshot of the segment of one station; empty for a station that was never loaded.
+     */
+    public WeatherColumns getColumns(String station) {
+        String key = WeatherStationDictionary.lookupKey(station);
+        WeatherColumns segment = key != null ? snapshot.get().segments.get(key) : null;
+        return segment != null ? segment : WeatherColumns.EMPTY;
+    }
+
+    /**
+     * Segments by station lookup key, as of the latest published snapshot.
+     */
+    public Map<String, WeatherColumns> getSegments() {
+        return snapshot.get().segments;
+    }
+
+    public String getStationName(String key) {
+        return snapshot.get().stationNames.get(key);
+    }
+
+    public int size() {
+        return snapshot.get().size();
+    }
+
+    public WeatherDataStatistics statistics() {
+        WeatherStatisticsAccumulator accumulator = new WeatherStatisticsAccumulator();
+        for (WeatherColumns segment : snapshot.get().segments.values()) {
+            accumulator.merge(WeatherStatisticsAccumulator.of(segment.aggregate(0, segment.size())));
+            for (HistogramMetric metric : HistogramMetric.values()) {
+                accumulator.getHistogram(metric).merge(segment.histogram(metric, 0, segment.size()));
+            }
+        }
+        return accumulator.toStatistics();
+    }
+
+    /**
+     * Replaces the whole store with the given rows, one segment per station.
+     */
+    public void load(List<WeatherData> weatherDataList) {
+        Map<String, WeatherColumns.Builder> builders = new HashMap<>();
+        Map<String, String> names = new HashMap<>();
+        for (WeatherData data : weatherDataList) {
+            add(builders, names, data);
+        }
+        replace(builders, names);
+    }
+
+    /**
+     * Replaces the whole store with every row of weather_data, so it matches the table however
+     * many earlier runs filled a persistent database. Rows are read through a database cursor
+     * and detached once copied; newly inserted rows are added with {@link #append} afterwards.
+     */
+    public void loadFromDatabase() {
+        Map<String, WeatherColumns.Builder> builders = new HashMap<>();
+        Map<String, String> names = new HashMap<>();
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readOnlyTransaction.execute(status -> {
+            try (Stream<WeatherDataEntity> rows = weatherDataRepository.streamAll(null, Sort.by("id"), fetchSize)) {
+                rows.forEachOrdered(entity -> {
+                    add(builders, names, toWeatherData(entity));
+                    entityManager.detach(entity);
+                });
+            }
+            return null;
+        });
+        replace(builders, names);
+    }
+
+    /**
+     * Adds newly inserted rows to the segments of their stations.
+     */
+    public void append(List<WeatherData> weatherDataList) {
+        Map<String, WeatherColumns.Builder> builders = new LinkedHashMap<>();
+        Map<String, String> names = new HashMap<>();
+        for (WeatherData data : weatherDataList) {
+            add(builders, names, data);
+        }
+        for (Map.Entry<String, WeatherColumns.Builder> builder : builders.entrySet()) {
+            append(names.get(builder.getKey()), builder.getValue().build());
+        }
+    }
+
+    private static void add(Map<String, WeatherColumns.Builder> builders, Map<String, String> names, WeatherData data) {
+        String key = WeatherStationDictionary.lookupKey(data.getStation());
+        builders.computeIfAbsent(key, k -> new WeatherColumns.Builder()).append(data);
+        names.putIfAbsent(key, data.getStation().trim());
+    }
+
+    private void replace(Map<String, WeatherColumns.Builder> builders, Map<String, String> names) {
+        Map<String, WeatherColumns> loaded = new HashMap<>();
+        for (Map.Entry<String, WeatherColumns.Builder> builder : builders.entrySet()) {
+            loaded.put(builder.getKey(), builder.getValue().build());
+        }
+        snapshot.set(new Snapshot(loaded, names));
+        published();
+    }
+
+    private static WeatherData toWeatherData(WeatherDataEntity entity) {
+        WeatherData data = new WeatherData();
+        data.setId(entity.getId());
+        data.setStation(entity.getStation());
+        data.setDatetimeUtc(entity.getDatetimeUtc());
+        data.setConditions(entity.getConditions());
+        data.setDewptm(entity.getDewptm());
+        data.setFog(entity.getFog());
+        data.setHail(entity.getHail());
+        data.setHeatindexm(entity.getHeatindexm());
+        data.setHumidity(entity.getHumidity());
+        data.setPrecipm(entity.getPrecipm());
+        data.setPressurem(entity.getPressurem());
+        data.setRain(entity.getRain());
+        data.setSnow(entity.getSnow());
+        data.setTempm(entity.getTempm());
+        data.setThunder(entity.getThunder());
+        data.setTornado(entity.getTornado());
+        data.setVisibility(entity.getVisibility());
+        data.setWindDirection(entity.getWindDirection());
+        data.setWindDirectionName(entity.getWindDirectionName());
+        data.setWindGustm(entity.getWindGustm());
+        data.setWindchillm(entity.getWindchillm());
+        data.setWspdm(entity.getWspdm());
+        return data;
+    }
+
+    /**
+     * Adds newly loaded rows of one station to its segment, re-sorting by time; the first load of
+     * a station is published as is. Only appends of the same station wait for each other.
+     */
+    public void append(String station, WeatherColumns loaded) {
+        if (loaded.size() == 0) {
+            return;
+        }
+        String key = WeatherStationDictionary.lookupKey(station);
+        synchronized (appendLocks.computeIfAbsent(key, k -> new Object())) {
+            WeatherColumns base = null;
+            WeatherColumns merged = null;
+            while (true) {
+                Snapshot current = snapshot.get();
+                WeatherColumns segment = current.segments.get(key);
+                // Only a concurrent load can replace this station's segment meanwhile
+                if (merged == null || segment != base) {
+                    base = segment;
+                    merged = merge(segment, loaded);
+                }
+                if (snapshot.compareAndSet(current, current.with(key, station.trim(), merged))) {
+                    break;
+                }
+            }
+        }
+        published();
+    }
+
+    private static WeatherColumns merge(WeatherColumns current, WeatherColumns loaded) {
+        if (current == null || current.size() == 0) {
+            return loaded;
+        }
+        return new WeatherColumns.Builder().appendAll(current).appendAll(loaded).build();
+    }
+
+    private void published() {
+        datasetVersion.bump();
+        Snapshot current = snapshot.get();
+        long bytes = 0;
+        for (WeatherColumns segment : current.segments.values()) {
+            bytes += segment.sizeInBytes();
+        }
+        System.out.println("Columnar store holds " + current.size() + " records of " + current.segments.size()
+                + " stations in " + String.format("%.1f MB", bytes / (1024.0 * 1024.0)));
+    }
+
+    /**
+     * Immutable segments and station names (as first loaded), both by station lookup key.
+     */
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(new HashMap<>(), new HashMap<>());
+
+        private final Map<String, WeatherColumns> segments;
+        private final Map<String, String> stationNames;
+
+        private Snapshot(Map<String, WeatherColumns> segments, Map<String, String> stationNames) {
+            this.segments = Collections.unmodifiableMap(segments);
+            this.stationNames = Collections.unmodifiableMap(stationNames);
+        }
+
+        private Snapshot with(String key, String stationName, WeatherColumns segment) {
+            Map<String, WeatherColumns> newSegments = new HashMap<>(segments);
+            newSegments.put(key, segment);
+            Map<String, String> newNames = new HashMap<>(stationNames);
+            newNames.putIfAbsent(key, stationName);
+            return new Snapshot(newSegments, newNames);
+        }
+
+        private int size() {
+            int size = 0;
+            for (WeatherColumns segment : segments.values()) {
+                size += segment.size();
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.weather.data.store;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Dictionary-encoded text column: each row stores the int code of its value, with
+ * {@link StringDictionary#NULL_CODE} for missing values.
+ */
+public final class DictionaryColumn {
+
+    private final int[] codes;
+    private final StringDictionary dictionary;
+
+    private DictionaryColumn(int[] codes, StringDictionary dictionary) {
+        this.codes = codes;
+        this.dictionary = dictionary;
+    }
+
+    public int getCode(int row) {
+        return codes[row];
+    }
+
+    public String get(int row) {
+        return dictionary.decode(codes[row]);
+    }
+
+    public StringDictionary getDictionary() {
+        return dictionary;
+    }
+
+    int[] codes() {
+        return codes;
+    }
+
+    long sizeInBytes() {
+        return 4L * codes.length;
+    }
+
+    static final class Builder {
+        private final StringDictionary dictionary = new StringDictionary();
+        private int[] codes = new int[1024];
+        private int size;
+
+        void append(String value) {
+            if (size == codes.length) {
+                codes = Arrays.copyOf(codes, size * 2);
+            }
+            codes[size++] = dictionary.encode(value);
+        }
+
+        // Copies the rows of a built column, translating its codes once per distinct value
+        void appendAll(DictionaryColumn column) {
+            List<String> values = column.dictionary.values();
+            int[] translated = new int[values.size()];
+            for (int code = 0; code < translated.length; code++) {
+                translated[code] = dictionary.encode(values.get(code));
+            }
+            int count = column.codes.length;
+            if (size + count > codes.length) {
+                codes = Arrays.copyOf(codes, Math.max(size * 2, size + count));
+            }
+            for (int row = 0; row < count; row++) {
+                int code = column.codes[row];
+                codes[size++] = code == StringDictionary.NULL_CODE ? code : translated[code];
+            }
+        }
+
+        DictionaryColumn build(int[] order) {
+            int[] builtCodes = new int[size];
+            for (int row = 0; row < size; row++) {
+                builtCodes[row] = codes[order != null ? order[row] : row];
+            }
+            return new DictionaryColumn(builtCodes, dictionary);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.weather.data.store;
+
+import java.util.Arrays;
+
+/**
+ * Nullable int column stored as a primitive array plus a null bitmap. Missing values hold 0 in
+ * the value array.
+ */
+public final class IntColumn {
+
+    private final int[] values;
+    private final long[] nulls;
+
+    private IntColumn(int[] values, long[] nulls) {
+        this.values = values;
+        this.nulls = nulls;
+    }
+
+    public boolean isNull(int row) {
+        return NullMask.isSet(nulls, row);
+    }
+
+    public int get(int row) {
+        return values[row];
+    }
+
+    public Integer getBoxed(int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    int[] values() {
+        return values;
+    }
+
+    long sizeInBytes() {
+        return 4L * values.length + 8L * nulls.length;
+    }
+
+    static final class Builder {
+        private int[] values = new int[1024];
+        private long[] nulls = NullMask.create(1024);
+        private int size;
+
+        void append(Integer value) {
+            if (size == values.length) {
+                grow(size * 2);
+            }
+            if (value == null) {
+                NullMask.set(nulls, size);
+            } else {
+                values[size] = value;
+            }
+            size++;
+        }
+
+        // Copies the rows of a built column, its values with one array copy
+        void appendAll(IntColumn column) {
+            int count = column.values.length;
+            if (size + count > values.length) {
+                grow(Math.max(size * 2, size + count));
+            }
+            System.arraycopy(column.values, 0, values, size, count);
+            NullMask.copy(column.nulls, count, nulls, size);
+            size += count;
+        }
+
+        private void grow(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+            nulls = NullMask.grow(nulls, capacity);
+        }
+
+        IntColumn build(int[] order) {
+            int[] builtValues = new int[size];
+            long[] builtNulls = NullMask.create(size);
+            for (int row = 0; row < size; row++) {
+                int source = order != null ? order[row] : row;
+                builtValues[row] = values[source];
+                if (NullMask.isSet(nulls, source)) {
+                    NullMask.set(builtNulls, row);
+                }
+            }
+            return new IntColumn(builtValues, builtNulls);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.weather.data.store;
+
+import java.util.Arrays;
+
+/**
+ * Bitmap marking the rows whose value is missing, used instead of boxing nullable columns.
+ */
+final class NullMask {
+
+    private NullMask() {
+    }
+
+    static long[] create(int capacity) {
+        return new long[(capacity + 63) >>> 6];
+    }
+
+    static long[] grow(long[] mask, int capacity) {
+        return Arrays.copyOf(mask, (capacity + 63) >>> 6);
+    }
+
+    static void set(long[] mask, int row) {
+        mask[row >>> 6] |= 1L << row;
+    }
+
+    static boolean isSet(long[] mask, int row) {
+        return (mask[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Sets the rows marked in the first {@code count} rows of {@code source} in {@code target},
+     * shifted by {@code offset}, visiting only the set bits.
+     */
+    static void copy(long[] source, int count, long[] target, int offset) {
+        for (int word = 0; word < source.length; word++) {
+            for (long bits = source[word]; bits != 0; bits &= bits - 1) {
+                int row = (word << 6) + Long.numberOfTrailingZeros(bits);
+                if (row >= count) {
+                    return;
+                }
+                set(target, offset + row);
+            }
+        }
+    }
+}
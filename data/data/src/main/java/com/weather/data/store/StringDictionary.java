@@ -0,0 +1,50 @@
+package com.weather.data.store;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns small integer codes to the distinct values of a low-cardinality text column.
+ */
+public class StringDictionary {
+
+    public static final int NULL_CODE = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    public int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    /**
+     * Returns the code of a known value, or {@link #NULL_CODE} when the value never occurred.
+     */
+    public int lookup(String value) {
+        Integer code = value != null ? codes.get(value) : null;
+        return code != null ? code : NULL_CODE;
+    }
+
+    public String decode(int code) {
+        return code == NULL_CODE ? null : values.get(code);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public List<String> values() {
+        return values;
+    }
+}
@@ -0,0 +1,474 @@
+package com.weather.data.store;
+
+import com.weather.data.entity.HistogramMetric;
+import com.weather.data.model.WeatherData;
+import com.weather.data.repository.WeatherDataAggregate;
+import com.weather.data.service.MetricHistogram;
+import com.weather.data.service.WeatherStatisticsAccumulator.MetricAccumulator;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Immutable, read-optimized columnar copy of the weather observations, ordered by time.
+ *
+ * Each column is a primitive array: timestamps as epoch minutes, nullable numbers with a null
+ * bitmap instead of boxing, and conditions and wind direction names dictionary-encoded. A
+ * {@link ZoneMap} over blocks of rows lets range queries skip blocks without reading them, and a
+ * {@link BitmapIndex} answers event and condition criteria without reading rows at all.
+ */
+public final class WeatherColumns {
+
+    public static final WeatherColumns EMPTY = new Builder().build();
+
+    private final int size;
+    private final long[] epochMinutes;
+    // Database ids, 0 where the row was not inserted by this process
+    private final long[] ids;
+    private final DictionaryColumn conditions;
+    private final DoubleColumn dewptm;
+    private final IntColumn fog;
+    private final IntColumn hail;
+    private final DoubleColumn heatindexm;
+    private final IntColumn humidity;
+    private final DoubleColumn precipm;
+    private final DoubleColumn pressurem;
+    private final IntColumn rain;
+    private final IntColumn snow;
+    private final DoubleColumn tempm;
+    private final IntColumn thunder;
+    private final IntColumn tornado;
+    private final DoubleColumn visibility;
+    private final IntColumn windDirection;
+    private final DictionaryColumn windDirectionName;
+    private final DoubleColumn windGustm;
+    private final DoubleColumn windchillm;
+    private final DoubleColumn wspdm;
+    private final ZoneMap zoneMap;
+    private final BitmapIndex bitmapIndex;
+
+    private WeatherColumns(Builder builder, int[] order) {
+        size = builder.size;
+        epochMinutes = new long[size];
+        ids = new long[size];
+        for (int row = 0; row < size; row++) {
+            int source = order != null ? order[row] : row;
+            epochMinutes[row] = builder.epochMinutes[source];
+            ids[row] = builder.ids[source];
+        }
+        conditions = builder.conditions.build(order);
+        dewptm = builder.dewptm.build(order);
+        fog = builder.fog.build(order);
+        hail = builder.hail.build(order);
+        heatindexm = builder.heatindexm.build(order);
+        humidity = builder.humidity.build(order);
+        precipm = builder.precipm.build(order);
+        pressurem = builder.pressurem.build(order);
+        rain = builder.rain.build(order);
+        snow = builder.snow.build(order);
+        tempm = builder.tempm.build(order);
+        thunder = builder.thunder.build(order);
+        tornado = builder.tornado.build(order);
+        visibility = builder.visibility.build(order);
+        windDirection = builder.windDirection.build(order);
+        windDirectionName = builder.windDirectionName.build(order);
+        windGustm = builder.windGustm.build(order);
+        windchillm = builder.windchillm.build(order);
+        wspdm = builder.wspdm.build(order);
+        zoneMap = new ZoneMap(this);
+        bitmapIndex = new BitmapIndex(this);
+    }
+
+    public static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    public static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getEpochMinute(int row) {
+        return epochMinutes[row];
+    }
+
+    /**
+     * Database id of the row, or null when it is not known.
+     */
+    public Long getId(int row) {
+        return ids[row] != 0 ? ids[row] : null;
+    }
+
+    /**
+     * First row at or after {@code epochMinute}, or {@link #size()} if there is none.
+     */
+    public int lowerBound(long epochMinute) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (epochMinutes[middle] < epochMinute) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    public LocalDateTime getDatetimeUtc(int row) {
+        return fromEpochMinute(epochMinutes[row]);
+    }
+
+    /**
+     * Materializes one row back into the boxed model.
+     */
+    public WeatherData toWeatherData(int row) {
+        WeatherData data = new WeatherData();
+        data.setId(getId(row));
+        data.setDatetimeUtc(getDatetimeUtc(row));
+        data.setConditions(conditions.get(row));
+        data.setDewptm(dewptm.getBoxed(row));
+        data.setFog(fog.getBoxed(row));
+        data.setHail(hail.getBoxed(row));
+        data.setHeatindexm(heatindexm.getBoxed(row));
+        data.setHumidity(humidity.getBoxed(row));
+        data.setPrecipm(precipm.getBoxed(row));
+        data.setPressurem(pressurem.getBoxed(row));
+        data.setRain(rain.getBoxed(row));
+        data.setSnow(snow.getBoxed(row));
+        data.setTempm(tempm.getBoxed(row));
+        data.setThunder(thunder.getBoxed(row));
+        data.setTornado(tornado.getBoxed(row));
+        data.setVisibility(visibility.getBoxed(row));
+        data.setWindDirection(windDirection.getBoxed(row));
+        data.setWindDirectionName(windDirectionName.get(row));
+        data.setWindGustm(windGustm.getBoxed(row));
+        data.setWindchillm(windchillm.getBoxed(row));
+        data.setWspdm(wspdm.getBoxed(row));
+        return data;
+    }
+
+    /**
+     * Computes the statistics of rows {@code [from, to)} with one tight loop per column.
+     */
+    public WeatherDataAggregate aggregate(int from, int to) {
+        MetricAccumulator temperature = accumulate(tempm, from, to);
+        MetricAccumulator humidityMetric = new MetricAccumulator();
+        int[] humidityValues = humidity.values();
+        for (int row = from; row < to; row++) {
+            if (!humidity.isNull(row)) {
+                humidityMetric.accept(humidityValues[row]);
+            }
+        }
+
+        return new WeatherDataAggregate(to - from,
+                temperature.getCount(), temperature.getSum(), temperature.getSumOfSquares(),
+                temperature.getMin(), temperature.getMax(),
+                humidityMetric.getCount(), humidityMetric.getSum(), humidityMetric.getSumOfSquares(),
+                humidityMetric.getMin(), humidityMetric.getMax(),
+                countFlag(rain, from, to), countFlag(snow, from, to),
+                countFlag(thunder, from, to), countFlag(fog, from, to));
+    }
+
+    /**
+     * Histogram of one metric over rows {@code [from, to)}.
+     */
+    public MetricHistogram histogram(HistogramMetric metric, int from, int to) {
+        MetricHistogram histogram = new MetricHistogram(metric);
+        if (metric == HistogramMetric.HUMIDITY) {
+            int[] values = humidity.values();
+            for (int row = from; row < to; row++) {
+                if (!humidity.isNull(row)) {
+                    histogram.accept(values[row]);
+                }
+            }
+            return histogram;
+        }
+        DoubleColumn column = metric == HistogramMetric.TEMPERATURE ? tempm : wspdm;
+        double[] values = column.values();
+        for (int row = from; row < to; row++) {
+            if (!column.isNull(row)) {
+                histogram.accept(values[row]);
+            }
+        }
+        return histogram;
+    }
+
+    private static MetricAccumulator accumulate(DoubleColumn column, int from, int to) {
+        MetricAccumulator metric = new MetricAccumulator();
+        double[] values = column.values();
+        for (int row = from; row < to; row++) {
+            if (!column.isNull(row)) {
+                metric.accept(values[row]);
+            }
+        }
+        return metric;
+    }
+
+    // Missing flags hold 0, so no null check is needed
+    private static long countFlag(IntColumn column, int from, int to) {
+        int[] values = column.values();
+        long count = 0;
+        for (int row = from; row < to; row++) {
+            count += values[row] == 1 ? 1 : 0;
+        }
+        return count;
+    }
+
+    public long sizeInBytes() {
+        return 16L * epochMinutes.length + zoneMap.sizeInBytes() + bitmapIndex.sizeInBytes()
+                + conditions.sizeInBytes() + dewptm.sizeInBytes() + fog.sizeInBytes() + hail.sizeInBytes()
+                + heatindexm.sizeInBytes() + humidity.sizeInBytes() + precipm.sizeInBytes()
+                + pressurem.sizeInBytes() + rain.sizeInBytes() + snow.sizeInBytes() + tempm.sizeInBytes()
+                + thunder.sizeInBytes() + tornado.sizeInBytes() + visibility.sizeInBytes()
+                + windDirection.sizeInBytes() + windDirectionName.sizeInBytes() + windGustm.sizeInBytes()
+                + windchillm.sizeInBytes() + wspdm.sizeInBytes();
+    }
+
+    public ZoneMap getZoneMap() {
+        return zoneMap;
+    }
+
+    public BitmapIndex getBitmapIndex() {
+        return bitmapIndex;
+    }
+
+    /**
+     * The 0/1 column of an event in {@link com.weather.data.specification.EventExpression#EVENTS}.
+     */
+    public IntColumn getFlag(String event) {
+        switch (event) {
+            case "rain":
+                return rain;
+            case "snow":
+                return snow;
+            case "thunder":
+                return thunder;
+            case "fog":
+                return fog;
+            case "hail":
+                return hail;
+            case "tornado":
+                return tornado;
+            default:
+                throw new IllegalArgumentException("Unknown event: " + event);
+        }
+    }
+
+    public DictionaryColumn getConditions() {
+        return conditions;
+    }
+
+    public DoubleColumn getDewptm() {
+        return dewptm;
+    }
+
+    public IntColumn getFog() {
+        return fog;
+    }
+
+    public IntColumn getHail() {
+        return hail;
+    }
+
+    public DoubleColumn getHeatindexm() {
+        return heatindexm;
+    }
+
+    public IntColumn getHumidity() {
+        return humidity;
+    }
+
+    public DoubleColumn getPrecipm() {
+        return precipm;
+    }
+
+    public DoubleColumn getPressurem() {
+        return pressurem;
+    }
+
+    public IntColumn getRain() {
+        return rain;
+    }
+
+    public IntColumn getSnow() {
+        return snow;
+    }
+
+    public DoubleColumn getTempm() {
+        return tempm;
+    }
+
+    public IntColumn getThunder() {
+        return thunder;
+    }
+
+    public IntColumn getTornado() {
+        return tornado;
+    }
+
+    public DoubleColumn getVisibility() {
+        return visibility;
+    }
+
+    public IntColumn getWindDirection() {
+        return windDirection;
+    }
+
+    public DictionaryColumn getWindDirectionName() {
+        return windDirectionName;
+    }
+
+    public DoubleColumn getWindGustm() {
+        return windGustm;
+    }
+
+    public DoubleColumn getWindchillm() {
+        return windchillm;
+    }
+
+    public DoubleColumn getWspdm() {
+        return wspdm;
+    }
+
+    /**
+     * Appends rows in arrival order; {@link #build()} sorts them by time if they arrived out of order.
+     */
+    public static final class Builder {
+        private long[] epochMinutes = new long[1024];
+        private long[] ids = new long[1024];
+        private int size;
+        private boolean sorted = true;
+
+        private final DictionaryColumn.Builder conditions = new DictionaryColumn.Builder();
+        private final DoubleColumn.Builder dewptm = new DoubleColumn.Builder();
+        private final IntColumn.Builder fog = new IntColumn.Builder();
+        private final IntColumn.Builder hail = new IntColumn.Builder();
+        private final DoubleColumn.Builder heatindexm = new DoubleColumn.Builder();
+        private final IntColumn.Builder humidity = new IntColumn.Builder();
+        private final DoubleColumn.Builder precipm = new DoubleColumn.Builder();
+        private final DoubleColumn.Builder pressurem = new DoubleColumn.Builder();
+        private final IntColumn.Builder rain = new IntColumn.Builder();
+        private final IntColumn.Builder snow = new IntColumn.Builder();
+        private final DoubleColumn.Builder tempm = new DoubleColumn.Builder();
+        private final IntColumn.Builder thunder = new IntColumn.Builder();
+        private final IntColumn.Builder tornado = new IntColumn.Builder();
+        private final DoubleColumn.Builder visibility = new DoubleColumn.Builder();
+        private final IntColumn.Builder windDirection = new IntColumn.Builder();
+        private final DictionaryColumn.Builder windDirectionName = new DictionaryColumn.Builder();
+        private final DoubleColumn.Builder windGustm = new DoubleColumn.Builder();
+        private final DoubleColumn.Builder windchillm = new DoubleColumn.Builder();
+        private final DoubleColumn.Builder wspdm = new DoubleColumn.Builder();
+
+        public Builder append(WeatherData data) {
+            if (size == epochMinutes.length) {
+                epochMinutes = Arrays.copyOf(epochMinutes, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            long epochMinute = toEpochMinute(data.getDatetimeUtc());
+            if (size > 0 && epochMinute < epochMinutes[size - 1]) {
+                sorted = false;
+            }
+            ids[size] = data.getId() != null ? data.getId() : 0;
+            epochMinutes[size++] = epochMinute;
+
+            conditions.append(data.getConditions());
+            dewptm.append(data.getDewptm());
+            fog.append(data.getFog());
+            hail.append(data.getHail());
+            heatindexm.append(data.getHeatindexm());
+            humidity.append(data.getHumidity());
+            precipm.append(data.getPrecipm());
+            pressurem.append(data.getPerssurem());
+            rain.append(data.getRain());
+            snow.append(data.getSnow());
+            tempm.append(data.getTempm());
+            thunder.append(data.getThunder());
+            tornado.append(data.getTornado());
+            visibility.append(data.getVisibility());
+            windDirection.append(data.getWindDirection());
+            windDirectionName.append(data.getWindDirectionName());
+            windGustm.append(data.getWindGustm());
+            windchillm.append(data.getWindchillm());
+            wspdm.append(data.getWspdm());
+            return this;
+        }
+
+        /**
+         * Appends every row of a built segment, copying its columns array by array instead of
+         * materializing each row.
+         */
+        public Builder appendAll(WeatherColumns columns) {
+            int count = columns.size;
+            if (count == 0) {
+                return this;
+            }
+            if (size + count > epochMinutes.length) {
+                int capacity = Math.max(size * 2, size + count);
+                epochMinutes = Arrays.copyOf(epochMinutes, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+            }
+            // A built segment is in time order, so only its first row can break the order
+            if (size > 0 && columns.epochMinutes[0] < epochMinutes[size - 1]) {
+                sorted = false;
+            }
+            System.arraycopy(columns.epochMinutes, 0, epochMinutes, size, count);
+            System.arraycopy(columns.ids, 0, ids, size, count);
+            size += count;
+
+            conditions.appendAll(columns.conditions);
+            dewptm.appendAll(columns.dewptm);
+            fog.appendAll(columns.fog);
+            hail.appendAll(columns.hail);
+            heatindexm.appendAll(columns.heatindexm);
+            humidity.appendAll(columns.humidity);
+            precipm.appendAll(columns.precipm);
+            pressurem.appendAll(columns.pressurem);
+            rain.appendAll(columns.rain);
+            snow.appendAll(columns.snow);
+            tempm.appendAll(columns.tempm);
+            thunder.appendAll(columns.thunder);
+            tornado.appendAll(columns.tornado);
+            visibility.appendAll(columns.visibility);
+            windDirection.appendAll(columns.windDirection);
+            windDirectionName.appendAll(columns.windDirectionName);
+            windGustm.appendAll(columns.windGustm);
+            windchillm.appendAll(columns.windchillm);
+            wspdm.appendAll(columns.wspdm);
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public WeatherColumns build() {
+            return new WeatherColumns(this, sorted ? null : timeOrder());
+        }
+
+        /**
+         * Stable time ordering of the rows, sorting (time offset, row) pairs packed into longs.
+         */
+        private int[] timeOrder() {
+            long min = Long.MAX_VALUE;
+            for (int row = 0; row < size; row++) {
+                min = Math.min(min, epochMinutes[row]);
+            }
+            long[] keys = new long[size];
+            for (int row = 0; row < size; row++) {
+                keys[row] = ((epochMinutes[row] - min) << 32) | row;
+            }
+            Arrays.sort(keys);
+            int[] order = new int[size];
+            for (int row = 0; row < size; row++) {
+                order[row] = (int) keys[row];
+            }
+            return order;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.weather.data.store;
+
+/**
+ * Per-block minimum and maximum of the range-filterable columns of a {@link WeatherColumns}
+ * snapshot. Rows are split into consecutive blocks of {@link #BLOCK_SIZE}; since rows are in time
+ * order, each block also covers one contiguous time span. A range predicate can skip a block whose
+ * values all fall outside the range, and accept one whose values all fall inside it, without
+ * looking at its rows.
+ */
+public final class ZoneMap {
+
+    public static final int BLOCK_SIZE = 1024;
+
+    /**
+     * Columns with zone maps.
+     */
+    public enum Metric {
+        TEMPERATURE, HUMIDITY, PRESSURE, WIND_SPEED, VISIBILITY
+    }
+
+    private final int size;
+    private final int blocks;
+    private final BlockRanges[] ranges = new BlockRanges[Metric.values().length];
+
+    ZoneMap(WeatherColumns columns) {
+        size = columns.size();
+        blocks = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        ranges[Metric.TEMPERATURE.ordinal()] = BlockRanges.of(columns.getTempm(), size, blocks);
+        ranges[Metric.HUMIDITY.ordinal()] = BlockRanges.of(columns.getHumidity(), size, blocks);
+        ranges[Metric.PRESSURE.ordinal()] = BlockRanges.of(columns.getPressurem(), size, blocks);
+        ranges[Metric.WIND_SPEED.ordinal()] = BlockRanges.of(columns.getWspdm(), size, blocks);
+        ranges[Metric.VISIBILITY.ordinal()] = BlockRanges.of(columns.getVisibility(), size, blocks);
+    }
+
+    public int blocks() {
+        return blocks;
+    }
+
+    public int blockStart(int block) {
+        return block * BLOCK_SIZE;
+    }
+
+    public int blockEnd(int block) {
+        return Math.min(size, (block + 1) * BLOCK_SIZE);
+    }
+
+    /**
+     * True when no row of the block can have a value of {@code metric} within {@code [min, max]};
+     * missing values never match a range.
+     */
+    public boolean excludes(int block, Metric metric, double min, double max) {
+        BlockRanges range = ranges[metric.ordinal()];
+        return range.present[block] == 0 || range.max[block] < min || range.min[block] > max;
+    }
+
+    /**
+     * True when every row of the block has a value of {@code metric} within {@code [min, max]}.
+     */
+    public boolean covers(int block, Metric metric, double min, double max) {
+        BlockRanges range = ranges[metric.ordinal()];
+        return range.present[block] == blockEnd(block) - blockStart(block)
+                && range.min[block] >= min && range.max[block] <= max;
+    }
+
+    long sizeInBytes() {
+        return ranges.length * 20L * blocks;
+    }
+
+    private static final class BlockRanges {
+        private final double[] min;
+        private final double[] max;
+        // Rows of the block with a value
+        private final int[] present;
+
+        private BlockRanges(int blocks) {
+            min = new double[blocks];
+            max = new double[blocks];
+            present = new int[blocks];
+        }
+
+        static BlockRanges of(DoubleColumn column, int size, int blocks) {
+            BlockRanges ranges = new BlockRanges(blocks);
+            double[] values = column.values();
+            for (int block = 0; block < blocks; block++) {
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                int present = 0;
+                for (int row = block * BLOCK_SIZE, end = Math.min(size, row + BLOCK_SIZE); row < end; row++) {
+                    if (!column.isNull(row)) {
+                        min = Math.min(min, values[row]);
+                        max = Math.max(max, values[row]);
+                        present++;
+                    }
+                }
+                ranges.set(block, min, max, present);
+            }
+            return ranges;
+        }
+
+        static BlockRanges of(IntColumn column, int size, int blocks) {
+            BlockRanges ranges = new BlockRanges(blocks);
+            int[] values = column.values();
+            for (int block = 0; block < blocks; block++) {
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                int present = 0;
+                for (int row = block * BLOCK_SIZE, end = Math.min(size, row + BLOCK_SIZE); row < end; row++) {
+                    if (!column.isNull(row)) {
+                        min = Math.min(min, values[row]);
+                        max = Math.max(max, values[row]);
+                        present++;
+                    }
+                }
+                ranges.set(block, min, max, present);
+            }
+            return ranges;
+        }
+
+        private void set(int block, double blockMin, double blockMax, int blockPresent) {
+            min[block] = blockMin;
+            max[block] = blockMax;
+            present[block] = blockPresent;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.weather.data.benchmark;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+/**
+ * Synthetic weather observations shaped like the station CSV exports, shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    static final String[] CONDITIONS = {"Smoke", "Haze", "Clear", "Mist", "Fog", "Rain", "Light Rain",
+            "Partly Cloudy", "Scattered Clouds", "Thunderstorm", "Widespread Dust", ""};
+    static final String[] WIND_DIRECTIONS = {"North", "NNE", "NE", "East", "SE", "South", "SW", "West",
+            "WNW", "NW", "Variable", ""};
+
+    private static final DateTimeFormatter csvDateTimeFormatter = DateTimeFormatter.ofPattern("yyyyMMdd-HH:mm");
+    private static final LocalDateTime FIRST_OBSERVATION = LocalDateTime.of(1996, 11, 1, 11, 0);
+
+    private BenchmarkData() {
+    }
+
+    static String[] csvLines(int count, Random random) {
+        String[] lines = new String[count];
+        LocalDateTime time = FIRST_OBSERVATION;
+        StringBuilder line = new StringBuilder(128);
+        for (int i = 0; i < count; i++) {
+            time = time.plusMinutes(30);
+            line.setLength(0);
+            line.append(csvDateTimeFormatter.format(time)).append(',')
+                    .append(CONDITIONS[random.nextInt(CONDITIONS.length)]).append(',')
+                    .append(optional(random, random.nextInt(34) - 5)).append(',')
+                    .append(flag(random, 0.05)).append(",0,")
+                    .append(random.nextDouble() < 0.7 ? "" : String.valueOf(20 + random.nextInt(25))).append(',')
+                    .append(optional(random, 10 + random.nextInt(91))).append(",,")
+                    .append(random.nextDouble() < 0.05 ? "-9999" : String.valueOf(995 + random.nextInt(25))).append(',')
+                    .append(flag(random, 0.1)).append(",0,")
+                    .append(optional(random, 5 + random.nextInt(40) + (random.nextBoolean() ? 0.5 : 0))).append(',')
+                    .append(flag(random, 0.03)).append(",0,")
+                    .append(random.nextDouble() < 0.02 ? "N/A" : String.valueOf(0.5 * random.nextInt(12))).append(',')
+                    .append(optional(random, random.nextInt(361))).append(',')
+                    .append(WIND_DIRECTIONS[random.nextInt(WIND_DIRECTIONS.length)]).append(",,,")
+                    .append(optional(random, 3.7 * random.nextInt(6)));
+            lines[i] = line.toString();
+        }
+        return lines;
+    }
+
+    private static String optional(Random random, Object value) {
+        return random.nextDouble() < 0.1 ? "" : String.valueOf(value);
+    }
+
+    private static int flag(Random random, double probability) {
+        return random.nextDouble() < probability ? 1 : 0;
+    }
+}
@@ -0,0 +1,137 @@
+package com.weather.data.benchmark;
+
+import com.weather.data.model.WeatherData;
+import com.weather.data.parser.WeatherDataLineParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single-pass {@link WeatherDataLineParser} with the previous split/trim/parse
+ * implementation of CsvProcessorService.parseWeatherDataLine.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=CsvLineParserBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvLineParserBenchmark {
+
+    private static final int LINES = 1000;
+
+    private String[] lines;
+    private WeatherDataLineParser parser;
+
+    @Setup
+    public void setUp() {
+        lines = BenchmarkData.csvLines(LINES, new Random(42));
+        parser = new WeatherDataLineParser();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void legacySplitParser(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(LegacyLineParser.parse(line));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void singlePassParser(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(parser.parse(line));
+        }
+    }
+
+    /**
+     * The split-based parser that CsvProcessorService used before the single-pass parser.
+     */
+    static final class LegacyLineParser {
+
+        private static final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyyMMdd-HH:mm");
+
+        static WeatherData parse(String line) {
+            try {
+                String[] parts = line.split(",", -1);
+                if (parts.length < 20) {
+                    return null;
+                }
+
+                WeatherData data = new WeatherData();
+                data.setDatetimeUtc(LocalDateTime.parse(parts[0].trim(), dateTimeFormatter));
+                data.setConditions(parseString(parts[1]));
+                data.setDewptm(parseDouble(parts[2]));
+                data.setFog(parseInteger(parts[3]));
+                data.setHail(parseInteger(parts[4]));
+                data.setHeatindexm(parseDouble(parts[5]));
+                data.setHumidity(parseInteger(parts[6]));
+                data.setPrecipm(parseDouble(parts[7]));
+                Double pressure = parseDouble(parts[8]);
+                if (pressure != null && pressure != -9999) {
+                    data.setPressurem(pressure);
+                }
+                data.setRain(parseInteger(parts[9]));
+                data.setSnow(parseInteger(parts[10]));
+                data.setTempm(parseDouble(parts[11]));
+                data.setThunder(parseInteger(parts[12]));
+                data.setTornado(parseInteger(parts[13]));
+                data.setVisibility(parseDouble(parts[14]));
+                data.setWindDirection(parseInteger(parts[15]));
+                data.setWindDirectionName(parseString(parts[16]));
+                data.setWindGustm(parseDouble(parts[17]));
+                data.setWindchillm(parseDouble(parts[18]));
+                data.setWspdm(parseDouble(parts[19]));
+                return data;
+            } catch (Exception e) {
+                return null;
+            }
+        }
+
+        private static String parseString(String value) {
+            String trimmed = value.trim();
+            return trimmed.isEmpty() ? null : trimmed;
+        }
+
+        private static Double parseDouble(String value) {
+            String trimmed = value.trim();
+            if (trimmed.isEmpty()) {
+                return null;
+            }
+            try {
+                return Double.parseDouble(trimmed);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static Integer parseInteger(String value) {
+            String trimmed = value.trim();
+            if (trimmed.isEmpty()) {
+                return null;
+            }
+            try {
+                return Integer.parseInt(trimmed);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.weather.data.benchmark;
+
+import com.weather.data.model.WeatherData;
+import com.weather.data.parser.WeatherDataLineParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the SQL that representative /search requests translate to against a large synthetic
+ * weather_data table, with and without the indexes declared on WeatherDataEntity. Each query
+ * fetches one page of 100 rows plus the COUNT(*) Spring Data issues for the page total.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=SearchQueryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchQueryBenchmark {
+
+    private static final String[] INDEXES = {
+            "CREATE INDEX idx_weather_data_condition_id ON weather_data (condition_id)",
+            "CREATE INDEX idx_weather_data_datetime_tempm ON weather_data (datetime_utc, tempm)",
+            "CREATE INDEX idx_weather_data_tempm ON weather_data (tempm)",
+            "CREATE INDEX idx_weather_data_humidity ON weather_data (humidity)",
+            "CREATE INDEX idx_weather_data_pressurem ON weather_data (pressurem)",
+            "CREATE INDEX idx_weather_data_rain ON weather_data (rain)",
+            "CREATE INDEX idx_weather_data_snow ON weather_data (snow)",
+            "CREATE INDEX idx_weather_data_thunder ON weather_data (thunder)",
+            "CREATE INDEX idx_weather_data_fog ON weather_data (fog)",
+            "CREATE INDEX idx_weather_data_hail ON weather_data (hail)"
+    };
+
+    @Param({"500000"})
+    public int rows;
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    private Connection connection;
+    private LocalDateTime firstObservation;
+    private int smokeConditionId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        // H2 otherwise returns the cached result of a repeated query on an unchanged table
+        connection = DriverManager.getConnection("jdbc:h2:mem:search-benchmark-" + indexed
+                + ";DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE weather_data (id BIGINT PRIMARY KEY, datetime_utc TIMESTAMP NOT NULL, "
+                    + "conditions VARCHAR(50), condition_id INT, dewptm DOUBLE, fog INT, hail INT, heatindexm DOUBLE, humidity INT, "
+                    + "precipm DOUBLE, pressurem DOUBLE, rain INT, snow INT, tempm DOUBLE, thunder INT, tornado INT, "
+                    + "visibility DOUBLE, wind_direction INT, wind_direction_name VARCHAR(10), wind_gustm DOUBLE, "
+                    + "windchillm DOUBLE, wspdm DOUBLE)");
+            if (indexed) {
+                for (String index : INDEXES) {
+                    statement.execute(index);
+                }
+            }
+        }
+        load();
+    }
+
+    private void load() throws SQLException {
+        WeatherDataLineParser parser = new WeatherDataLineParser();
+        Map<String, Integer> conditionIds = new HashMap<>();
+        String[] lines = BenchmarkData.csvLines(rows, new Random(42));
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO weather_data (id, datetime_utc, "
+                + "conditions, condition_id, dewptm, fog, hail, humidity, pressurem, rain, snow, tempm, thunder, tornado, "
+                + "visibility, wspdm) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < lines.length; i++) {
+                WeatherData data = parser.parse(lines[i]);
+                if (i == 0) {
+                    firstObservation = data.getDatetimeUtc();
+                }
+                insert.setLong(1, i + 1);
+                insert.setTimestamp(2, Timestamp.valueOf(data.getDatetimeUtc()));
+                insert.setObject(3, data.getConditions());
+                insert.setObject(4, data.getConditions() != null
+                        ? conditionIds.computeIfAbsent(data.getConditions().toLowerCase(), key -> conditionIds.size() + 1)
+                        : null);
+                insert.setObject(5, data.getDewptm());
+                insert.setObject(6, data.getFog());
+                insert.setObject(7, data.getHail());
+                insert.setObject(8, data.getHumidity());
+                insert.setObject(9, data.getPerssurem());
+                insert.setObject(10, data.getRain());
+                insert.setObject(11, data.getSnow());
+                insert.setObject(12, data.getTempm());
+                insert.setObject(13, data.getThunder());
+                insert.setObject(14, data.getTornado());
+                insert.setObject(15, data.getVisibility());
+                insert.setObject(16, data.getWspdm());
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        smokeConditionId = conditionIds.get("smoke");
+        connection.commit();
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+        connection.close();
+    }
+
+    /** /search?startDate=..&endDate=.. (one month) sorted by datetime */
+    @Benchmark
+    public void dateRangeSortedByDate(Blackhole blackhole) throws SQLException {
+        LocalDateTime start = firstObservation.plusYears(5);
+        page(blackhole, "datetime_utc >= ? AND datetime_utc <= ?", "datetime_utc ASC",
+                Timestamp.valueOf(start), Timestamp.valueOf(start.plusMonths(1)));
+    }
+
+    /** /search?startDate=..&endDate=..&minTemp=40 (one year) sorted by datetime */
+    @Benchmark
+    public void dateAndTemperatureRange(Blackhole blackhole) throws SQLException {
+        LocalDateTime start = firstObservation.plusYears(10);
+        page(blackhole, "datetime_utc >= ? AND datetime_utc <= ? AND tempm >= ?", "datetime_utc ASC",
+                Timestamp.valueOf(start), Timestamp.valueOf(start.plusYears(1)), 40.0);
+    }
+
+    /** /temperature?minTemp=44&maxTemp=50 sorted by temperature descending */
+    @Benchmark
+    public void temperatureRangeSortedByTemperature(Blackhole blackhole) throws SQLException {
+        page(blackhole, "tempm >= ? AND tempm <= ?", "tempm DESC", 44.0, 50.0);
+    }
+
+    /** /humidity?minHumidity=95&maxHumidity=100 sorted by humidity descending */
+    @Benchmark
+    public void humidityRange(Blackhole blackhole) throws SQLException {
+        page(blackhole, "humidity >= ? AND humidity <= ?", "humidity DESC", 95, 100);
+    }
+
+    /** /search?minPressure=1018 sorted by pressure */
+    @Benchmark
+    public void pressureRangeSortedByPressure(Blackhole blackhole) throws SQLException {
+        page(blackhole, "pressurem >= ?", "pressurem ASC", 1018.0);
+    }
+
+    /** /conditions/smoke sorted by datetime */
+    @Benchmark
+    public void conditionEquality(Blackhole blackhole) throws SQLException {
+        page(blackhole, "condition_id = ?", "datetime_utc ASC", smokeConditionId);
+    }
+
+    /** /events/thunder sorted by datetime */
+    @Benchmark
+    public void weatherEvent(Blackhole blackhole) throws SQLException {
+        page(blackhole, "thunder = ?", "datetime_utc ASC", 1);
+    }
+
+    private void page(Blackhole blackhole, String where, String orderBy, Object... parameters) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT * FROM weather_data WHERE " + where + " ORDER BY " + orderBy + " LIMIT 100")) {
+            bind(query, parameters);
+            try (ResultSet resultSet = query.executeQuery()) {
+                while (resultSet.next()) {
+                    blackhole.consume(resultSet.getLong(1));
+                }
+            }
+        }
+        try (PreparedStatement count = connection.prepareStatement("SELECT COUNT(*) FROM weather_data WHERE " + where)) {
+            bind(count, parameters);
+            try (ResultSet resultSet = count.executeQuery()) {
+                resultSet.next();
+                blackhole.consume(resultSet.getLong(1));
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement statement, Object... parameters) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            statement.setObject(i + 1, parameters[i]);
+        }
+    }
+}
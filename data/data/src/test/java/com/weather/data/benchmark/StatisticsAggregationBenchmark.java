@@ -0,0 +1,86 @@
+package com.weather.data.benchmark;
+
+import com.weather.data.model.WeatherData;
+import com.weather.data.service.WeatherDataStatistics;
+import com.weather.data.service.WeatherStatisticsAccumulator;
+import com.weather.data.service.WeatherStatisticsTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the sequential stream aggregation of CsvProcessorService.analyzeWeatherData with the
+ * fork-join {@link WeatherStatisticsTask} over in-memory lists of observations. The speedup is
+ * bounded by the cores of the machine running it.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=StatisticsAggregationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StatisticsAggregationBenchmark {
+
+    @Param({"100000", "1000000", "10000000"})
+    public int rows;
+
+    @Param({"20000"})
+    public int threshold;
+
+    private List<WeatherData> dataList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Readings are shared boxes, as parsed values would be, to keep 10M rows within the heap
+        Double[] temperatures = new Double[81];
+        for (int i = 0; i < temperatures.length; i++) {
+            temperatures[i] = 5 + i * 0.5;
+        }
+        Integer[] humidities = new Integer[91];
+        for (int i = 0; i < humidities.length; i++) {
+            humidities[i] = 10 + i;
+        }
+        Double[] windSpeeds = {0.0, 3.7, 7.4, 11.1, 14.8};
+        Integer[] flags = {0, 1};
+
+        Random random = new Random(42);
+        dataList = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            WeatherData data = new WeatherData();
+            data.setTempm(random.nextInt(10) == 0 ? null : temperatures[random.nextInt(temperatures.length)]);
+            data.setHumidity(random.nextInt(10) == 0 ? null : humidities[random.nextInt(humidities.length)]);
+            data.setWspdm(random.nextInt(10) == 0 ? null : windSpeeds[random.nextInt(windSpeeds.length)]);
+            data.setRain(flags[random.nextDouble() < 0.1 ? 1 : 0]);
+            data.setSnow(flags[0]);
+            data.setThunder(flags[random.nextDouble() < 0.03 ? 1 : 0]);
+            data.setFog(flags[random.nextDouble() < 0.05 ? 1 : 0]);
+            dataList.add(data);
+        }
+    }
+
+    @Benchmark
+    public WeatherDataStatistics sequential() {
+        return dataList.stream().collect(WeatherStatisticsAccumulator.collector()).toStatistics();
+    }
+
+    @Benchmark
+    public WeatherDataStatistics forkJoin() {
+        return WeatherStatisticsTask.aggregate(dataList, threshold).toStatistics();
+    }
+}
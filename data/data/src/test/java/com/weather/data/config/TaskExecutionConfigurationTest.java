@@ -0,0 +1,26 @@
+package com.weather.data.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "weather.ingest.on-startup=false")
+class TaskExecutionConfigurationTest {
+
+	@Autowired
+	private RequestMappingHandlerAdapter handlerAdapter;
+
+	@Autowired
+	private ThreadPoolTaskExecutor applicationTaskExecutor;
+
+	@Test
+	void asyncRequestsRunOnTheApplicationTaskExecutor() {
+		assertThat(ReflectionTestUtils.getField(handlerAdapter, "taskExecutor")).isSameAs(applicationTaskExecutor);
+		assertThat(applicationTaskExecutor.getThreadNamePrefix()).isEqualTo("task-");
+	}
+}
@@ -0,0 +1,44 @@
+package com.weather.data.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngestControllerTest {
+
+	private final IngestController controller = new IngestController();
+
+	@TempDir
+	Path root;
+
+	@Test
+	void serverFilesCannotBeLoadedWithoutAnIngestDirectory() {
+		ReflectionTestUtils.setField(controller, "ingestDirectory", "");
+
+		ResponseEntity<Map<String, Object>> response = controller.ingestServerFile("/etc/passwd", "DEFAULT");
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+	}
+
+	@Test
+	void rejectsPathsOutsideTheIngestDirectory() throws Exception {
+		Path directory = Files.createDirectory(root.resolve("ingest"));
+		Path outside = Files.write(root.resolve("secret.csv"), "datetime_utc\n".getBytes());
+		Files.createSymbolicLink(directory.resolve("link.csv"), outside);
+		ReflectionTestUtils.setField(controller, "ingestDirectory", directory.toString());
+
+		for (String path : new String[]{outside.toString(), "../secret.csv", "link.csv", "missing.csv"}) {
+			ResponseEntity<Map<String, Object>> response = controller.ingestServerFile(path, "DEFAULT");
+
+			assertThat(response.getStatusCode()).as(path).isEqualTo(HttpStatus.BAD_REQUEST);
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.weather.data.controller;
+
+import com.weather.data.model.WeatherData;
+import com.weather.data.service.CsvProcessorService;
+import com.weather.data.specification.WeatherDataFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "weather.ingest.on-startup=false")
+class WeatherDataControllerTest {
+
+	@Autowired
+	private WeatherDataController controller;
+
+	@Autowired
+	private CsvProcessorService csvProcessorService;
+
+	@Test
+	void keysetSearchRejectsABadEventExpression() {
+		WeatherDataFilter filter = new WeatherDataFilter();
+		filter.setEventExpr("fog AND");
+
+		ResponseEntity<Map<String, Object>> response =
+				controller.searchWeatherData(filter, "datetime", "ASC", 0, 100, "", true, null);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(response.getBody()).containsKey("error");
+	}
+
+	@Test
+	void keysetSearchRejectsABadDate() {
+		WeatherDataFilter filter = new WeatherDataFilter();
+		filter.setStartDate("yesterday");
+
+		ResponseEntity<Map<String, Object>> response =
+				controller.searchWeatherData(filter, "datetime", "ASC", 0, 100, "", true, null);
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(response.getBody()).containsKey("error");
+	}
+
+	@Test
+	void downsamplesOneStation() {
+		List<WeatherData> rows = new ArrayList<>();
+		for (int hour = 0; hour < 4; hour++) {
+			WeatherData data = new WeatherData();
+			data.setStation(hour % 2 == 0 ? "Downsample East" : "Downsample West");
+			data.setDatetimeUtc(LocalDateTime.of(1990, 1, 1, hour, 0));
+			data.setTempm((double) hour);
+			rows.add(data);
+		}
+		csvProcessorService.saveWeatherDataToDatabase(rows);
+
+		ResponseEntity<Map<String, Object>> east = downsample("Downsample East");
+		ResponseEntity<Map<String, Object>> all = downsample(null);
+
+		assertThat(east.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(east.getBody()).containsEntry("sourcePoints", 2L);
+		assertThat(all.getBody()).containsEntry("sourcePoints", 4L);
+		assertThat(east.getHeaders().getETag()).isNotEqualTo(all.getHeaders().getETag());
+		assertThat(downsample("Nowhere").getBody()).containsEntry("sourcePoints", 0L);
+	}
+
+	private ResponseEntity<Map<String, Object>> downsample(String station) {
+		return controller.getDownsampledSeries("tempm", station, "1990-01-01 00:00", "1990-01-01 23:59", 100, "lttb",
+				new ServletWebRequest(new MockHttpServletRequest()));
+	}
+}
@@ -0,0 +1,101 @@
+package com.weather.data.parser;
+
+import com.weather.data.model.WeatherData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedCsvReaderTest {
+
+	private static final int CHUNK_SIZE = 64 * 1024;
+	private static final String HEADER = "datetime_utc, _conds, _dewptm, _fog, _hail, _heatindexm, _hum, _precipm, "
+			+ "_pressurem, _rain, _snow, _tempm, _thunder, _tornado, _vism, _wdird, _wdire, _wgustm, _windchillm, _wspdm";
+	private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HH:mm");
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+	private final MappedCsvReader reader = new MappedCsvReader(executor, 4, CHUNK_SIZE);
+
+	@TempDir
+	Path directory;
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void keepsEveryRowInOrderAcrossChunkBoundaries() throws IOException {
+		Path file = write("chunks.csv", "\n", "Haze", 5000);
+		assertThat(Files.size(file)).isGreaterThan(3L * CHUNK_SIZE);
+
+		List<WeatherData> rows = reader.read(file);
+
+		assertThat(windSpeeds(rows)).isEqualTo(sequence(5000));
+	}
+
+	@Test
+	void stripsCarriageReturnsOfCrlfFiles() throws IOException {
+		Path file = write("crlf.csv", "\r\n", "Haze", 5000);
+
+		List<WeatherData> rows = reader.read(file);
+
+		assertThat(windSpeeds(rows)).isEqualTo(sequence(5000));
+		assertThat(rows).allSatisfy(row -> assertThat(row.getConditions()).isEqualTo("Haze"));
+	}
+
+	@Test
+	void growsTheChunkForALineLongerThanIt() throws IOException {
+		String longCondition = String.join("", Collections.nCopies(3 * CHUNK_SIZE, "x"));
+		Path file = write("long.csv", "\n", longCondition, 3);
+
+		List<WeatherData> rows = reader.read(file);
+
+		assertThat(windSpeeds(rows)).isEqualTo(sequence(3));
+		assertThat(rows.get(0).getConditions()).hasSize(3 * CHUNK_SIZE);
+		assertThat(rows.get(1).getConditions()).isEqualTo("Haze");
+	}
+
+	/**
+	 * Writes a header and {@code rows} data rows whose wind speed is their index; the first row
+	 * has the given condition, the others "Haze".
+	 */
+	private Path write(String name, String newline, String firstCondition, int rows) throws IOException {
+		LocalDateTime time = LocalDateTime.of(1996, 11, 1, 11, 0);
+		StringBuilder csv = new StringBuilder(HEADER).append(newline);
+		for (int i = 0; i < rows; i++) {
+			csv.append(time.plusMinutes(i).format(TIMESTAMP)).append(',')
+					.append(i == 0 ? firstCondition : "Haze")
+					.append(",-1,0,0,,58,,1010,0,0,29,1,0,3,117,South,,,").append(i).append(newline);
+		}
+		Path file = directory.resolve(name);
+		Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static List<Double> windSpeeds(List<WeatherData> rows) {
+		return rows.stream().map(WeatherData::getWspdm).collect(Collectors.toList());
+	}
+
+	private static List<Double> sequence(int count) {
+		List<Double> values = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			values.add((double) i);
+		}
+		return values;
+	}
+}
@@ -0,0 +1,73 @@
+package com.weather.data.parser;
+
+import com.weather.data.model.WeatherData;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeatherDataLineParserTest {
+
+	private final WeatherDataLineParser parser = new WeatherDataLineParser();
+
+	@Test
+	void parsesAllFields() {
+		WeatherData data = parser.parse("19961101-11:00, Smoke ,9,0,0,,27,,1010,0,0,30.5,0,0,5,280,West,,,7.4");
+
+		assertThat(data).isNotNull();
+		assertThat(data.getDatetimeUtc()).isEqualTo(LocalDateTime.of(1996, 11, 1, 11, 0));
+		assertThat(data.getConditions()).isEqualTo("Smoke");
+		assertThat(data.getDewptm()).isEqualTo(9.0);
+		assertThat(data.getFog()).isEqualTo(0);
+		assertThat(data.getHeatindexm()).isNull();
+		assertThat(data.getHumidity()).isEqualTo(27);
+		assertThat(data.getPerssurem()).isEqualTo(1010.0);
+		assertThat(data.getTempm()).isEqualTo(30.5);
+		assertThat(data.getVisibility()).isEqualTo(5.0);
+		assertThat(data.getWindDirection()).isEqualTo(280);
+		assertThat(data.getWindDirectionName()).isEqualTo("West");
+		assertThat(data.getWindGustm()).isNull();
+		assertThat(data.getWspdm()).isEqualTo(7.4);
+	}
+
+	@Test
+	void treatsPlaceholdersAsMissing() {
+		WeatherData data = parser.parse("20000229-23:59,,N/A,1.5,,-,x,,-9999,,,-0.25,,,.5,,,,1e2,");
+
+		assertThat(data).isNotNull();
+		assertThat(data.getDatetimeUtc()).isEqualTo(LocalDateTime.of(2000, 2, 29, 23, 59));
+		assertThat(data.getConditions()).isNull();
+		assertThat(data.getDewptm()).isNull();
+		assertThat(data.getFog()).isNull();
+		assertThat(data.getHeatindexm()).isNull();
+		assertThat(data.getHumidity()).isNull();
+		assertThat(data.getPerssurem()).isNull();
+		assertThat(data.getTempm()).isEqualTo(-0.25);
+		assertThat(data.getVisibility()).isEqualTo(0.5);
+		assertThat(data.getWindchillm()).isEqualTo(100.0);
+		assertThat(data.getWspdm()).isNull();
+	}
+
+	@Test
+	void matchesDoubleParsingExactly() {
+		String[] values = {"0", "1013.25", "-12.345", "0.1", "123456.789012345", "99999999999999999.5", "3.14159e-3"};
+		for (String value : values) {
+			assertThat(WeatherDataLineParser.parseDouble(value, 0, value.length()))
+					.isEqualTo(Double.parseDouble(value));
+		}
+	}
+
+	@Test
+	void rejectsShortAndMalformedLines() {
+		assertThat(parser.parse("19961101-11:00,Smoke,9")).isNull();
+		assertThat(parser.parse("datetime_utc, _conds, _dewptm, _fog, _hail, _heatindexm, _hum, _precipm, _pressurem, "
+				+ "_rain, _snow, _tempm, _thunder, _tornado, _vism, _wdird, _wdire, _wgustm, _windchillm, _wspdm")).isNull();
+	}
+
+	@Test
+	void fallsBackToFormatterOutsidePlainCalendarRanges() {
+		assertThat(WeatherDataLineParser.parseDateTime("19990231-10:00", 0, 14))
+				.isEqualTo(LocalDateTime.of(1999, 2, 28, 10, 0));
+	}
+}
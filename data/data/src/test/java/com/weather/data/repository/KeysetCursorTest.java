@@ -0,0 +1,54 @@
+package com.weather.data.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+	@Test
+	void roundTripsEverySortValueType() {
+		KeysetCursor first = KeysetCursor.first("tempm", Sort.Direction.DESC);
+
+		for (Object value : new Object[]{null, 12.5, 7, "Haze|Fog", LocalDateTime.of(1996, 11, 1, 11, 30)}) {
+			KeysetCursor decoded = KeysetCursor.decode(first.after(value, 42L).encode(), "tempm", Sort.Direction.DESC);
+
+			assertThat(decoded.isFirstPage()).isFalse();
+			assertThat(decoded.getLastId()).isEqualTo(42L);
+			assertThat(decoded.getLastValue()).isEqualTo(value);
+			assertThat(decoded.getDirection()).isEqualTo(Sort.Direction.DESC);
+		}
+	}
+
+	@Test
+	void emptyTokenStartsAtTheFirstPage() {
+		assertThat(KeysetCursor.decode(null, "id", Sort.Direction.ASC).isFirstPage()).isTrue();
+		assertThat(KeysetCursor.decode("", "id", Sort.Direction.ASC).isFirstPage()).isTrue();
+	}
+
+	@Test
+	void rejectsATokenIssuedForAnotherOrdering() {
+		String token = KeysetCursor.first("tempm", Sort.Direction.ASC).after(12.5, 42L).encode();
+
+		assertThatThrownBy(() -> KeysetCursor.decode(token, "humidity", Sort.Direction.ASC))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("sortBy=tempm");
+		assertThatThrownBy(() -> KeysetCursor.decode(token, "tempm", Sort.Direction.DESC))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("sortDir=ASC");
+	}
+
+	@Test
+	void rejectsMalformedTokens() {
+		assertThatThrownBy(() -> KeysetCursor.decode("not a token!", "id", Sort.Direction.ASC))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageStartingWith("Invalid cursor");
+		assertThatThrownBy(() -> KeysetCursor.decode("aWR8QVNDfHh8aTE", "id", Sort.Direction.ASC))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageStartingWith("Invalid cursor");
+	}
+}
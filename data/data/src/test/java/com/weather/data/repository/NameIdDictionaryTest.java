@@ -0,0 +1,86 @@
+package com.weather.data.repository;
+
+import com.weather.data.service.DatasetVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NameIdDictionaryTest {
+
+	private final DatasetVersion datasetVersion = new DatasetVersion();
+	private final Map<String, Integer> table = new HashMap<>();
+	private final AtomicInteger lookups = new AtomicInteger();
+	private final NameIdDictionary dictionary = new NameIdDictionary(
+			key -> {
+				lookups.incrementAndGet();
+				return Optional.ofNullable(table.get(key));
+			},
+			(name, key) -> {
+				table.put(key, table.size() + 1);
+				return table.get(key);
+			},
+			new NoOpTransactionManager(), datasetVersion) {
+	};
+
+	@Test
+	void remembersUnknownNamesUntilTheGenerationMoves() {
+		assertThat(dictionary.findId("Atlantis")).isNull();
+		assertThat(dictionary.findId(" atlantis ")).isNull();
+		assertThat(lookups.get()).isEqualTo(1);
+
+		table.put("atlantis", 7);
+		assertThat(dictionary.findId("Atlantis")).isNull();
+
+		datasetVersion.bump();
+		assertThat(dictionary.findId("Atlantis")).isEqualTo(7);
+		assertThat(dictionary.findId("Atlantis")).isEqualTo(7);
+		assertThat(lookups.get()).isEqualTo(2);
+	}
+
+	@Test
+	void resolveRegistersANameRememberedAsMissing() {
+		assertThat(dictionary.findId("Fog")).isNull();
+
+		Integer id = dictionary.resolve("Fog");
+
+		assertThat(id).isNotNull();
+		assertThat(dictionary.findId("fog")).isEqualTo(id);
+		assertThat(dictionary.resolve(" FOG")).isEqualTo(id);
+		assertThat(table).hasSize(1);
+	}
+
+	@Test
+	void blankNamesHaveNoId() {
+		assertThat(dictionary.findId("  ")).isNull();
+		assertThat(dictionary.resolve(null)).isNull();
+		assertThat(lookups.get()).isZero();
+	}
+
+	private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+		@Override
+		protected Object doGetTransaction() {
+			return new Object();
+		}
+
+		@Override
+		protected void doBegin(Object transaction, TransactionDefinition definition) {
+		}
+
+		@Override
+		protected void doCommit(DefaultTransactionStatus status) {
+		}
+
+		@Override
+		protected void doRollback(DefaultTransactionStatus status) {
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package com.weather.data.repository;
+
+import com.weather.data.entity.WeatherDataEntity;
+import com.weather.data.model.WeatherData;
+import com.weather.data.service.CsvProcessorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "weather.ingest.on-startup=false")
+class WeatherDataRepositoryKeysetTest {
+
+	private static final String STATION = "Keyset";
+	private static final Double[] TEMPERATURES = {null, 20.0, null, 15.0, 20.0, 10.0, null, 20.0};
+
+	@Autowired
+	private WeatherDataRepository weatherDataRepository;
+
+	@Autowired
+	private WeatherStationDictionary weatherStationDictionary;
+
+	@Autowired
+	private CsvProcessorService csvProcessorService;
+
+	private Specification<WeatherDataEntity> station;
+
+	@BeforeEach
+	void setUp() {
+		List<WeatherData> rows = new ArrayList<>();
+		for (int i = 0; i < TEMPERATURES.length; i++) {
+			WeatherData data = new WeatherData();
+			data.setStation(STATION);
+			data.setDatetimeUtc(LocalDateTime.of(2001, 1, 1, i, 0));
+			data.setTempm(TEMPERATURES[i]);
+			rows.add(data);
+		}
+		csvProcessorService.saveWeatherDataToDatabase(rows);
+		Integer stationId = weatherStationDictionary.findId(STATION);
+		station = (root, query, cb) -> cb.equal(root.get("stationId"), stationId);
+	}
+
+	@Test
+	void pagesAscendingWithNullsFirst() {
+		Comparator<WeatherDataEntity> order = Comparator
+				.comparing(WeatherDataEntity::getTempm, Comparator.nullsFirst(Comparator.<Double>naturalOrder()))
+				.thenComparing(WeatherDataEntity::getId);
+
+		assertThat(pageThrough(Sort.Direction.ASC)).isEqualTo(expectedIds(order));
+	}
+
+	@Test
+	void pagesDescendingWithNullsLast() {
+		Comparator<WeatherDataEntity> order = Comparator
+				.comparing(WeatherDataEntity::getTempm, Comparator.nullsFirst(Comparator.<Double>naturalOrder()))
+				.thenComparing(WeatherDataEntity::getId)
+				.reversed();
+
+		assertThat(pageThrough(Sort.Direction.DESC)).isEqualTo(expectedIds(order));
+	}
+
+	/**
+	 * Reads every page of two rows, passing the cursor through its token like a client would.
+	 */
+	private List<Long> pageThrough(Sort.Direction direction) {
+		List<Long> ids = new ArrayList<>();
+		KeysetCursor cursor = KeysetCursor.first("tempm", direction);
+		while (true) {
+			Slice<WeatherDataEntity> slice = weatherDataRepository.findSlice(station, cursor, 2);
+			slice.forEach(row -> ids.add(row.getId()));
+			if (!slice.hasNext()) {
+				return ids;
+			}
+			WeatherDataEntity last = slice.getContent().get(slice.getNumberOfElements() - 1);
+			cursor = KeysetCursor.decode(cursor.after(last).encode(), "tempm", direction);
+		}
+	}
+
+	private List<Long> expectedIds(Comparator<WeatherDataEntity> order) {
+		List<Long> ids = weatherDataRepository.findAll(station).stream()
+				.sorted(order)
+				.map(WeatherDataEntity::getId)
+				.collect(Collectors.toList());
+		assertThat(ids).hasSize(TEMPERATURES.length);
+		return ids;
+	}
+}
@@ -0,0 +1,115 @@
+package com.weather.data.service;
+
+import com.weather.data.entity.WeatherDataEntity;
+import com.weather.data.repository.WeatherDataRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+@SpringBootTest(properties = "weather.ingest.on-startup=false")
+class CsvProcessorServiceTest {
+
+	private static final String HEADER = "datetime_utc, _conds, _dewptm, _fog, _hail, _heatindexm, _hum, _precipm, "
+			+ "_pressurem, _rain, _snow, _tempm, _thunder, _tornado, _vism, _wdird, _wdire, _wgustm, _windchillm, _wspdm\n";
+
+	@Autowired
+	private CsvProcessorService csvProcessorService;
+
+	@Autowired
+	private WeatherDataRepository weatherDataRepository;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void resumedLoadLeavesAPartialLastLineForTheNextLoad() throws Exception {
+		Path file = directory.resolve("appended.csv");
+		Files.write(file, (HEADER
+				+ "19961101-11:30,Clear,-1,0,0,,58,,1010,0,0,29,1,0,3,117,South,,,3.7\n"
+				+ "19961101-12:30,Haze,-1,0,0,,60,,1010,0,0,30,0,0,3,117,South,,,7.4\n"
+				+ "19961101-13:30,Haze,-1,0,0,,62,,1010,0,0,31,0,0,3,117,South,,,1").getBytes(StandardCharsets.UTF_8));
+
+		IngestProgress first = new IngestProgress();
+		csvProcessorService.processCsvFile(file, "Partial", first, true);
+
+		assertThat(first.getRowsPersisted()).isEqualTo(2);
+		assertThat(windSpeeds("Partial")).containsExactly(3.7, 7.4);
+
+		Files.write(file, ("2.5\n19961101-14:30,Haze,-1,0,0,,64,,1010,0,0,32,0,0,3,117,South,,,14.8\n")
+				.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+		IngestProgress second = new IngestProgress();
+		csvProcessorService.processCsvFile(file, "Partial", second, true);
+
+		assertThat(second.getRowsParsed()).isEqualTo(2);
+		assertThat(second.getRowsPersisted()).isEqualTo(2);
+		assertThat(windSpeeds("Partial")).containsExactly(3.7, 7.4, 12.5, 14.8);
+	}
+
+	@Test
+	void skipsTheHeaderWithoutParsingIt() throws Exception {
+		Path file = directory.resolve("header.csv");
+		Files.write(file, (HEADER
+				+ "19961101-11:30,Clear,-1,0,0,,58,,1010,0,0,29,1,0,3,117,South,,,3.7\n")
+				.getBytes(StandardCharsets.UTF_8));
+
+		ByteArrayOutputStream errors = new ByteArrayOutputStream();
+		PrintStream systemErr = System.err;
+		System.setErr(new PrintStream(errors, true));
+		IngestProgress progress = new IngestProgress();
+		try {
+			csvProcessorService.processCsvFile(file, "Header", progress, false);
+		} finally {
+			System.setErr(systemErr);
+		}
+
+		assertThat(progress.getRowsParsed()).isEqualTo(1);
+		assertThat(progress.getRowsRejected()).isZero();
+		assertThat(errors.toString()).doesNotContain("datetime_utc");
+	}
+
+	@Test
+	void readFailureStopsTheWriterInsteadOfHanging() {
+		BufferedReader failing = new BufferedReader(new StringReader(HEADER
+				+ "19961101-11:30,Clear,-1,0,0,,58,,1010,0,0,29,1,0,3,117,South,,,3.7\n")) {
+			private int lines;
+
+			@Override
+			public String readLine() throws IOException {
+				if (++lines > 2) {
+					throw new IOException("Disk went away");
+				}
+				return super.readLine();
+			}
+		};
+
+		assertTimeoutPreemptively(Duration.ofSeconds(30), () ->
+				assertThatThrownBy(() -> csvProcessorService.processCsvStreaming(failing, "Failing", new IngestProgress()))
+						.isInstanceOf(IOException.class).hasMessage("Disk went away"));
+	}
+
+	private List<Double> windSpeeds(String station) {
+		return weatherDataRepository.findAll().stream()
+				.filter(entity -> station.equals(entity.getStation()))
+				.sorted((a, b) -> a.getDatetimeUtc().compareTo(b.getDatetimeUtc()))
+				.map(WeatherDataEntity::getWspdm)
+				.collect(Collectors.toList());
+	}
+}
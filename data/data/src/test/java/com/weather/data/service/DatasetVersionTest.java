@@ -0,0 +1,27 @@
+package com.weather.data.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatasetVersionTest {
+
+	@Test
+	void tagChangesWithEachBump() {
+		DatasetVersion version = new DatasetVersion();
+		String before = version.getTag();
+
+		version.bump();
+
+		assertThat(version.getTag()).isNotEqualTo(before);
+	}
+
+	@Test
+	void tagsDifferAcrossRestartsAtTheSameGeneration() {
+		DatasetVersion first = new DatasetVersion();
+		DatasetVersion restarted = new DatasetVersion();
+
+		assertThat(first.getGeneration()).isEqualTo(restarted.getGeneration());
+		assertThat(first.getTag()).isNotEqualTo(restarted.getTag());
+	}
+}
@@ -0,0 +1,56 @@
+package com.weather.data.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DownsamplerTest {
+
+	@Test
+	void lttbKeepsEndpointsAndStaysWithinTarget() {
+		Downsampler downsampler = new Downsampler(Downsampler.Mode.LTTB, 0, 9999, 100);
+		for (int x = 0; x < 10000; x++) {
+			downsampler.accept(x, Math.sin(x / 100.0));
+		}
+
+		List<Downsampler.Point> points = downsampler.finish();
+		assertThat(downsampler.getInputCount()).isEqualTo(10000);
+		assertThat(points).hasSizeLessThanOrEqualTo(100).hasSizeGreaterThan(90);
+		assertThat(points.get(0).getX()).isEqualTo(0);
+		assertThat(points.get(points.size() - 1).getX()).isEqualTo(9999);
+		for (int i = 1; i < points.size(); i++) {
+			assertThat(points.get(i).getX()).isGreaterThan(points.get(i - 1).getX());
+		}
+	}
+
+	@Test
+	void lttbPicksTheSpikeOfABucket() {
+		Downsampler downsampler = new Downsampler(Downsampler.Mode.LTTB, 0, 99, 12);
+		for (int x = 0; x < 100; x++) {
+			downsampler.accept(x, x == 42 ? 50.0 : 0.0);
+		}
+
+		assertThat(downsampler.finish()).anySatisfy(point -> assertThat(point.getY()).isEqualTo(50.0));
+	}
+
+	@Test
+	void minMaxKeepsExtremesOfEachBucketInTimeOrder() {
+		Downsampler downsampler = new Downsampler(Downsampler.Mode.MINMAX, 0, 19, 4);
+		double[] values = {5, 1, 9, 3, 4, 4, 4, 4, 4, 4, 8, 2, 6, 6, 6, 6, 6, 6, 6, 7};
+		for (int x = 0; x < values.length; x++) {
+			downsampler.accept(x, values[x]);
+		}
+
+		List<Downsampler.Point> points = downsampler.finish();
+		assertThat(points).extracting(Downsampler.Point::getX).containsExactly(1L, 2L, 10L, 11L);
+		assertThat(points).extracting(Downsampler.Point::getY).containsExactly(1.0, 9.0, 8.0, 2.0);
+	}
+
+	@Test
+	void emptySeriesReturnsNoPoints() {
+		assertThat(new Downsampler(Downsampler.Mode.LTTB, 0, 10, 5).finish()).isEmpty();
+		assertThat(new Downsampler(Downsampler.Mode.MINMAX, 0, 10, 5).finish()).isEmpty();
+	}
+}
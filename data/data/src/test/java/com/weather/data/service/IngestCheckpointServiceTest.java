@@ -0,0 +1,80 @@
+package com.weather.data.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "weather.ingest.on-startup=false")
+class IngestCheckpointServiceTest {
+
+	@Autowired
+	private IngestCheckpointService ingestCheckpointService;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void resumesAnAppendedFileFromTheRecordedOffset() throws IOException {
+		Path file = write("appended.csv", "header\nrow 1\nrow 2\n");
+		record(file, "North", 19);
+
+		Files.write(file, "row 3\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+		assertThat(resumeOffset(file, "North")).isEqualTo(19);
+		assertThat(resumeOffset(file, "South")).isZero();
+	}
+
+	@Test
+	void startsOverWhenTheFileNoLongerMatches() throws IOException {
+		Path file = write("rewritten.csv", "header\nrow 1\nrow 2\n");
+		record(file, "North", 19);
+
+		write("rewritten.csv", "header\nrow X\nrow 2\nrow 3\n");
+		assertThat(resumeOffset(file, "North")).isZero();
+
+		write("rewritten.csv", "header\nrow 1\n");
+		assertThat(resumeOffset(file, "North")).isZero();
+	}
+
+	@Test
+	void findsTheEndOfTheLastCompleteLine() throws IOException {
+		byte[] bytes = new byte[20_000];
+		Arrays.fill(bytes, (byte) 'x');
+		bytes[100] = '\n';
+		Path file = directory.resolve("long.csv");
+		Files.write(file, bytes);
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			assertThat(IngestCheckpointService.lastLineEnd(channel, bytes.length)).isEqualTo(101);
+			assertThat(IngestCheckpointService.lastLineEnd(channel, 101)).isEqualTo(101);
+			assertThat(IngestCheckpointService.lastLineEnd(channel, 100)).isZero();
+		}
+	}
+
+	private Path write(String name, String content) throws IOException {
+		return Files.write(directory.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private void record(Path file, String station, long offset) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ingestCheckpointService.record(file, station, channel, offset);
+		}
+	}
+
+	private long resumeOffset(Path file, String station) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return ingestCheckpointService.resumeOffset(file, station, channel, channel.size());
+		}
+	}
+}
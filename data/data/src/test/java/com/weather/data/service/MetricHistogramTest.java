@@ -0,0 +1,60 @@
+package com.weather.data.service;
+
+import com.weather.data.entity.HistogramMetric;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricHistogramTest {
+
+	@Test
+	void quantilesAreExactAtTheBinResolution() {
+		Random random = new Random(11);
+		MetricHistogram histogram = new MetricHistogram(HistogramMetric.TEMPERATURE);
+		double[] values = new double[10_000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (random.nextInt(900) - 300) / 10.0;
+			histogram.accept(values[i]);
+		}
+		Arrays.sort(values);
+
+		for (double q : new double[]{0.01, 0.5, 0.9, 0.99, 1.0}) {
+			assertThat(histogram.quantile(q)).isEqualTo(values[(int) Math.ceil(q * values.length) - 1]);
+		}
+	}
+
+	@Test
+	void mergedChunksMatchOnePass() {
+		MetricHistogram whole = new MetricHistogram(HistogramMetric.WIND_SPEED);
+		MetricHistogram first = new MetricHistogram(HistogramMetric.WIND_SPEED);
+		MetricHistogram second = new MetricHistogram(HistogramMetric.WIND_SPEED);
+		for (int i = 0; i < 1000; i++) {
+			double value = (i % 150) * 0.1;
+			whole.accept(value);
+			(i < 400 ? first : second).accept(value);
+		}
+
+		first.merge(second);
+
+		assertThat(first.getCount()).isEqualTo(whole.getCount());
+		for (int bin = 0; bin < HistogramMetric.WIND_SPEED.getBinCount(); bin++) {
+			assertThat(first.getCount(bin)).isEqualTo(whole.getCount(bin));
+		}
+		assertThat(first.quantile(0.9)).isEqualTo(whole.quantile(0.9)).isEqualTo(13.3);
+	}
+
+	@Test
+	void clampsReadingsOutsideTheRangeAndReportsNothingWhenEmpty() {
+		MetricHistogram histogram = new MetricHistogram(HistogramMetric.HUMIDITY);
+		assertThat(histogram.quantile(0.5)).isNull();
+
+		histogram.accept(-5);
+		histogram.accept(140);
+
+		assertThat(histogram.quantile(0.5)).isEqualTo(0.0);
+		assertThat(histogram.quantile(0.99)).isEqualTo(100.0);
+	}
+}
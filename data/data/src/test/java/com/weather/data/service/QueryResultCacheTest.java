@@ -0,0 +1,86 @@
+package com.weather.data.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryResultCacheTest {
+
+	private final DatasetVersion datasetVersion = new DatasetVersion();
+	private final QueryResultCache cache = new QueryResultCache(true, 1000, 600);
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(cache, "datasetVersion", datasetVersion);
+	}
+
+	@Test
+	void reusesResultsUntilTheGenerationMoves() {
+		assertThat(load("statistics", "minTemp=20;")).isEqualTo(1);
+		assertThat(load("statistics", "minTemp=20;")).isEqualTo(1);
+		assertThat(load("statistics", "minTemp=25;")).isEqualTo(2);
+		assertThat(load("conditions", "minTemp=20;")).isEqualTo(3);
+
+		datasetVersion.bump();
+
+		assertThat(load("statistics", "minTemp=20;")).isEqualTo(4);
+		assertThat(cache.getStatistics().get("hitCount")).isEqualTo(1L);
+		assertThat(cache.getStatistics().get("entries")).isEqualTo(1L);
+	}
+
+	@Test
+	void olderGenerationsDoNotDropNewerEntries() {
+		AtomicLong generation = new AtomicLong(1);
+		ReflectionTestUtils.setField(cache, "datasetVersion", new DatasetVersion() {
+			@Override
+			public long getGeneration() {
+				return generation.get();
+			}
+		});
+		assertThat(load("statistics", "")).isEqualTo(1);
+
+		// A request that read the generation just before an ingest bumped it
+		generation.set(0);
+		assertThat(load("statistics", "")).isEqualTo(2);
+
+		generation.set(1);
+		assertThat(load("statistics", "")).isEqualTo(1);
+	}
+
+	@Test
+	void countsFiltersOncePerGenerationFromInsideALoader() {
+		AtomicInteger counts = new AtomicInteger();
+
+		long first = cache.get("events", "eventType=fog;", () -> cache.count("fog=true;", counts::incrementAndGet));
+		long second = cache.count("fog=true;", counts::incrementAndGet);
+		datasetVersion.bump();
+		long third = cache.count("fog=true;", counts::incrementAndGet);
+
+		assertThat(first).isEqualTo(1);
+		assertThat(second).isEqualTo(1);
+		assertThat(third).isEqualTo(2);
+	}
+
+	@Test
+	void weighsResponsesByTheRowsTheyHold() {
+		Map<String, Object> response = new HashMap<>();
+		response.put("totalRecords", 3L);
+		response.put("data", Arrays.asList("a", "b", "c"));
+
+		assertThat(QueryResultCache.weigh(response)).isEqualTo(4);
+		assertThat(QueryResultCache.weigh("scalar")).isEqualTo(1);
+	}
+
+	private int load(String endpoint, String parameters) {
+		return cache.get(endpoint, parameters, loads::incrementAndGet);
+	}
+}
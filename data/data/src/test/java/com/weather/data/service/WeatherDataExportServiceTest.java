@@ -0,0 +1,61 @@
+package com.weather.data.service;
+
+import com.weather.data.entity.WeatherDataEntity;
+import com.weather.data.model.WeatherData;
+import com.weather.data.repository.WeatherStationDictionary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "weather.ingest.on-startup=false")
+class WeatherDataExportServiceTest {
+
+	private static final String STATION = "Export, \"North\"";
+
+	@Autowired
+	private WeatherDataExportService weatherDataExportService;
+
+	@Autowired
+	private CsvProcessorService csvProcessorService;
+
+	@Autowired
+	private WeatherStationDictionary weatherStationDictionary;
+
+	@Test
+	void quotesCsvTextThatNeedsIt() {
+		csvProcessorService.saveWeatherDataToDatabase(Arrays.asList(
+				observation(0, "Haze"), observation(1, "Rain\nFog"), observation(2, "Mist\rSmoke")));
+		Integer stationId = weatherStationDictionary.findId(STATION);
+		Specification<WeatherDataEntity> station = (root, query, cb) -> cb.equal(root.get("stationId"), stationId);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		long rows = weatherDataExportService.export(station, Sort.by("datetimeUtc"),
+				WeatherDataExportService.Format.CSV, output);
+		String csv = new String(output.toByteArray(), StandardCharsets.UTF_8);
+
+		assertThat(rows).isEqualTo(3);
+		assertThat(csv).startsWith("id,station,datetimeUtc,conditions,");
+		assertThat(csv).contains(",\"Export, \"\"North\"\"\",2002-01-01T00:00:00,Haze,");
+		assertThat(csv).contains(",2002-01-01T01:00:00,\"Rain\nFog\",");
+		assertThat(csv).contains(",2002-01-01T02:00:00,\"Mist\rSmoke\",");
+		assertThat(csv).endsWith(",20.5\n");
+	}
+
+	private static WeatherData observation(int hour, String conditions) {
+		WeatherData data = new WeatherData();
+		data.setStation(STATION);
+		data.setDatetimeUtc(LocalDateTime.of(2002, 1, 1, hour, 0));
+		data.setConditions(conditions);
+		data.setWspdm(20.5);
+		return data;
+	}
+}
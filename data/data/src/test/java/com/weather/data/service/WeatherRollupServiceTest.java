@@ -0,0 +1,110 @@
+package com.weather.data.service;
+
+import com.weather.data.entity.HistogramMetric;
+import com.weather.data.entity.RollupGranularity;
+import com.weather.data.entity.WeatherRollupEntity;
+import com.weather.data.model.WeatherData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "weather.ingest.on-startup=false")
+class WeatherRollupServiceTest {
+
+	private static final LocalDateTime DAY = LocalDateTime.of(1980, 3, 1, 0, 0);
+
+	@Autowired
+	private WeatherRollupService weatherRollupService;
+
+	@Test
+	void mergesBatchesIntoExistingBuckets() {
+		weatherRollupService.addBatch(Arrays.asList(
+				observation(10, 0, 10.0, 50, null, 1),
+				observation(10, 30, 20.0, 60, null, 0)));
+		weatherRollupService.addBatch(Arrays.asList(
+				observation(10, 45, 5.0, null, null, 0),
+				observation(11, 0, 30.0, null, 2.5, 1)));
+
+		List<WeatherRollupEntity> hours = weatherRollupService.findRollups(RollupGranularity.HOUR, null, DAY, DAY.plusHours(23));
+		assertThat(hours).hasSize(2);
+		WeatherRollupEntity tenOClock = hours.get(0);
+		assertThat(tenOClock.getBucketStart()).isEqualTo(DAY.plusHours(10));
+		assertThat(tenOClock.getRecordCount()).isEqualTo(3);
+		assertThat(tenOClock.getTemperatureCount()).isEqualTo(3);
+		assertThat(tenOClock.getTemperatureSum()).isEqualTo(35.0);
+		assertThat(tenOClock.getTemperatureSumOfSquares()).isEqualTo(525.0);
+		assertThat(tenOClock.getTemperatureMin()).isEqualTo(5.0);
+		assertThat(tenOClock.getTemperatureMax()).isEqualTo(20.0);
+		assertThat(tenOClock.getHumidityCount()).isEqualTo(2);
+		assertThat(tenOClock.getHumidityMin()).isEqualTo(50.0);
+		assertThat(tenOClock.getHumidityMax()).isEqualTo(60.0);
+		assertThat(tenOClock.getPrecipitationCount()).isZero();
+		assertThat(tenOClock.getPrecipitationMin()).isNull();
+		assertThat(tenOClock.getRainCount()).isEqualTo(1);
+
+		List<WeatherRollupEntity> days = weatherRollupService.findRollups(RollupGranularity.DAY, null, DAY, DAY);
+		assertThat(days).hasSize(1);
+		WeatherRollupEntity day = days.get(0);
+		assertThat(day.getRecordCount()).isEqualTo(4);
+		assertThat(day.getTemperatureMin()).isEqualTo(5.0);
+		assertThat(day.getTemperatureMax()).isEqualTo(30.0);
+		// The first batch had no precipitation, so the merged bounds come from the second alone
+		assertThat(day.getPrecipitationMin()).isEqualTo(2.5);
+		assertThat(day.getPrecipitationMax()).isEqualTo(2.5);
+		assertThat(day.getHumidityMax()).isEqualTo(60.0);
+		assertThat(day.getRainCount()).isEqualTo(2);
+
+		MetricHistogram temperatures = weatherRollupService.findHistogram(HistogramMetric.TEMPERATURE,
+				RollupGranularity.DAY, null, DAY, DAY);
+		assertThat(temperatures.getCount()).isEqualTo(4);
+		assertThat(temperatures.quantile(0.0)).isEqualTo(5.0);
+		assertThat(temperatures.quantile(1.0)).isEqualTo(30.0);
+		assertThat(weatherRollupService.findRollups(RollupGranularity.MONTH, null, DAY, DAY))
+				.extracting(WeatherRollupEntity::getRecordCount).isEqualTo(Collections.singletonList(4L));
+	}
+
+	@Test
+	void keepsBucketsPerStationAndForAllStations() {
+		LocalDateTime day = LocalDateTime.of(1981, 6, 1, 0, 0);
+		WeatherData north = observation(8, 0, 10.0, null, null, 0);
+		north.setStation("Rollup North");
+		north.setDatetimeUtc(day.plusHours(8));
+		WeatherData south = observation(9, 0, 30.0, null, null, 1);
+		south.setStation("Rollup South");
+		south.setDatetimeUtc(day.plusHours(9));
+		weatherRollupService.addBatch(Arrays.asList(north, south));
+
+		assertThat(weatherRollupService.findRollups(RollupGranularity.DAY, null, day, day))
+				.extracting(WeatherRollupEntity::getRecordCount).containsExactly(2L);
+		List<WeatherRollupEntity> northDays = weatherRollupService.findRollups(RollupGranularity.DAY, "rollup north", day, day);
+		assertThat(northDays).extracting(WeatherRollupEntity::getRecordCount).containsExactly(1L);
+		assertThat(northDays.get(0).getTemperatureMax()).isEqualTo(10.0);
+		assertThat(northDays.get(0).getRainCount()).isZero();
+
+		MetricHistogram southTemperatures = weatherRollupService.findHistogram(HistogramMetric.TEMPERATURE,
+				RollupGranularity.DAY, "Rollup South", day, day);
+		assertThat(southTemperatures.getCount()).isEqualTo(1);
+		assertThat(southTemperatures.quantile(0.5)).isEqualTo(30.0);
+
+		assertThat(weatherRollupService.findRollups(RollupGranularity.DAY, "Nowhere", day, day)).isEmpty();
+		assertThat(weatherRollupService.findHistogram(HistogramMetric.TEMPERATURE, RollupGranularity.DAY, "Nowhere",
+				day, day).getCount()).isZero();
+	}
+
+	private static WeatherData observation(int hour, int minute, Double tempm, Integer humidity, Double precipm, int rain) {
+		WeatherData data = new WeatherData();
+		data.setDatetimeUtc(DAY.plusHours(hour).plusMinutes(minute));
+		data.setTempm(tempm);
+		data.setHumidity(humidity);
+		data.setPrecipm(precipm);
+		data.setRain(rain);
+		return data;
+	}
+}
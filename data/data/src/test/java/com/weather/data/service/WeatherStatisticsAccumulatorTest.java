@@ -0,0 +1,68 @@
+package com.weather.data.service;
+
+import com.weather.data.model.WeatherData;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class WeatherStatisticsAccumulatorTest {
+
+	@Test
+	void computesAllMetricsInOnePass() {
+		WeatherStatisticsAccumulator accumulator = new WeatherStatisticsAccumulator();
+		accumulator.accept(10.0, 40, null, 1, 0, null, 1);
+		accumulator.accept(20.0, null, null, 0, null, 1, 0);
+		accumulator.accept(null, 60, null, 1, 0, 0, null);
+
+		WeatherDataStatistics stats = accumulator.toStatistics();
+		assertThat(stats.getTotalRecords()).isEqualTo(3);
+		assertThat(stats.getAvgTemperature()).isEqualTo(15.0);
+		assertThat(stats.getMinTemperature()).isEqualTo(10.0);
+		assertThat(stats.getMaxTemperature()).isEqualTo(20.0);
+		assertThat(stats.getTemperatureStdDev()).isEqualTo(5.0);
+		assertThat(stats.getMissingTemperatureCount()).isEqualTo(1);
+		assertThat(stats.getAvgHumidity()).isEqualTo(50.0);
+		assertThat(stats.getMissingHumidityCount()).isEqualTo(1);
+		assertThat(stats.getRainCount()).isEqualTo(2);
+		assertThat(stats.getThunderCount()).isEqualTo(1);
+		assertThat(stats.getFogCount()).isEqualTo(1);
+	}
+
+	@Test
+	void emptyDatasetReportsZeroes() {
+		WeatherDataStatistics stats = new WeatherStatisticsAccumulator().toStatistics();
+		assertThat(stats.getAvgTemperature()).isEqualTo(0.0);
+		assertThat(stats.getMaxTemperature()).isEqualTo(0.0);
+		assertThat(stats.getMinTemperature()).isEqualTo(0.0);
+	}
+
+	@Test
+	void parallelMergeMatchesSequentialPass() {
+		Random random = new Random(7);
+		List<WeatherData> dataList = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			WeatherData data = new WeatherData();
+			data.setTempm(random.nextInt(10) == 0 ? null : random.nextInt(500) / 10.0);
+			data.setHumidity(random.nextInt(101));
+			data.setRain(random.nextInt(2));
+			data.setFog(random.nextInt(2));
+			dataList.add(data);
+		}
+
+		WeatherDataStatistics sequential = dataList.stream().collect(WeatherStatisticsAccumulator.collector()).toStatistics();
+		WeatherDataStatistics parallel = dataList.parallelStream().collect(WeatherStatisticsAccumulator.collector()).toStatistics();
+
+		assertThat(parallel.getTotalRecords()).isEqualTo(sequential.getTotalRecords());
+		assertThat(parallel.getAvgTemperature()).isCloseTo(sequential.getAvgTemperature(), within(1e-9));
+		assertThat(parallel.getTemperatureStdDev()).isCloseTo(sequential.getTemperatureStdDev(), within(1e-9));
+		assertThat(parallel.getMinTemperature()).isEqualTo(sequential.getMinTemperature());
+		assertThat(parallel.getMaxTemperature()).isEqualTo(sequential.getMaxTemperature());
+		assertThat(parallel.getRainCount()).isEqualTo(sequential.getRainCount());
+		assertThat(parallel.getFogCount()).isEqualTo(sequential.getFogCount());
+	}
+}
@@ -0,0 +1,45 @@
+package com.weather.data.service;
+
+import com.weather.data.model.WeatherData;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class WeatherStatisticsTaskTest {
+
+	@Test
+	void forkJoinMatchesSequentialPass() {
+		Random random = new Random(3);
+		List<WeatherData> dataList = new ArrayList<>();
+		for (int i = 0; i < 10_001; i++) {
+			WeatherData data = new WeatherData();
+			data.setTempm(random.nextInt(10) == 0 ? null : random.nextInt(500) / 10.0);
+			data.setHumidity(random.nextInt(101));
+			data.setWspdm(random.nextInt(150) / 10.0);
+			data.setThunder(random.nextInt(2));
+			dataList.add(data);
+		}
+
+		WeatherDataStatistics sequential = dataList.stream().collect(WeatherStatisticsAccumulator.collector()).toStatistics();
+
+		for (List<WeatherData> rows : Arrays.asList(dataList, new LinkedList<>(dataList))) {
+			WeatherDataStatistics forkJoin = WeatherStatisticsTask.aggregate(rows, 700).toStatistics();
+
+			assertThat(forkJoin.getTotalRecords()).isEqualTo(sequential.getTotalRecords());
+			assertThat(forkJoin.getMissingTemperatureCount()).isEqualTo(sequential.getMissingTemperatureCount());
+			assertThat(forkJoin.getAvgTemperature()).isCloseTo(sequential.getAvgTemperature(), within(1e-9));
+			assertThat(forkJoin.getTemperatureStdDev()).isCloseTo(sequential.getTemperatureStdDev(), within(1e-9));
+			assertThat(forkJoin.getMaxTemperature()).isEqualTo(sequential.getMaxTemperature());
+			assertThat(forkJoin.getThunderCount()).isEqualTo(sequential.getThunderCount());
+			assertThat(forkJoin.getWindSpeedPercentiles().getP90()).isEqualTo(sequential.getWindSpeedPercentiles().getP90());
+			assertThat(forkJoin.getHumidityPercentiles().getP50()).isEqualTo(sequential.getHumidityPercentiles().getP50());
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.weather.data.specification;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventExpressionTest {
+
+	@Test
+	void notBindsTighterThanAndAndAndTighterThanOr() {
+		EventExpression expression = EventExpression.parse("fog AND NOT rain OR snow AND condition=Haze");
+
+		assertThat(expression.toString()).isEqualTo("((fog AND NOT rain) OR (snow AND condition='haze'))");
+	}
+
+	@Test
+	void canonicalFormIgnoresCaseSpacingAndQuotes() {
+		EventExpression spelled = EventExpression.parse("not(Rain or THUNDER)and condition = \"Light Rain\"");
+		EventExpression canonical = EventExpression.parse("(NOT (rain OR thunder) AND condition='light rain')");
+
+		assertThat(spelled.toString()).isEqualTo(canonical.toString());
+	}
+
+	@Test
+	void rejectsMalformedExpressions() {
+		assertThatThrownBy(() -> EventExpression.parse("fog AND"))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("at the end");
+		assertThatThrownBy(() -> EventExpression.parse("(fog OR rain"))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("')'");
+		assertThatThrownBy(() -> EventExpression.parse("sleet"))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("unknown event 'sleet'");
+		assertThatThrownBy(() -> EventExpression.parse("condition='Haze"))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("unterminated quote");
+		assertThatThrownBy(() -> EventExpression.parse("fog rain"))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("unexpected 'rain'");
+	}
+}
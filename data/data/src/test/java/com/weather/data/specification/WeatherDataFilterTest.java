@@ -0,0 +1,35 @@
+package com.weather.data.specification;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WeatherDataFilterTest {
+
+	@Test
+	void parsesTheEventExpressionOnceWhenBound() {
+		WeatherDataFilter filter = new WeatherDataFilter();
+		filter.setEventExpr("fog AND NOT rain");
+
+		EventExpression expression = filter.getEventExpression();
+
+		assertThat(expression.toString()).isEqualTo("(fog AND NOT rain)");
+		assertThat(filter.getEventExpression()).isSameAs(expression);
+		assertThat(filter.normalizedKey()).isEqualTo("eventExpr=(fog AND NOT rain);");
+		assertThat(filter.hasCriteria()).isTrue();
+	}
+
+	@Test
+	void reportsAnInvalidEventExpressionWhereItIsUsed() {
+		WeatherDataFilter filter = new WeatherDataFilter();
+		filter.setEventExpr("fog AND");
+
+		assertThatThrownBy(filter::getEventExpression)
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Invalid eventExpr");
+
+		filter.setEventExpr(" ");
+		assertThat(filter.getEventExpression()).isNull();
+		assertThat(filter.hasCriteria()).isFalse();
+	}
+}
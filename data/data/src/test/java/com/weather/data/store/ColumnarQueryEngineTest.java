@@ -0,0 +1,147 @@
+package com.weather.data.store;
+
+import com.weather.data.model.WeatherData;
+import com.weather.data.service.DatasetVersion;
+import com.weather.data.specification.WeatherDataFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarQueryEngineTest {
+
+	private static final LocalDateTime START = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+	private final ColumnarWeatherStore store = new ColumnarWeatherStore();
+	private final ColumnarQueryEngine engine = new ColumnarQueryEngine();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(store, "datasetVersion", new DatasetVersion());
+		ReflectionTestUtils.setField(store, "enabled", true);
+		ReflectionTestUtils.setField(engine, "columnarWeatherStore", store);
+
+		// Three blocks per station: temperatures rise by 0.01 per hour, every 10th row has none
+		List<WeatherData> rows = new ArrayList<>();
+		for (String station : Arrays.asList("North", "South")) {
+			for (int hour = 0; hour < 3 * ZoneMap.BLOCK_SIZE; hour++) {
+				WeatherData data = new WeatherData();
+				data.setId((long) rows.size() + 1);
+				data.setStation(station);
+				data.setDatetimeUtc(START.plusHours(hour));
+				data.setTempm(hour % 10 == 0 ? null : hour / 100.0);
+				data.setConditions(hour % 2 == 0 ? "Haze" : "Clear");
+				data.setFog(hour % 3 == 0 ? 1 : 0);
+				data.setRain(hour % 5 == 0 ? 1 : null);
+				rows.add(data);
+			}
+		}
+		store.load(rows);
+	}
+
+	@Test
+	void matchesLikeTheSpecification() {
+		WeatherDataFilter filter = new WeatherDataFilter();
+		filter.setStation(" south");
+		filter.setMinTemp(10.0);
+		filter.setMaxTemp(20.0);
+		filter.setCondition("HAZE");
+
+		Page<Map<String, Object>> page = (Page<Map<String, Object>>) find(filter, Sort.by("datetimeUtc"), 0, 5, true);
+
+		// Hours 1000..2000, even and not a multiple of 10
+		assertThat(page.getTotalElements()).isEqualTo(400);
+		assertThat(page.getContent().get(0).get("datetimeUtc")).isEqualTo(START.plusHours(1002));
+		assertThat(page.getContent().get(0).get("station")).isEqualTo("South");
+		assertThat(page.getContent().get(0).get("id")).isEqualTo(3072L + 1003);
+	}
+
+	@Test
+	void evaluatesEventExpressionsOnTheBitmapIndex() {
+		WeatherDataFilter filter = new WeatherDataFilter();
+		filter.setStation("North");
+		filter.setEventExpr("fog AND NOT rain AND condition='haze'");
+
+		Page<Map<String, Object>> page = (Page<Map<String, Object>>) find(filter, Sort.by("datetimeUtc"), 0, 2, true);
+
+		// Multiples of 6 that are not multiples of 30; a missing rain flag counts as no rain
+		assertThat(page.getTotalElements()).isEqualTo(512 - 103);
+		assertThat(page.getContent()).extracting(row -> row.get("datetimeUtc"))
+				.containsExactly(START.plusHours(6), START.plusHours(12));
+
+		filter.setEventExpr("condition=Fog OR NOT (fog OR condition=Haze)");
+		assertThat(find(filter, Sort.by("datetimeUtc"), 0, 1, true).getContent())
+				.extracting(row -> row.get("datetimeUtc")).containsExactly(START.plusHours(1));
+	}
+
+	@Test
+	void restrictsToTheDateRange() {
+		WeatherDataFilter filter = new WeatherDataFilter();
+		filter.setStartDate("2000-01-02 00:00");
+		filter.setEndDate("2000-01-02 05:00");
+
+		Slice<Map<String, Object>> slice = find(filter, Sort.by(Sort.Direction.DESC, "datetimeUtc"), 0, 3, false);
+
+		assertThat(slice.hasNext()).isTrue();
+		assertThat(slice.getContent()).extracting(row -> row.get("datetimeUtc"))
+				.containsExactly(START.plusHours(29), START.plusHours(29), START.plusHours(28));
+	}
+
+	@Test
+	void sortsMissingValuesFirstAscendingAndLastDescending() {
+		WeatherDataFilter filter = new WeatherDataFilter();
+		filter.setStation("North");
+
+		Slice<Map<String, Object>> ascending = find(filter, Sort.by("tempm"), 0, 2, true);
+		Slice<Map<String, Object>> descending = find(filter, Sort.by(Sort.Direction.DESC, "tempm"), 0, 2, true);
+		Slice<Map<String, Object>> last = find(filter, Sort.by(Sort.Direction.DESC, "tempm"), 3070, 2, true);
+
+		assertThat(ascending.getContent()).extracting(row -> row.get("tempm")).containsExactly(null, null);
+		assertThat(descending.getContent()).extracting(row -> row.get("tempm")).containsExactly(30.71, 30.69);
+		assertThat(last.getContent()).extracting(row -> row.get("tempm")).containsExactly(null, null);
+		assertThat(engine.supports(Sort.by("conditions"))).isFalse();
+	}
+
+	@Test
+	void ordersAcrossStationsWithTiesInMatchOrder() {
+		WeatherDataFilter filter = new WeatherDataFilter();
+		Object first = find(filter, Sort.unsorted(), 0, 1, true).getContent().get(0).get("station");
+		Object second = find(filter, Sort.unsorted(), 3072, 1, true).getContent().get(0).get("station");
+
+		Slice<Map<String, Object>> descending = find(filter, Sort.by(Sort.Direction.DESC, "tempm"), 0, 4, true);
+		Slice<Map<String, Object>> byTime = find(filter, Sort.by(Sort.Direction.DESC, "datetimeUtc"), 4, 4, true);
+
+		assertThat(first).isNotEqualTo(second);
+		assertThat(descending.getContent()).extracting(row -> row.get("tempm")).containsExactly(30.71, 30.71, 30.69, 30.69);
+		assertThat(descending.getContent()).extracting(row -> row.get("station")).containsExactly(first, second, first, second);
+		assertThat(byTime.getContent()).extracting(row -> row.get("datetimeUtc")).containsExactly(
+				START.plusHours(3069), START.plusHours(3069), START.plusHours(3068), START.plusHours(3068));
+		assertThat(byTime.getContent()).extracting(row -> row.get("station")).containsExactly(first, second, first, second);
+	}
+
+	@Test
+	void pagesUnsortedAcrossStations() {
+		Slice<Map<String, Object>> page = find(new WeatherDataFilter(), Sort.unsorted(), 3070, 5, true);
+
+		// Rows straddle the end of the first station's segment
+		assertThat(page.getContent()).extracting(row -> row.get("datetimeUtc")).containsExactly(
+				START.plusHours(3070), START.plusHours(3071), START, START.plusHours(1), START.plusHours(2));
+		assertThat(page.getContent().get(1).get("station")).isNotEqualTo(page.getContent().get(2).get("station"));
+	}
+
+	private Slice<Map<String, Object>> find(WeatherDataFilter filter, Sort sort, int offset, int size, boolean withTotal) {
+		return engine.findPage(filter, PageRequest.of(offset / size, size, sort), withTotal,
+				Arrays.asList("id", "station", "datetimeUtc", "tempm"));
+	}
+}
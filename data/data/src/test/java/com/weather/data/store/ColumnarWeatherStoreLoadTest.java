@@ -0,0 +1,60 @@
+package com.weather.data.store;
+
+import com.weather.data.model.WeatherData;
+import com.weather.data.service.CsvProcessorService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"weather.ingest.on-startup=false", "weather.columnar.enabled=true"})
+class ColumnarWeatherStoreLoadTest {
+
+	@Autowired
+	private ColumnarWeatherStore columnarWeatherStore;
+
+	@Autowired
+	private CsvProcessorService csvProcessorService;
+
+	@Test
+	void startsFromTheStoredRowsAndAppendsNewOnes() {
+		// Rows a previous run left in a persistent database
+		List<WeatherData> stored = csvProcessorService.saveWeatherDataToDatabase(Arrays.asList(
+				observation("Stored", 10, 20.0), observation("Stored", 9, 10.0), observation("Other", 9, 30.0)));
+
+		columnarWeatherStore.loadFromDatabase();
+
+		WeatherColumns segment = columnarWeatherStore.getColumns("stored");
+		assertThat(segment.size()).isEqualTo(2);
+		assertThat(segment.getDatetimeUtc(0)).isEqualTo(time(9));
+		assertThat(segment.getId(0)).isEqualTo(stored.get(1).getId());
+		assertThat(columnarWeatherStore.getColumns("Other").getTempm().get(0)).isEqualTo(30.0);
+
+		List<WeatherData> inserted = csvProcessorService.saveWeatherDataToDatabase(
+				Collections.singletonList(observation("Stored", 11, 40.0)));
+		columnarWeatherStore.append(inserted);
+
+		segment = columnarWeatherStore.getColumns("Stored");
+		assertThat(segment.size()).isEqualTo(3);
+		assertThat(segment.getDatetimeUtc(2)).isEqualTo(time(11));
+		assertThat(columnarWeatherStore.getColumns("Other").size()).isEqualTo(1);
+	}
+
+	private static WeatherData observation(String station, int hour, double tempm) {
+		WeatherData data = new WeatherData();
+		data.setStation(station);
+		data.setDatetimeUtc(time(hour));
+		data.setTempm(tempm);
+		return data;
+	}
+
+	private static LocalDateTime time(int hour) {
+		return LocalDateTime.of(2003, 1, 1, hour, 0);
+	}
+}
@@ -0,0 +1,133 @@
+package com.weather.data.store;
+
+import com.weather.data.model.WeatherData;
+import com.weather.data.service.DatasetVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarWeatherStoreTest {
+
+	private final ColumnarWeatherStore store = new ColumnarWeatherStore();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(store, "datasetVersion", new DatasetVersion());
+	}
+
+	@Test
+	void keepsOneSegmentPerStation() {
+		store.load(Arrays.asList(observation("North", 10, 20.0), observation("South", 10, 30.0)));
+
+		store.append("north", columns(observation("North", 5, 10.0)));
+
+		assertThat(store.getColumns("NORTH ").size()).isEqualTo(2);
+		assertThat(store.getColumns("NORTH").getDatetimeUtc(0)).isEqualTo(time(5));
+		assertThat(store.getColumns("South").size()).isEqualTo(1);
+		assertThat(store.getColumns("West").size()).isZero();
+		assertThat(store.size()).isEqualTo(3);
+		assertThat(store.statistics().getTotalRecords()).isEqualTo(3);
+		assertThat(store.statistics().getAvgTemperature()).isEqualTo(20.0);
+	}
+
+	@Test
+	void readersKeepTheSnapshotTheyStartedWith() {
+		store.load(Arrays.asList(observation("North", 10, 20.0), observation("South", 10, 30.0)));
+		Map<String, WeatherColumns> before = store.getSegments();
+
+		store.load(Arrays.asList(observation("East", 10, 20.0)));
+
+		assertThat(before).containsOnlyKeys("north", "south");
+		assertThat(store.getSegments()).containsOnlyKeys("east");
+		assertThat(store.getStationName("east")).isEqualTo("East");
+		assertThat(store.getStationName("north")).isNull();
+	}
+
+	@Test
+	void concurrentAppendsKeepEveryRow() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> appends = new ArrayList<>();
+			for (int i = 0; i < 40; i++) {
+				String station = i % 2 == 0 ? "North" : "South";
+				int hour = i % 24;
+				appends.add(executor.submit(() -> store.append(station, columns(observation(station, hour, 20.0)))));
+			}
+			for (Future<?> append : appends) {
+				append.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertThat(store.getColumns("North").size()).isEqualTo(20);
+		assertThat(store.getColumns("South").size()).isEqualTo(20);
+		assertThat(store.size()).isEqualTo(40);
+	}
+
+	@Test
+	void appendCopiesColumnsLikeALoadOfAllRows() {
+		List<WeatherData> loaded = new ArrayList<>();
+		List<WeatherData> appended = new ArrayList<>();
+		for (int minute = 0; minute < 3000; minute++) {
+			WeatherData data = observation("North", 0, 20.0);
+			data.setId((long) minute + 1);
+			data.setDatetimeUtc(time(0).plusMinutes(minute < 1500 ? 2 * minute : 2 * (minute - 1500) + 1));
+			data.setTempm(minute % 7 == 0 ? null : minute / 10.0);
+			data.setHumidity(minute % 5 == 0 ? null : minute % 100);
+			// The appended rows meet the condition names in a different order, so their codes differ
+			data.setConditions(minute % 3 == 0 ? null : (minute < 1500) == (minute % 3 == 1) ? "Haze" : "Clear");
+			(minute < 1500 ? loaded : appended).add(data);
+		}
+		store.load(loaded);
+		store.append("North", columns(appended.toArray(new WeatherData[0])));
+		WeatherColumns merged = store.getColumns("North");
+
+		List<WeatherData> all = new ArrayList<>(loaded);
+		all.addAll(appended);
+		store.load(all);
+		WeatherColumns expected = store.getColumns("North");
+
+		assertThat(merged.size()).isEqualTo(3000);
+		for (int row = 0; row < merged.size(); row++) {
+			assertThat(merged.getId(row)).isEqualTo(expected.getId(row));
+			assertThat(merged.getDatetimeUtc(row)).isEqualTo(expected.getDatetimeUtc(row));
+			assertThat(merged.getTempm().getBoxed(row)).isEqualTo(expected.getTempm().getBoxed(row));
+			assertThat(merged.getHumidity().getBoxed(row)).isEqualTo(expected.getHumidity().getBoxed(row));
+			assertThat(merged.getConditions().get(row)).isEqualTo(expected.getConditions().get(row));
+		}
+		assertThat(merged.getBitmapIndex().condition("Haze").getCardinality())
+				.isPositive().isEqualTo(expected.getBitmapIndex().condition("Haze").getCardinality());
+	}
+
+	private static WeatherColumns columns(WeatherData... rows) {
+		WeatherColumns.Builder builder = new WeatherColumns.Builder();
+		for (WeatherData row : rows) {
+			builder.append(row);
+		}
+		return builder.build();
+	}
+
+	private static WeatherData observation(String station, int hour, double tempm) {
+		WeatherData data = new WeatherData();
+		data.setStation(station);
+		data.setDatetimeUtc(time(hour));
+		data.setTempm(tempm);
+		return data;
+	}
+
+	private static LocalDateTime time(int hour) {
+		return LocalDateTime.of(2000, 1, 1, hour, 0);
+	}
+}